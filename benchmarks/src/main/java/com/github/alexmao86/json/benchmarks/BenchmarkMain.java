@@ -0,0 +1,25 @@
+package com.github.alexmao86.json.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * ClassName: BenchmarkMain runs the benchmarks selected by JMH command line
+ * options, with the GC profiler always on so allocation rates are reported
+ * next to times, like java -jar target/benchmarks.jar Bind -rf json<br/>
+ *
+ * @author
+ */
+public final class BenchmarkMain {
+	private BenchmarkMain() {
+	}
+
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+		CommandLineOptions commandLine = new CommandLineOptions(args);
+		new Runner(new OptionsBuilder().parent(commandLine).addProfiler(GCProfiler.class).build()).run();
+	}
+}
@@ -0,0 +1,91 @@
+package com.github.alexmao86.json.benchmarks;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.alexmao86.json.JsonConfig;
+import com.github.alexmao86.json.JsonParseException;
+import com.github.alexmao86.json.JsonReader;
+import com.github.alexmao86.json.JsonSystem;
+import com.github.alexmao86.json.JsonWriter;
+import com.google.gson.Gson;
+
+/**
+ * ClassName: BindBenchmark binds the elements of the complex document to beans
+ * and writes the beans back, by reflection and by generated codecs, Gson
+ * binding is the baseline<br/>
+ *
+ * @author
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BindBenchmark {
+	@Param({ "false", "true" })
+	public boolean generatedCodecs;
+
+	private JsonReader reader;
+	private JsonWriter writer;
+	private final Gson gson = new Gson();
+	private String array;
+	private String object;
+	private Person person;
+	private Collection<Person> people;
+
+	@Setup
+	public void setUp() throws IOException, JsonParseException {
+		JsonConfig config = JsonSystem.builder().generatedCodecs(generatedCodecs).build();
+		reader = new JsonReader(config);
+		writer = new JsonWriter(config);
+		array = Corpus.document("complex");
+		object = reader.parse(array).getAsJSONObjectAt(0).toString();
+		person = reader.parse(object, Person.class);
+		people = reader.parseAsCollection(array, Person.class);
+	}
+
+	@Benchmark
+	public Person bindToBean() throws IOException, JsonParseException {
+		return reader.parse(object, Person.class);
+	}
+
+	@Benchmark
+	public Collection<Person> bindToBeans() throws IOException, JsonParseException {
+		return reader.parseAsCollection(array, Person.class);
+	}
+
+	@Benchmark
+	public String bindFromBean() {
+		return writer.stringify(person);
+	}
+
+	@Benchmark
+	public String bindFromBeans() {
+		return writer.stringify(people);
+	}
+
+	@Benchmark
+	public Person gsonBindToBean() {
+		return gson.fromJson(object, Person.class);
+	}
+
+	@Benchmark
+	public String gsonBindFromBean() {
+		return gson.toJson(person);
+	}
+}
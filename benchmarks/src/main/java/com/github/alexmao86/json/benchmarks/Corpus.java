@@ -0,0 +1,87 @@
+package com.github.alexmao86.json.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * ClassName: Corpus holds the documents benchmarks run over: the test corpus of
+ * the library, copied as resources under corpus/, and generated large and deep
+ * documents.<br/>
+ *
+ * @author
+ */
+public final class Corpus {
+	/**
+	 * elements of the large document, about 1 MB
+	 */
+	static final int LARGE_ELEMENTS = 120;
+	/**
+	 * nesting of the deep document, under the default max depth of the reader
+	 */
+	static final int DEEP_DEPTH = 900;
+
+	private Corpus() {
+	}
+
+	/**
+	 * document: text of a named document, large and deep are generated, others
+	 * are read from the corpus
+	 */
+	public static String document(String name) {
+		if ("large".equals(name))
+			return large(LARGE_ELEMENTS);
+		if ("deep".equals(name))
+			return deep(DEEP_DEPTH);
+		return resource(name);
+	}
+
+	static String resource(String name) {
+		try (InputStream in = Corpus.class.getResourceAsStream("/corpus/" + name + ".json")) {
+			if (in == null)
+				throw new IllegalArgumentException("no such document: " + name);
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream(8192);
+			byte[] buf = new byte[8192];
+			int length;
+			while ((length = in.read(buf)) != -1) {
+				bytes.write(buf, 0, length);
+			}
+			return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * large: array of the elements of the complex document, repeated given times
+	 */
+	static String large(int times) {
+		String complex = resource("complex").trim();
+		String elements = complex.substring(1, complex.length() - 1).trim();
+		StringBuilder sb = new StringBuilder(elements.length() * times + times + 2);
+		sb.append('[');
+		for (int i = 0; i < times; i++) {
+			if (i > 0)
+				sb.append(',');
+			sb.append(elements);
+		}
+		return sb.append(']').toString();
+	}
+
+	/**
+	 * deep: objects and arrays nested in turn to given depth
+	 */
+	static String deep(int depth) {
+		StringBuilder sb = new StringBuilder(depth * 8);
+		for (int i = 0; i < depth; i++) {
+			sb.append(i % 2 == 0 ? "{\"d\":" : "[");
+		}
+		sb.append(depth);
+		for (int i = depth - 1; i >= 0; i--) {
+			sb.append(i % 2 == 0 ? '}' : ']');
+		}
+		return sb.toString();
+	}
+}
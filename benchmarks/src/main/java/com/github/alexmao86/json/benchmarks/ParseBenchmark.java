@@ -0,0 +1,64 @@
+package com.github.alexmao86.json.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.alexmao86.json.JsonElement;
+import com.github.alexmao86.json.JsonParseException;
+import com.github.alexmao86.json.JsonReader;
+import com.google.gson.JsonParser;
+
+/**
+ * ClassName: ParseBenchmark builds json trees from text and from UTF-8 bytes,
+ * Gson tree building is the baseline<br/>
+ *
+ * @author
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ParseBenchmark {
+	@Param({ "complex", "objectarray", "nestedobject", "numberarray", "large", "deep" })
+	public String document;
+
+	private final JsonReader reader = new JsonReader();
+	private String json;
+	private byte[] utf8;
+
+	@Setup
+	public void setUp() {
+		json = Corpus.document(document);
+		utf8 = json.getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Benchmark
+	public JsonElement parseString() throws IOException, JsonParseException {
+		return reader.parse(json);
+	}
+
+	@Benchmark
+	public JsonElement parseUtf8() throws IOException, JsonParseException {
+		return reader.parse(utf8);
+	}
+
+	@Benchmark
+	public com.google.gson.JsonElement gsonParse() {
+		return new JsonParser().parse(json);
+	}
+}
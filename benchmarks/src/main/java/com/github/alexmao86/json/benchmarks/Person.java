@@ -0,0 +1,66 @@
+package com.github.alexmao86.json.benchmarks;
+
+import java.util.Collection;
+
+/**
+ * ClassName: Person is the bean of an element of the complex document<br/>
+ *
+ * @author
+ */
+public class Person {
+	public static class Friend {
+		private int id;
+		private String name;
+
+		public int getId() {
+			return id;
+		}
+
+		public void setId(int id) {
+			this.id = id;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+	}
+
+	private String _id;
+	private int index;
+	private String guid;
+	private boolean isActive;
+	private String balance;
+	private String picture;
+	private int age;
+	private String eyeColor;
+	private String name;
+	private String gender;
+	private String company;
+	private String email;
+	private String phone;
+	private String address;
+	private String about;
+	private String registered;
+	private double latitude;
+	private double longitude;
+	private Collection<String> tags;
+	private Collection<Friend> friends;
+	private String greeting;
+	private String favoriteFruit;
+
+	public String getName() {
+		return name;
+	}
+
+	public int getAge() {
+		return age;
+	}
+
+	public Collection<Friend> getFriends() {
+		return friends;
+	}
+}
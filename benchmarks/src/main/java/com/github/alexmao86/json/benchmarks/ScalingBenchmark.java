@@ -0,0 +1,111 @@
+package com.github.alexmao86.json.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.alexmao86.json.CorpusGenerator;
+import com.github.alexmao86.json.JsonElement;
+import com.github.alexmao86.json.JsonParseException;
+import com.github.alexmao86.json.JsonReader;
+import com.github.alexmao86.json.JsonTokenReader;
+import com.github.alexmao86.json.JsonWriter;
+import com.github.alexmao86.json.io.MappedFileInputSource;
+
+/**
+ * ClassName: ScalingBenchmark reads and writes documents of
+ * {@link CorpusGenerator} to show how costs grow with size, depth, count of
+ * member names, strings against numbers, escapes and non ASCII chars. The
+ * document is generated to a temporary file once per trial and read from the
+ * file. A tree is built, and written, for documents under 64 MB only; the
+ * elements of the top array are skipped through a {@link JsonTokenReader} at
+ * any size, so sizes over the heap are measured by skipFile, e.g. -p
+ * size=4294967296.<br/>
+ *
+ * @author
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScalingBenchmark {
+	private static final long MAX_TREE_SIZE = 64L * 1024 * 1024;
+
+	@Param({ "16384", "1048576", "16777216" })
+	public long size;
+	@Param({ "4", "32" })
+	public int depth;
+	@Param({ "32", "4096" })
+	public int keys;
+	@Param({ "0.5" })
+	public double stringRatio;
+	@Param({ "0", "0.05" })
+	public double escapeDensity;
+	@Param({ "0", "0.2" })
+	public double unicodeRatio;
+	@Param({ "1" })
+	public long seed;
+
+	private final JsonReader reader = new JsonReader();
+	private final JsonWriter writer = new JsonWriter();
+	private Path file;
+	private JsonElement tree;
+
+	@Setup
+	public void setUp() throws IOException, JsonParseException {
+		file = Files.createTempFile("corpus", ".json");
+		new CorpusGenerator().seed(seed).size(size).depth(depth).keys(keys).stringRatio(stringRatio)
+				.escapeDensity(escapeDensity).unicodeRatio(unicodeRatio).write(file);
+		reader.setMaxDepth(Math.max(depth, reader.getMaxDepth()));
+		tree = size <= MAX_TREE_SIZE ? reader.parse(file) : null;
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(file);
+	}
+
+	@Benchmark
+	public JsonElement parseFile() throws IOException, JsonParseException {
+		if (size > MAX_TREE_SIZE)
+			return null;
+		return reader.parse(file);
+	}
+
+	@Benchmark
+	public long skipFile() throws IOException, JsonParseException {
+		try (MappedFileInputSource source = new MappedFileInputSource(file)) {
+			JsonTokenReader tokens = new JsonTokenReader(source);
+			tokens.setMaxDepth(reader.getMaxDepth());
+			tokens.beginArray();
+			while (tokens.hasNext()) {
+				tokens.skipValue();
+			}
+			tokens.endArray();
+			return tokens.getValueCount();
+		}
+	}
+
+	@Benchmark
+	public byte[] stringifyUtf8() {
+		if (tree == null)
+			return null;
+		return writer.stringifyUtf8(tree);
+	}
+}
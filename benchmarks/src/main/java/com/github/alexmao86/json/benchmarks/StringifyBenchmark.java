@@ -0,0 +1,67 @@
+package com.github.alexmao86.json.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.alexmao86.json.JsonElement;
+import com.github.alexmao86.json.JsonParseException;
+import com.github.alexmao86.json.JsonReader;
+import com.github.alexmao86.json.JsonWriter;
+import com.google.gson.Gson;
+import com.google.gson.JsonParser;
+
+/**
+ * ClassName: StringifyBenchmark writes a parsed tree back to text and to UTF-8
+ * bytes, Gson writing its own tree is the baseline<br/>
+ *
+ * @author
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class StringifyBenchmark {
+	@Param({ "complex", "objectarray", "large", "deep" })
+	public String document;
+
+	private final JsonWriter writer = new JsonWriter();
+	private final Gson gson = new Gson();
+	private JsonElement tree;
+	private com.google.gson.JsonElement gsonTree;
+
+	@Setup
+	public void setUp() throws IOException, JsonParseException {
+		String json = Corpus.document(document);
+		tree = new JsonReader().parse(json);
+		gsonTree = new JsonParser().parse(json);
+	}
+
+	@Benchmark
+	public String stringify() {
+		return writer.stringify(tree);
+	}
+
+	@Benchmark
+	public byte[] stringifyUtf8() {
+		return writer.stringifyUtf8(tree);
+	}
+
+	@Benchmark
+	public String gsonStringify() {
+		return gson.toJson(gsonTree);
+	}
+}
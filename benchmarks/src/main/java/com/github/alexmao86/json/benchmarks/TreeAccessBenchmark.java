@@ -0,0 +1,62 @@
+package com.github.alexmao86.json.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.github.alexmao86.json.JsonArray;
+import com.github.alexmao86.json.JsonElement;
+import com.github.alexmao86.json.JsonObject;
+import com.github.alexmao86.json.JsonParseException;
+import com.github.alexmao86.json.JsonReader;
+
+/**
+ * ClassName: TreeAccessBenchmark reads typed values out of a parsed tree, like
+ * applications walking the elements of the complex document do<br/>
+ *
+ * @author
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TreeAccessBenchmark {
+	@Param({ "complex", "large" })
+	public String document;
+
+	private JsonElement tree;
+
+	@Setup
+	public void setUp() throws IOException, JsonParseException {
+		tree = new JsonReader().parse(Corpus.document(document));
+	}
+
+	@Benchmark
+	public void walk(Blackhole blackhole) {
+		for (int i = 0, size = tree.getSize(); i < size; i++) {
+			JsonObject person = tree.getAsJSONObjectAt(i);
+			blackhole.consume(person.getAsString("name"));
+			blackhole.consume(person.getAsInt("age"));
+			blackhole.consume(person.getAsBoolean("isActive"));
+			blackhole.consume(person.getAsDouble("latitude"));
+			JsonArray friends = person.getAsJSONArray("friends");
+			for (int j = 0, count = friends.getSize(); j < count; j++) {
+				blackhole.consume(friends.getAsJSONObjectAt(j).getAsString("name"));
+			}
+		}
+	}
+}
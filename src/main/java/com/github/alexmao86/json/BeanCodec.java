@@ -0,0 +1,404 @@
+package com.github.alexmao86.json;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+
+import com.github.alexmao86.json.JDKReflectJsonWorker.FieldJsonDefinition;
+import com.github.alexmao86.json.io.CharSequenceOutputSink;
+
+/**
+ * ClassName: BeanCodec is the base of the serializer and deserializer
+ * generated for one bean class by {@link BeanCodecGenerator}. Generated
+ * subclasses read and write properties by straight calls of public getters and
+ * setters, and pass values to the helpers below, which apply the rules of the
+ * calling context and the precomputed name tokens. Beans are bound from the
+ * tree or straight from the tokens, member names of the tokens are found by a
+ * {@link MemberIndex} of the bean. It is public only because
+ * generated classes live in their own class loader.<br/>
+ *
+ * @author
+ */
+@SuppressWarnings("rawtypes")
+public abstract class BeanCodec implements JsonStreamSerializer<Object>, JsonStreamDeserializer<Object> {
+	private final Class type;
+	private final FieldJsonDefinition[] fields;
+	private final MemberIndex members;
+
+	/**
+	 * @param fields
+	 *            field definitions of the bean, in order of generated indexes
+	 */
+	protected BeanCodec(Class type, Object[] fields) {
+		super();
+		this.type = type;
+		this.fields = new FieldJsonDefinition[fields.length];
+		List<String> names = new ArrayList<String>(fields.length);
+		for (int i = 0; i < fields.length; i++) {
+			this.fields[i] = (FieldJsonDefinition) fields[i];
+			names.add(this.fields[i].memberName);
+		}
+		this.members = MemberIndex.of(names);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Class<Object> supportedType() {
+		return type;
+	}
+
+	/**
+	 * writeMembers: write every member of bean, generated
+	 */
+	protected abstract void writeMembers(Object bean, JsonSystem context, CharSequenceOutputSink out)
+			throws IOException;
+
+	/**
+	 * readMember: set property of given member name from json, generated as a
+	 * switch on hash of the name
+	 *
+	 * @return false if bean has no such member
+	 */
+	protected abstract boolean readMember(Object bean, String name, JsonElement json, JsonSystem context)
+			throws JsonParseException;
+
+	/**
+	 * readMember: set property of given member index from the value at current
+	 * position of the token reader, generated as a switch on the index
+	 */
+	protected abstract void readMember(Object bean, int index, JsonTokenReader reader, JsonSystem context)
+			throws IOException, JsonParseException;
+
+	/**
+	 * newInstance: new bean, generated as a straight constructor call when the
+	 * bean has a public one
+	 */
+	protected Object newInstance() throws ReflectiveOperationException {
+		return type.newInstance();
+	}
+
+	@Override
+	public void serialize(Object object, JsonSystem context, CharSequenceOutputSink out) throws IOException {
+		if (object == null) {
+			out.write("null");
+			return;
+		}
+		out.write('{');
+		writeMembers(object, context, out);
+		out.write('}');
+	}
+
+	@Override
+	public Object deserialize(JsonElement json, Class<Object> targetClass, JsonSystem context, Class... actualTypes)
+			throws JsonParseException {
+		Object instance = create();
+		for (Entry<String, JsonElement> entry : json.getAsJsonObject().entrySet()) {
+			JsonElement value = entry.getValue();
+			if (value == null || value.isJSONNull())
+				continue;
+			readMember(instance, entry.getKey(), value, context);
+		}
+		return instance;
+	}
+
+	/**
+	 * deserialize: bind the bean member by member from the token reader, no
+	 * tree is built for it. Unknown members are skipped, null values are not
+	 * set.
+	 */
+	@Override
+	public Object deserialize(JsonTokenReader reader, Class<Object> targetClass, JsonSystem context,
+			Class... actualTypes) throws IOException, JsonParseException {
+		if (reader.nextToken() == JsonToken.NULL) {
+			reader.nextNull();
+			return null;
+		}
+		Object instance = create();
+		reader.beginObject();
+		while (reader.hasNext()) {
+			int index = reader.nextName(members);
+			if (index < 0) {
+				reader.skipValue();
+				continue;
+			}
+			if (reader.nextToken() == JsonToken.NULL) {
+				reader.nextNull();
+				continue;
+			}
+			readMember(instance, index, reader, context);
+		}
+		reader.endObject();
+		return instance;
+	}
+
+	private final Object create() throws JsonParseException {
+		try {
+			return newInstance();
+		} catch (ReflectiveOperationException e) {
+			throw new JsonParseException("Your plain java bean does not have default constructor", e);
+		}
+	}
+
+	/*
+	 * write helpers, take the value read by generated code and the first flag,
+	 * return the first flag for next member
+	 */
+	protected final boolean writeBoolean(int index, boolean first, boolean value, JsonSystem context,
+			CharSequenceOutputSink out) throws IOException {
+		FieldJsonDefinition def = fields[index];
+		if (!context.primitiveByDefault(def.mappingType))
+			return def.write(value, first, context, out);
+		def.writeName(first, out);
+		out.write(value ? "true" : "false");
+		return false;
+	}
+
+	/**
+	 * writeInt: member of byte, short, char or int property
+	 */
+	protected final boolean writeInt(int index, boolean first, int value, JsonSystem context,
+			CharSequenceOutputSink out) throws IOException {
+		FieldJsonDefinition def = fields[index];
+		Class type = def.mappingType;
+		if (!context.primitiveByDefault(type)) {
+			Object boxed;
+			if (type == byte.class)
+				boxed = Byte.valueOf((byte) value);
+			else if (type == short.class)
+				boxed = Short.valueOf((short) value);
+			else if (type == char.class)
+				boxed = Character.valueOf((char) value);
+			else
+				boxed = Integer.valueOf(value);
+			return def.write(boxed, first, context, out);
+		}
+		def.writeName(first, out);
+		if (type == char.class)
+			JsonSystem.writeString(String.valueOf((char) value), out);
+		else
+			out.writeLong(value);
+		return false;
+	}
+
+	protected final boolean writeLong(int index, boolean first, long value, JsonSystem context,
+			CharSequenceOutputSink out) throws IOException {
+		FieldJsonDefinition def = fields[index];
+		if (!context.primitiveByDefault(def.mappingType))
+			return def.write(value, first, context, out);
+		def.writeName(first, out);
+		out.writeLong(value);
+		return false;
+	}
+
+	protected final boolean writeFloat(int index, boolean first, float value, JsonSystem context,
+			CharSequenceOutputSink out) throws IOException {
+		FieldJsonDefinition def = fields[index];
+		if (!context.primitiveByDefault(def.mappingType))
+			return def.write(value, first, context, out);
+		def.writeName(first, out);
+		out.write(Float.toString(value));
+		return false;
+	}
+
+	protected final boolean writeDouble(int index, boolean first, double value, JsonSystem context,
+			CharSequenceOutputSink out) throws IOException {
+		FieldJsonDefinition def = fields[index];
+		if (!context.primitiveByDefault(def.mappingType))
+			return def.write(value, first, context, out);
+		def.writeName(first, out);
+		out.write(Double.toString(value));
+		return false;
+	}
+
+	protected final boolean writeObject(int index, boolean first, Object value, JsonSystem context,
+			CharSequenceOutputSink out) throws IOException {
+		return fields[index].write(value, first, context, out);
+	}
+
+	/**
+	 * writeProperty: member of a property without public getter, read by its
+	 * accessor handles
+	 */
+	protected final boolean writeProperty(int index, boolean first, Object bean, JsonSystem context,
+			CharSequenceOutputSink out) throws IOException {
+		FieldJsonDefinition def = fields[index];
+		try {
+			if (def.mappingType.isPrimitive() && context.primitiveByDefault(def.mappingType)) {
+				def.writePrimitive(bean, first, out);
+				return false;
+			}
+			return def.write(def.getFieldValue(bean), first, context, out);
+		} catch (ReflectiveOperationException e) {
+			throw new IOException("can not read property " + def.memberName + " of " + type.getName(), e);
+		}
+	}
+
+	/*
+	 * read helpers, return value for the generated setter call
+	 */
+	private final boolean builtInReader(FieldJsonDefinition def, JsonSystem context) {
+		return context.queryJsonDeserializer(def.mappingType) instanceof JDKReflectJsonWorker;
+	}
+
+	protected final boolean readBoolean(int index, JsonElement json, JsonSystem context) throws JsonParseException {
+		FieldJsonDefinition def = fields[index];
+		if (builtInReader(def, context))
+			return json.getAsBoolean();
+		return (Boolean) def.deserialize(json, context);
+	}
+
+	/**
+	 * readInt: value of byte, short, char or int property
+	 */
+	protected final int readInt(int index, JsonElement json, JsonSystem context) throws JsonParseException {
+		FieldJsonDefinition def = fields[index];
+		Class type = def.mappingType;
+		if (builtInReader(def, context))
+			return intOf(type, json);
+		Object value = def.deserialize(json, context);
+		if (type == char.class)
+			return (Character) value;
+		return ((Number) value).intValue();
+	}
+
+	private static int intOf(Class type, JsonElement json) {
+		if (type == byte.class)
+			return json.getAsByte();
+		if (type == short.class)
+			return json.getAsShort();
+		if (type == char.class)
+			return json.getAsCharacter();
+		return json.getAsInt();
+	}
+
+	protected final long readLong(int index, JsonElement json, JsonSystem context) throws JsonParseException {
+		FieldJsonDefinition def = fields[index];
+		if (builtInReader(def, context))
+			return json.getAsLong();
+		return ((Number) def.deserialize(json, context)).longValue();
+	}
+
+	protected final float readFloat(int index, JsonElement json, JsonSystem context) throws JsonParseException {
+		FieldJsonDefinition def = fields[index];
+		if (builtInReader(def, context))
+			return json.getAsFloat();
+		return ((Number) def.deserialize(json, context)).floatValue();
+	}
+
+	protected final double readDouble(int index, JsonElement json, JsonSystem context) throws JsonParseException {
+		FieldJsonDefinition def = fields[index];
+		if (builtInReader(def, context))
+			return json.getAsDouble();
+		return ((Number) def.deserialize(json, context)).doubleValue();
+	}
+
+	protected final Object readObject(int index, JsonElement json, JsonSystem context) throws JsonParseException {
+		return fields[index].deserialize(json, context);
+	}
+
+	/**
+	 * readProperty: set a property without public setter, by its accessor
+	 * handles
+	 */
+	protected final void readProperty(int index, Object bean, JsonElement json, JsonSystem context)
+			throws JsonParseException {
+		FieldJsonDefinition def = fields[index];
+		try {
+			def.read(bean, json, context);
+		} catch (ReflectiveOperationException e) {
+			throw new JsonParseException("can not set property " + def.memberName + " of " + type.getName(), e);
+		}
+	}
+
+	/*
+	 * read helpers of the token reader, numbers and booleans are converted in
+	 * place when built-in rules apply, like their tree nodes would convert them
+	 */
+	protected final boolean readBoolean(int index, JsonTokenReader reader, JsonSystem context)
+			throws IOException, JsonParseException {
+		FieldJsonDefinition def = fields[index];
+		if (!builtInReader(def, context))
+			return (Boolean) def.deserialize(reader, context);
+		if (reader.nextToken() == JsonToken.BOOLEAN)
+			return reader.nextBoolean();
+		return context.readElement(reader).getAsBoolean();
+	}
+
+	protected final int readInt(int index, JsonTokenReader reader, JsonSystem context)
+			throws IOException, JsonParseException {
+		FieldJsonDefinition def = fields[index];
+		Class type = def.mappingType;
+		if (!builtInReader(def, context)) {
+			Object value = def.deserialize(reader, context);
+			if (type == char.class)
+				return (Character) value;
+			return ((Number) value).intValue();
+		}
+		if (type == char.class || reader.nextToken() != JsonToken.NUMBER)
+			return intOf(type, context.readElement(reader));
+		NumberLiteral literal = reader.nextNumberLiteral();
+		if (!literal.primitive())
+			return intOf(type, literal.toElement());
+		long value = literal.wholeValue();
+		if (type == byte.class)
+			return JsonLong.toByte(value);
+		if (type == short.class)
+			return JsonLong.toShort(value);
+		return JsonLong.toInt(value);
+	}
+
+	protected final long readLong(int index, JsonTokenReader reader, JsonSystem context)
+			throws IOException, JsonParseException {
+		FieldJsonDefinition def = fields[index];
+		if (!builtInReader(def, context))
+			return ((Number) def.deserialize(reader, context)).longValue();
+		if (reader.nextToken() != JsonToken.NUMBER)
+			return context.readElement(reader).getAsLong();
+		NumberLiteral literal = reader.nextNumberLiteral();
+		if (!literal.primitive())
+			return literal.toElement().getAsLong();
+		return literal.wholeValue();
+	}
+
+	protected final float readFloat(int index, JsonTokenReader reader, JsonSystem context)
+			throws IOException, JsonParseException {
+		FieldJsonDefinition def = fields[index];
+		if (!builtInReader(def, context))
+			return ((Number) def.deserialize(reader, context)).floatValue();
+		if (reader.nextToken() != JsonToken.NUMBER)
+			return context.readElement(reader).getAsFloat();
+		NumberLiteral literal = reader.nextNumberLiteral();
+		if (!literal.primitive())
+			return literal.toElement().getAsFloat();
+		return literal.floatValue();
+	}
+
+	protected final double readDouble(int index, JsonTokenReader reader, JsonSystem context)
+			throws IOException, JsonParseException {
+		FieldJsonDefinition def = fields[index];
+		if (!builtInReader(def, context))
+			return ((Number) def.deserialize(reader, context)).doubleValue();
+		if (reader.nextToken() != JsonToken.NUMBER)
+			return context.readElement(reader).getAsDouble();
+		NumberLiteral literal = reader.nextNumberLiteral();
+		if (!literal.primitive())
+			return literal.toElement().getAsDouble();
+		return literal.doubleValue();
+	}
+
+	protected final Object readObject(int index, JsonTokenReader reader, JsonSystem context)
+			throws IOException, JsonParseException {
+		return fields[index].deserialize(reader, context);
+	}
+
+	protected final void readProperty(int index, Object bean, JsonTokenReader reader, JsonSystem context)
+			throws IOException, JsonParseException {
+		FieldJsonDefinition def = fields[index];
+		try {
+			def.read(bean, reader, context);
+		} catch (ReflectiveOperationException e) {
+			throw new JsonParseException("can not set property " + def.memberName + " of " + type.getName(), e);
+		}
+	}
+}
@@ -0,0 +1,357 @@
+package com.github.alexmao86.json;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.github.alexmao86.json.ClassFileWriter.Code;
+import com.github.alexmao86.json.ClassFileWriter.Label;
+import com.github.alexmao86.json.JDKReflectJsonWorker.FieldJsonDefinition;
+
+/**
+ * ClassName: BeanCodecGenerator spins a {@link BeanCodec} subclass for one
+ * bean class, without any library. Properties with public getter and setter
+ * are read and written by straight calls, others through the accessor handles
+ * of their {@link FieldJsonDefinition}. Member names of the tree are
+ * dispatched by a lookupswitch on their hash, members of the token reader by
+ * one on their index. Each codec is defined by its own class loader
+ * under the loader of the bean, so it is unloaded with the bean.<br/>
+ *
+ * @author
+ */
+final class BeanCodecGenerator {
+	private final static Logger LOGGER = Logger.getLogger(BeanCodecGenerator.class.getName());
+
+	private static final String LIBRARY_PACKAGE = "com.github.alexmao86.json.";
+	private static final String CODEC = "com/github/alexmao86/json/BeanCodec";
+	private static final String OBJECT = "Ljava/lang/Object;";
+	private static final String SYSTEM = "Lcom/github/alexmao86/json/JsonSystem;";
+	private static final String ELEMENT = "Lcom/github/alexmao86/json/JsonElement;";
+	private static final String READER = "Lcom/github/alexmao86/json/JsonTokenReader;";
+	private static final String SINK = "Lcom/github/alexmao86/json/io/CharSequenceOutputSink;";
+
+	/*
+	 * locals of writeMembers
+	 */
+	private static final int W_BEAN = 4;
+	private static final int W_FIRST = 5;
+	/*
+	 * locals of both readMember, value source and context are the 3rd and 4th
+	 * arguments of each
+	 */
+	private static final int R_BEAN = 5;
+	private static final int R_VALUE = 6;
+
+	private BeanCodecGenerator() {
+	}
+
+	/**
+	 * generate: codec of given bean class
+	 *
+	 * @return null if a codec can not be generated for the class
+	 */
+	static BeanCodec generate(Class<?> type, List<FieldJsonDefinition> fields) {
+		if (!generatable(type))
+			return null;
+		String name = type.getName() + "$$JsonCodec";
+		try {
+			byte[] bytes = generate(name.replace('.', '/'), type, fields);
+			Class<?> codecClass = new CodecClassLoader(type.getClassLoader()).define(name, bytes);
+			return (BeanCodec) codecClass.getConstructor(Class.class, Object[].class).newInstance(type,
+					fields.toArray());
+		} catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+			LOGGER.log(Level.FINE, "can not generate codec for " + type, e);
+			return null;
+		}
+	}
+
+	/**
+	 * generatable: public named classes, seen by their own loader under their
+	 * name
+	 */
+	private static boolean generatable(Class<?> type) {
+		int modifiers = type.getModifiers();
+		if (!Modifier.isPublic(modifiers) || Modifier.isAbstract(modifiers) || type.isArray() || type.isPrimitive()
+				|| type.isEnum() || type.isAnonymousClass() || type.isLocalClass() || type.isSynthetic())
+			return false;
+		ClassLoader loader = type.getClassLoader();
+		if (loader == null || type.getName().startsWith("java."))
+			return false;
+		return visible(type, loader);
+	}
+
+	private static boolean visible(Class<?> type, ClassLoader loader) {
+		try {
+			return Class.forName(type.getName(), false, loader) == type;
+		} catch (ClassNotFoundException | LinkageError e) {
+			return false;
+		}
+	}
+
+	private static String internalName(Class<?> type) {
+		return type.getName().replace('.', '/');
+	}
+
+	private static String descriptor(Class<?> type) {
+		if (type.isPrimitive()) {
+			if (type == boolean.class)
+				return "Z";
+			if (type == byte.class)
+				return "B";
+			if (type == char.class)
+				return "C";
+			if (type == short.class)
+				return "S";
+			if (type == int.class)
+				return "I";
+			if (type == long.class)
+				return "J";
+			if (type == float.class)
+				return "F";
+			if (type == double.class)
+				return "D";
+			return "V";
+		}
+		if (type.isArray())
+			return internalName(type);
+		return "L" + internalName(type) + ";";
+	}
+
+	/**
+	 * helperType: descriptor of value type taken or returned by the helpers of
+	 * {@link BeanCodec}, byte short and char go as int
+	 */
+	private static String helperType(Class<?> type) {
+		if (type == byte.class || type == short.class || type == char.class)
+			return "I";
+		if (type.isPrimitive())
+			return descriptor(type);
+		return OBJECT;
+	}
+
+	private static String helperSuffix(Class<?> type) {
+		if (type == boolean.class)
+			return "Boolean";
+		if (type == long.class)
+			return "Long";
+		if (type == float.class)
+			return "Float";
+		if (type == double.class)
+			return "Double";
+		if (type.isPrimitive())
+			return "Int";
+		return "Object";
+	}
+
+	private static byte[] generate(String name, Class<?> type, List<FieldJsonDefinition> fields) {
+		ClassFileWriter writer = new ClassFileWriter(name, CODEC);
+		String bean = internalName(type);
+		ClassLoader loader = type.getClassLoader();
+
+		// constructor, passes type and field definitions up
+		String initDescriptor = "(Ljava/lang/Class;[Ljava/lang/Object;)V";
+		Code init = writer.method(ClassFileWriter.ACC_PUBLIC, "<init>", initDescriptor, 3, 3);
+		init.var(ClassFileWriter.ALOAD, 0).var(ClassFileWriter.ALOAD, 1).var(ClassFileWriter.ALOAD, 2)
+				.invoke(ClassFileWriter.INVOKESPECIAL, CODEC, "<init>", initDescriptor).op(ClassFileWriter.RETURN);
+		init.end();
+
+		// straight constructor call
+		boolean publicConstructor;
+		try {
+			publicConstructor = Modifier.isPublic(type.getConstructor().getModifiers());
+		} catch (NoSuchMethodException e) {
+			publicConstructor = false;
+		}
+		if (publicConstructor) {
+			Code create = writer.method(ClassFileWriter.ACC_PUBLIC, "newInstance", "()" + OBJECT, 2, 1);
+			create.type(ClassFileWriter.NEW, bean).op(ClassFileWriter.DUP)
+					.invoke(ClassFileWriter.INVOKESPECIAL, bean, "<init>", "()V").op(ClassFileWriter.ARETURN);
+			create.end();
+		}
+
+		// members written in field order
+		Code write = writer.method(ClassFileWriter.ACC_PUBLIC, "writeMembers", "(" + OBJECT + SYSTEM + SINK + ")V",
+				8, 6);
+		write.var(ClassFileWriter.ALOAD, 1).type(ClassFileWriter.CHECKCAST, bean).var(ClassFileWriter.ASTORE, W_BEAN);
+		write.op(ClassFileWriter.ICONST_1).var(ClassFileWriter.ISTORE, W_FIRST);
+		for (int i = 0; i < fields.size(); i++) {
+			FieldJsonDefinition def = fields.get(i);
+			write.var(ClassFileWriter.ALOAD, 0).push(i).var(ClassFileWriter.ILOAD, W_FIRST);
+			if (direct(def.getter)) {
+				write.var(ClassFileWriter.ALOAD, W_BEAN).invoke(ClassFileWriter.INVOKEVIRTUAL, bean,
+						def.getter.getName(), "()" + descriptor(def.mappingType));
+				write.var(ClassFileWriter.ALOAD, 2).var(ClassFileWriter.ALOAD, 3).invoke(
+						ClassFileWriter.INVOKEVIRTUAL, CODEC, "write" + helperSuffix(def.mappingType),
+						"(IZ" + helperType(def.mappingType) + SYSTEM + SINK + ")Z");
+			} else {
+				write.var(ClassFileWriter.ALOAD, 1).var(ClassFileWriter.ALOAD, 2).var(ClassFileWriter.ALOAD, 3)
+						.invoke(ClassFileWriter.INVOKEVIRTUAL, CODEC, "writeProperty", "(IZ" + OBJECT + SYSTEM + SINK
+								+ ")Z");
+			}
+			write.var(ClassFileWriter.ISTORE, W_FIRST);
+		}
+		write.op(ClassFileWriter.RETURN);
+		write.end();
+
+		// members read by switch on hash of name, names of same hash are chained
+		Map<Integer, List<Integer>> hashes = new TreeMap<Integer, List<Integer>>();
+		for (int i = 0; i < fields.size(); i++) {
+			Integer hash = fields.get(i).memberName.hashCode();
+			List<Integer> indexes = hashes.get(hash);
+			if (indexes == null) {
+				indexes = new ArrayList<Integer>(1);
+				hashes.put(hash, indexes);
+			}
+			indexes.add(i);
+		}
+		List<Label> labels = new ArrayList<Label>();
+		Label miss = new Label();
+		labels.add(miss);
+		int[] keys = new int[hashes.size()];
+		Label[] targets = new Label[hashes.size()];
+		int k = 0;
+		for (Integer hash : hashes.keySet()) {
+			keys[k] = hash;
+			targets[k] = new Label();
+			labels.add(targets[k]);
+			k++;
+		}
+
+		Code read = writer.method(ClassFileWriter.ACC_PUBLIC, "readMember",
+				"(" + OBJECT + "Ljava/lang/String;" + ELEMENT + SYSTEM + ")Z", 8, 7);
+		read.var(ClassFileWriter.ALOAD, 1).type(ClassFileWriter.CHECKCAST, bean).var(ClassFileWriter.ASTORE, R_BEAN);
+		read.var(ClassFileWriter.ALOAD, 2).invoke(ClassFileWriter.INVOKEVIRTUAL, "java/lang/String", "hashCode",
+				"()I");
+		read.lookupSwitch(keys, targets, miss);
+		k = 0;
+		for (List<Integer> indexes : hashes.values()) {
+			read.mark(targets[k++]);
+			for (int i : indexes) {
+				FieldJsonDefinition def = fields.get(i);
+				Label next = new Label();
+				Label done = new Label();
+				labels.add(next);
+				labels.add(done);
+				read.var(ClassFileWriter.ALOAD, 2).ldc(def.memberName).invoke(ClassFileWriter.INVOKEVIRTUAL,
+						"java/lang/String", "equals", "(" + OBJECT + ")Z");
+				read.branch(ClassFileWriter.IFEQ, next);
+				readProperty(read, bean, loader, def, i, ELEMENT, done);
+				read.mark(done).op(ClassFileWriter.ICONST_1).op(ClassFileWriter.IRETURN);
+				read.mark(next);
+			}
+			read.branch(ClassFileWriter.GOTO, miss);
+		}
+		read.mark(miss).op(ClassFileWriter.ICONST_0).op(ClassFileWriter.IRETURN);
+		read.end(labels.toArray(new Label[labels.size()]));
+
+		// members of the token reader by switch on their index
+		labels.clear();
+		Label unknown = new Label();
+		labels.add(unknown);
+		keys = new int[fields.size()];
+		targets = new Label[fields.size()];
+		for (int i = 0; i < fields.size(); i++) {
+			keys[i] = i;
+			targets[i] = new Label();
+			labels.add(targets[i]);
+		}
+		Code stream = writer.method(ClassFileWriter.ACC_PUBLIC, "readMember",
+				"(" + OBJECT + "I" + READER + SYSTEM + ")V", 8, 7);
+		stream.var(ClassFileWriter.ALOAD, 1).type(ClassFileWriter.CHECKCAST, bean).var(ClassFileWriter.ASTORE,
+				R_BEAN);
+		stream.var(ClassFileWriter.ILOAD, 2).lookupSwitch(keys, targets, unknown);
+		for (int i = 0; i < fields.size(); i++) {
+			Label done = new Label();
+			labels.add(done);
+			stream.mark(targets[i]);
+			readProperty(stream, bean, loader, fields.get(i), i, READER, done);
+			stream.mark(done).op(ClassFileWriter.RETURN);
+		}
+		stream.mark(unknown).op(ClassFileWriter.RETURN);
+		stream.end(labels.toArray(new Label[labels.size()]));
+
+		return writer.toByteArray();
+	}
+
+	/**
+	 * readProperty: set property of index i from the value source of
+	 * readMember, by the read helper of {@link BeanCodec} taking that source.
+	 * Deserialized null is not set, jumps to done then.
+	 */
+	private static void readProperty(Code read, String bean, ClassLoader loader, FieldJsonDefinition def, int i,
+			String source, Label done) {
+		Class<?> fieldType = def.mappingType;
+		String setterDescriptor = "(" + descriptor(fieldType) + ")V";
+		if (direct(def.setter) && fieldType.isPrimitive()) {
+			read.var(ClassFileWriter.ALOAD, R_BEAN).var(ClassFileWriter.ALOAD, 0).push(i)
+					.var(ClassFileWriter.ALOAD, 3).var(ClassFileWriter.ALOAD, 4)
+					.invoke(ClassFileWriter.INVOKEVIRTUAL, CODEC, "read" + helperSuffix(fieldType),
+							"(I" + source + SYSTEM + ")" + helperType(fieldType))
+					.invoke(ClassFileWriter.INVOKEVIRTUAL, bean, def.setter.getName(), setterDescriptor);
+		} else if (direct(def.setter) && accessible(fieldType, loader)) {
+			read.var(ClassFileWriter.ALOAD, 0).push(i).var(ClassFileWriter.ALOAD, 3).var(ClassFileWriter.ALOAD, 4)
+					.invoke(ClassFileWriter.INVOKEVIRTUAL, CODEC, "readObject", "(I" + source + SYSTEM + ")" + OBJECT)
+					.var(ClassFileWriter.ASTORE, R_VALUE).var(ClassFileWriter.ALOAD, R_VALUE)
+					.branch(ClassFileWriter.IFNULL, done);
+			read.var(ClassFileWriter.ALOAD, R_BEAN).var(ClassFileWriter.ALOAD, R_VALUE)
+					.type(ClassFileWriter.CHECKCAST, internalName(fieldType))
+					.invoke(ClassFileWriter.INVOKEVIRTUAL, bean, def.setter.getName(), setterDescriptor);
+		} else {
+			read.var(ClassFileWriter.ALOAD, 0).push(i).var(ClassFileWriter.ALOAD, 1).var(ClassFileWriter.ALOAD, 3)
+					.var(ClassFileWriter.ALOAD, 4).invoke(ClassFileWriter.INVOKEVIRTUAL, CODEC, "readProperty",
+							"(I" + OBJECT + source + SYSTEM + ")V");
+		}
+	}
+
+	/**
+	 * direct: accessor generated code may call, getters and setters found are
+	 * public and declared by the bean
+	 */
+	private static boolean direct(Method accessor) {
+		return accessor != null && !Modifier.isStatic(accessor.getModifiers());
+	}
+
+	/**
+	 * accessible: a type generated code may cast to
+	 */
+	private static boolean accessible(Class<?> type, ClassLoader loader) {
+		Class<?> component = type;
+		while (component.isArray()) {
+			component = component.getComponentType();
+		}
+		if (component.isPrimitive())
+			return true;
+		return Modifier.isPublic(component.getModifiers()) && visible(component, loader);
+	}
+
+	/**
+	 * CodecClassLoader defines one codec, classes of this library are taken from
+	 * the loader of the library, others from the loader of the bean
+	 */
+	private static final class CodecClassLoader extends ClassLoader {
+		private CodecClassLoader(ClassLoader parent) {
+			super(parent);
+		}
+
+		@Override
+		protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+			if (name.startsWith(LIBRARY_PACKAGE)) {
+				try {
+					return BeanCodec.class.getClassLoader().loadClass(name);
+				} catch (ClassNotFoundException e) {
+					// a bean class in a package named like the library
+				}
+			}
+			return super.loadClass(name, resolve);
+		}
+
+		private Class<?> define(String name, byte[] bytes) {
+			return defineClass(name, bytes, 0, bytes.length);
+		}
+	}
+}
@@ -0,0 +1,341 @@
+package com.github.alexmao86.json;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ClassName: ClassFileWriter writes the few class file structures generated
+ * codecs need: constant pool, methods with code, branches and lookupswitch.
+ * Classes are written in version 49, which has no stack map frames, the
+ * verifier infers them.<br/>
+ *
+ * @author
+ */
+final class ClassFileWriter {
+	static final int ACC_PUBLIC = 0x0001;
+	static final int ACC_FINAL = 0x0010;
+	static final int ACC_SUPER = 0x0020;
+
+	/*
+	 * opcodes in use
+	 */
+	static final int ICONST_0 = 3;
+	static final int ICONST_1 = 4;
+	static final int BIPUSH = 16;
+	static final int SIPUSH = 17;
+	static final int LDC = 18;
+	static final int LDC_W = 19;
+	static final int ILOAD = 21;
+	static final int ALOAD = 25;
+	static final int ISTORE = 54;
+	static final int ASTORE = 58;
+	static final int DUP = 89;
+	static final int IFEQ = 153;
+	static final int GOTO = 167;
+	static final int LOOKUPSWITCH = 171;
+	static final int IRETURN = 172;
+	static final int ARETURN = 176;
+	static final int RETURN = 177;
+	static final int INVOKEVIRTUAL = 182;
+	static final int INVOKESPECIAL = 183;
+	static final int NEW = 187;
+	static final int CHECKCAST = 192;
+	static final int IFNULL = 198;
+
+	private static final int CONSTANT_UTF8 = 1;
+	private static final int CONSTANT_CLASS = 7;
+	private static final int CONSTANT_STRING = 8;
+	private static final int CONSTANT_METHODREF = 10;
+	private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+	private final ByteArrayOutputStream pool = new ByteArrayOutputStream();
+	private final DataOutputStream poolOut = new DataOutputStream(pool);
+	private final Map<String, Integer> constants = new HashMap<String, Integer>();
+	private int poolSize = 1;
+
+	private final ByteArrayOutputStream methods = new ByteArrayOutputStream();
+	private final DataOutputStream methodsOut = new DataOutputStream(methods);
+	private int methodCount = 0;
+
+	private final String name;
+	private final String superName;
+	private final int codeIndex;
+
+	/**
+	 * @param name
+	 *            internal name of the class, like a/b/C
+	 * @param superName
+	 *            internal name of super class
+	 */
+	ClassFileWriter(String name, String superName) {
+		this.name = name;
+		this.superName = superName;
+		this.codeIndex = utf8("Code");
+	}
+
+	private final int constant(String key, int tag, int first, int second) {
+		Integer index = constants.get(key);
+		if (index != null)
+			return index;
+		try {
+			poolOut.writeByte(tag);
+			poolOut.writeShort(first);
+			if (second >= 0)
+				poolOut.writeShort(second);
+		} catch (IOException e) {// not thrown by byte array stream
+			throw new IllegalStateException(e);
+		}
+		constants.put(key, poolSize);
+		return poolSize++;
+	}
+
+	final int utf8(String value) {
+		String key = "U" + value;
+		Integer index = constants.get(key);
+		if (index != null)
+			return index;
+		try {
+			poolOut.writeByte(CONSTANT_UTF8);
+			poolOut.writeUTF(value);
+		} catch (IOException e) {// too long for a constant
+			throw new IllegalStateException(e);
+		}
+		constants.put(key, poolSize);
+		return poolSize++;
+	}
+
+	final int classRef(String internalName) {
+		return constant("C" + internalName, CONSTANT_CLASS, utf8(internalName), -1);
+	}
+
+	final int string(String value) {
+		return constant("S" + value, CONSTANT_STRING, utf8(value), -1);
+	}
+
+	final int methodRef(String owner, String name, String descriptor) {
+		int nameAndType = constant("N" + name + ' ' + descriptor, CONSTANT_NAME_AND_TYPE, utf8(name),
+				utf8(descriptor));
+		return constant("M" + owner + '.' + name + descriptor, CONSTANT_METHODREF, classRef(owner), nameAndType);
+	}
+
+	/**
+	 * method: start code of a new method, it is added by {@link Code#end()}
+	 */
+	final Code method(int access, String name, String descriptor, int maxStack, int maxLocals) {
+		return new Code(access, utf8(name), utf8(descriptor), maxStack, maxLocals);
+	}
+
+	/**
+	 * toByteArray: the class file
+	 */
+	final byte[] toByteArray() {
+		int thisIndex = classRef(name);
+		int superIndex = classRef(superName);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(pool.size() + methods.size() + 32);
+		DataOutputStream out = new DataOutputStream(bytes);
+		try {
+			out.writeInt(0xCAFEBABE);
+			out.writeShort(0);
+			out.writeShort(49);
+			out.writeShort(poolSize);
+			pool.writeTo(out);
+			out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+			out.writeShort(thisIndex);
+			out.writeShort(superIndex);
+			out.writeShort(0);// interfaces
+			out.writeShort(0);// fields
+			out.writeShort(methodCount);
+			methods.writeTo(out);
+			out.writeShort(0);// attributes
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Label is a position in code, branches to it are patched when it is marked
+	 */
+	static final class Label {
+		private int position = -1;
+		private final List<int[]> fixups = new ArrayList<int[]>(2);
+	}
+
+	/**
+	 * Code is the bytecode of one method
+	 */
+	final class Code {
+		private final int access;
+		private final int nameIndex;
+		private final int descriptorIndex;
+		private final int maxStack;
+		private final int maxLocals;
+		private byte[] code = new byte[256];
+		private int length = 0;
+
+		private Code(int access, int nameIndex, int descriptorIndex, int maxStack, int maxLocals) {
+			this.access = access;
+			this.nameIndex = nameIndex;
+			this.descriptorIndex = descriptorIndex;
+			this.maxStack = maxStack;
+			this.maxLocals = maxLocals;
+		}
+
+		private final void put(int value) {
+			if (length == code.length)
+				code = Arrays.copyOf(code, length << 1);
+			code[length++] = (byte) value;
+		}
+
+		private final void putShort(int value) {
+			put(value >> 8);
+			put(value);
+		}
+
+		private final void putInt(int value) {
+			putShort(value >> 16);
+			putShort(value);
+		}
+
+		private final void patchShort(int at, int value) {
+			code[at] = (byte) (value >> 8);
+			code[at + 1] = (byte) value;
+		}
+
+		private final void patchInt(int at, int value) {
+			patchShort(at, value >> 16);
+			patchShort(at + 2, value);
+		}
+
+		final Code op(int opcode) {
+			put(opcode);
+			return this;
+		}
+
+		/**
+		 * var: load or store of a local variable
+		 */
+		final Code var(int opcode, int index) {
+			put(opcode);
+			put(index);
+			return this;
+		}
+
+		final Code push(int value) {
+			if (value >= -1 && value <= 5) {
+				put(ICONST_0 + value);
+			} else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+				put(BIPUSH);
+				put(value);
+			} else {
+				put(SIPUSH);
+				putShort(value);
+			}
+			return this;
+		}
+
+		final Code ldc(String value) {
+			int index = string(value);
+			if (index < 256) {
+				put(LDC);
+				put(index);
+			} else {
+				put(LDC_W);
+				putShort(index);
+			}
+			return this;
+		}
+
+		/**
+		 * type: new or checkcast of a class
+		 */
+		final Code type(int opcode, String internalName) {
+			put(opcode);
+			putShort(classRef(internalName));
+			return this;
+		}
+
+		final Code invoke(int opcode, String owner, String name, String descriptor) {
+			put(opcode);
+			putShort(methodRef(owner, name, descriptor));
+			return this;
+		}
+
+		final Code branch(int opcode, Label label) {
+			int at = length;
+			put(opcode);
+			putShort(0);
+			label.fixups.add(new int[] { at, at + 1, 0 });
+			return this;
+		}
+
+		final Code lookupSwitch(int[] keys, Label[] targets, Label otherwise) {
+			int at = length;
+			put(LOOKUPSWITCH);
+			while (length % 4 != 0) {
+				put(0);
+			}
+			otherwise.fixups.add(new int[] { at, length, 1 });
+			putInt(0);
+			putInt(keys.length);
+			for (int i = 0; i < keys.length; i++) {
+				putInt(keys[i]);
+				targets[i].fixups.add(new int[] { at, length, 1 });
+				putInt(0);
+			}
+			return this;
+		}
+
+		final Code mark(Label label) {
+			label.position = length;
+			return this;
+		}
+
+		/**
+		 * end: patch branches and add the method to the class
+		 *
+		 * @throws IllegalStateException
+		 *             if a label is not marked or code is too long for short
+		 *             branches
+		 */
+		final void end(Label... labels) {
+			for (Label label : labels) {
+				if (label.position < 0)
+					throw new IllegalStateException("label not marked");
+				for (int[] fixup : label.fixups) {
+					int offset = label.position - fixup[0];
+					if (fixup[2] == 1) {
+						patchInt(fixup[1], offset);
+					} else {
+						if (offset < Short.MIN_VALUE || offset > Short.MAX_VALUE)
+							throw new IllegalStateException("method too long");
+						patchShort(fixup[1], offset);
+					}
+				}
+			}
+			try {
+				methodsOut.writeShort(access);
+				methodsOut.writeShort(nameIndex);
+				methodsOut.writeShort(descriptorIndex);
+				methodsOut.writeShort(1);// attributes
+				methodsOut.writeShort(codeIndex);
+				methodsOut.writeInt(12 + length);
+				methodsOut.writeShort(maxStack);
+				methodsOut.writeShort(maxLocals);
+				methodsOut.writeInt(length);
+				methodsOut.write(code, 0, length);
+				methodsOut.writeShort(0);// exception table
+				methodsOut.writeShort(0);// attributes
+			} catch (IOException e) {
+				throw new IllegalStateException(e);
+			}
+			methodCount++;
+		}
+	}
+}
@@ -0,0 +1,181 @@
+package com.github.alexmao86.json;
+
+import java.math.BigInteger;
+
+/**
+ * ClassName: FastDoubleParser converts a decimal significand and power of ten
+ * into the correctly rounded double or float, by the Eisel-Lemire algorithm
+ * (Lemire, "Number Parsing at a Gigabyte per Second"). Exact small values take
+ * the Clinger fast path. The rare inputs the algorithm can not decide are
+ * reported as NaN, callers then fall back to the JDK parser.<br/>
+ *
+ * @author
+ */
+final class FastDoubleParser {
+	private static final int SMALLEST_POWER_OF_FIVE = -342;
+	private static final int LARGEST_POWER_OF_FIVE = 308;
+	/**
+	 * 128 bits approximation of 5^q, normalized so highest bit is set; high and
+	 * low 64 bits of q at 2 * (q - {@link #SMALLEST_POWER_OF_FIVE})
+	 */
+	private static final long[] POWERS_OF_FIVE = new long[2 * (LARGEST_POWER_OF_FIVE - SMALLEST_POWER_OF_FIVE + 1)];
+
+	private static final double[] DOUBLE_POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+			1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+	private static final float[] FLOAT_POWERS_OF_TEN = { 1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f,
+			1e10f };
+
+	/*
+	 * binary formats: explicit mantissa bits, minimum exponent, infinite biased
+	 * exponent, smallest and largest power of ten which is not zero or infinite,
+	 * power of ten range where ties to even may happen
+	 */
+	private static final int[] DOUBLE_FORMAT = { 52, -1023, 0x7FF, -342, 308, -4, 23 };
+	private static final int[] FLOAT_FORMAT = { 23, -127, 0xFF, -65, 38, -17, 10 };
+
+	static {
+		// same as table generation script of fast_float
+		BigInteger two128 = BigInteger.ONE.shiftLeft(128);
+		BigInteger two127 = BigInteger.ONE.shiftLeft(127);
+		BigInteger five = BigInteger.valueOf(5);
+		for (int q = SMALLEST_POWER_OF_FIVE; q <= LARGEST_POWER_OF_FIVE; q++) {
+			BigInteger c;
+			if (q < 0) {
+				BigInteger power5 = five.pow(-q);
+				int z = power5.subtract(BigInteger.ONE).bitLength();// least z with 2^z >= power5
+				int b = q >= -27 ? z + 127 : 2 * z + 2 * 64;
+				c = BigInteger.ONE.shiftLeft(b).divide(power5).add(BigInteger.ONE);
+				while (c.compareTo(two128) >= 0) {
+					c = c.shiftRight(1);
+				}
+			} else {
+				c = five.pow(q);
+				while (c.compareTo(two127) < 0) {
+					c = c.shiftLeft(1);
+				}
+				while (c.compareTo(two128) >= 0) {
+					c = c.shiftRight(1);
+				}
+			}
+			int index = 2 * (q - SMALLEST_POWER_OF_FIVE);
+			POWERS_OF_FIVE[index] = c.shiftRight(64).longValue();
+			POWERS_OF_FIVE[index + 1] = c.longValue();
+		}
+	}
+
+	private FastDoubleParser() {
+	}
+
+	/**
+	 * toDouble: correctly rounded value of (-1)^negative * significand *
+	 * 10^exponent
+	 *
+	 * @param significand
+	 *            unsigned decimal significand
+	 * @return NaN if the value can not be decided this way
+	 */
+	static double toDouble(boolean negative, long significand, int exponent) {
+		if (exponent >= -22 && exponent <= 22 && significand >= 0 && significand <= (1L << 53)) {
+			double value = significand;// exact, so is one multiply or divide by exact power
+			value = exponent < 0 ? value / DOUBLE_POWERS_OF_TEN[-exponent] : value * DOUBLE_POWERS_OF_TEN[exponent];
+			return negative ? -value : value;
+		}
+		long bits = computeFloat(DOUBLE_FORMAT, significand, exponent);
+		if (bits < 0)
+			return Double.NaN;
+		if (negative)
+			bits |= 1L << 63;
+		return Double.longBitsToDouble(bits);
+	}
+
+	/**
+	 * toFloat: same as {@link #toDouble(boolean, long, int)} for float
+	 */
+	static float toFloat(boolean negative, long significand, int exponent) {
+		if (exponent >= -10 && exponent <= 10 && significand >= 0 && significand <= (1L << 24)) {
+			float value = significand;
+			value = exponent < 0 ? value / FLOAT_POWERS_OF_TEN[-exponent] : value * FLOAT_POWERS_OF_TEN[exponent];
+			return negative ? -value : value;
+		}
+		long bits = computeFloat(FLOAT_FORMAT, significand, exponent);
+		if (bits < 0)
+			return Float.NaN;
+		if (negative)
+			bits |= 1L << 31;
+		return Float.intBitsToFloat((int) bits);
+	}
+
+	/**
+	 * computeFloat: Eisel-Lemire, biased exponent and mantissa of w * 10^q in
+	 * given binary format
+	 *
+	 * @return bits of the positive value, -1 if undecided
+	 */
+	private static long computeFloat(int[] format, long w, int q) {
+		final int mantissaBits = format[0];
+		final int minimumExponent = format[1];
+		final int infinitePower = format[2];
+		if (w == 0 || q < format[3])
+			return 0;
+		if (q > format[4])
+			return (long) infinitePower << mantissaBits;
+
+		int lz = Long.numberOfLeadingZeros(w);
+		w <<= lz;
+		// product of w and 5^q, precise enough for mantissa plus rounding bits
+		int index = 2 * (q - SMALLEST_POWER_OF_FIVE);
+		long high = multiplyHigh(w, POWERS_OF_FIVE[index]);
+		long low = w * POWERS_OF_FIVE[index];
+		long precisionMask = -1L >>> (mantissaBits + 3);
+		if ((high & precisionMask) == precisionMask) {// low bits may carry into high
+			long secondHigh = multiplyHigh(w, POWERS_OF_FIVE[index + 1]);
+			low += secondHigh;
+			if (Long.compareUnsigned(secondHigh, low) > 0)
+				high++;
+		}
+		if (low == -1L && (q < -27 || q > 55))
+			return -1;
+
+		int upperBit = (int) (high >>> 63);
+		int shift = upperBit + 64 - mantissaBits - 3;
+		long mantissa = high >>> shift;
+		int power2 = (((152170 + 65536) * q) >> 16) + 63 + upperBit - lz - minimumExponent;
+		if (power2 <= 0) {// subnormal
+			if (-power2 + 1 >= 64)
+				return 0;
+			mantissa >>>= -power2 + 1;
+			mantissa += mantissa & 1;
+			mantissa >>>= 1;
+			power2 = mantissa < (1L << mantissaBits) ? 0 : 1;
+			return ((long) power2 << mantissaBits) | (mantissa & ((1L << mantissaBits) - 1));
+		}
+		// exactly halfway between two floats, round to even
+		if (Long.compareUnsigned(low, 1) <= 0 && q >= format[5] && q <= format[6] && (mantissa & 3) == 1) {
+			if ((mantissa << shift) == high)
+				mantissa &= ~1L;
+		}
+		mantissa += mantissa & 1;
+		mantissa >>>= 1;
+		if (mantissa >= (2L << mantissaBits)) {
+			mantissa = 1L << mantissaBits;
+			power2++;
+		}
+		mantissa &= ~(1L << mantissaBits);
+		if (power2 >= infinitePower)
+			return (long) infinitePower << mantissaBits;
+		return ((long) power2 << mantissaBits) | mantissa;
+	}
+
+	/**
+	 * multiplyHigh: high 64 bits of unsigned 128 bits product
+	 */
+	private static long multiplyHigh(long x, long y) {
+		long x0 = x & 0xFFFFFFFFL;
+		long x1 = x >>> 32;
+		long y0 = y & 0xFFFFFFFFL;
+		long y1 = y >>> 32;
+		long u = x1 * y0 + ((x0 * y0) >>> 32);
+		long v = x0 * y1 + (u & 0xFFFFFFFFL);
+		return x1 * y1 + (u >>> 32) + (v >>> 32);
+	}
+}
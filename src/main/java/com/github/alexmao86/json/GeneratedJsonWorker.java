@@ -0,0 +1,371 @@
+package com.github.alexmao86.json;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map.Entry;
+
+import com.github.alexmao86.json.io.CharSequenceOutputSink;
+
+/**
+ * ClassName: GeneratedJsonWorker is the base of the workers generated at
+ * compile time by {@link com.github.alexmao86.json.processor.JsonWorkerProcessor}
+ * for beans annotated with
+ * {@link com.github.alexmao86.json.annotation.JsonSerializable}. Generated code
+ * reads and writes properties by plain calls and passes values to the helpers
+ * below, which apply the rules of the calling context. Beans are bound from the
+ * tree or straight from the tokens, member names of the tokens are found by a
+ * {@link MemberIndex} of the bean. Generated workers are
+ * listed as services of {@link JsonWorker} and registered by
+ * {@link JsonConfig.Builder#registerJsonWorkers(ClassLoader)} or
+ * {@link JsonSystem#globalJsonWorkers(ClassLoader)}.<br/>
+ *
+ * @author
+ */
+@SuppressWarnings({ "rawtypes", "unchecked" })
+public abstract class GeneratedJsonWorker<T> implements JsonStreamWorker<T>, JsonStreamDeserializer<T> {
+	private final Class<T> type;
+	private final MemberIndex members;
+
+	/**
+	 * @param memberNames
+	 *            member names of the bean, in order of generated indexes
+	 */
+	protected GeneratedJsonWorker(Class<T> type, String... memberNames) {
+		super();
+		this.type = type;
+		this.members = MemberIndex.of(Arrays.asList(memberNames));
+	}
+
+	@Override
+	public final Class<T> supportedType() {
+		return type;
+	}
+
+	/**
+	 * member: "name": prefix of a member, for generated constants
+	 */
+	protected static String member(String name) {
+		return "\"" + JsonSystem.escape(name) + "\":";
+	}
+
+	/**
+	 * newInstance: new bean by its no argument constructor
+	 */
+	protected abstract T newInstance();
+
+	/**
+	 * writeMembers: write every member of bean
+	 */
+	protected abstract void writeMembers(T bean, JsonSystem context, CharSequenceOutputSink out) throws IOException;
+
+	/**
+	 * readMember: set property of given member name from json, unknown names are
+	 * ignored
+	 */
+	protected abstract void readMember(T bean, String name, JsonElement json, JsonSystem context)
+			throws JsonParseException;
+
+	/**
+	 * readMember: set property of given member index from the value at current
+	 * position of the token reader, generated as a switch on the index, values
+	 * of read only members are skipped
+	 */
+	protected abstract void readMember(T bean, int index, JsonTokenReader reader, JsonSystem context)
+			throws IOException, JsonParseException;
+
+	@Override
+	public final void serialize(T object, JsonSystem context, CharSequenceOutputSink out) throws IOException {
+		if (object == null) {
+			out.write("null");
+			return;
+		}
+		out.write('{');
+		writeMembers(object, context, out);
+		out.write('}');
+	}
+
+	@Override
+	public final T deserialize(JsonElement json, Class<T> targetClass, JsonSystem context, Class... actualTypes)
+			throws JsonParseException {
+		T instance = newInstance();
+		for (Entry<String, JsonElement> entry : json.getAsJsonObject().entrySet()) {
+			JsonElement value = entry.getValue();
+			if (value == null || value.isJSONNull())
+				continue;
+			readMember(instance, entry.getKey(), value, context);
+		}
+		return instance;
+	}
+
+	/**
+	 * deserialize: bind the bean member by member from the token reader, no
+	 * tree is built for it. Unknown members are skipped, null values are not
+	 * set.
+	 */
+	@Override
+	public final T deserialize(JsonTokenReader reader, Class<T> targetClass, JsonSystem context,
+			Class... actualTypes) throws IOException, JsonParseException {
+		if (reader.nextToken() == JsonToken.NULL) {
+			reader.nextNull();
+			return null;
+		}
+		T instance = newInstance();
+		reader.beginObject();
+		while (reader.hasNext()) {
+			int index = reader.nextName(members);
+			if (index < 0) {
+				reader.skipValue();
+				continue;
+			}
+			if (reader.nextToken() == JsonToken.NULL) {
+				reader.nextNull();
+				continue;
+			}
+			readMember(instance, index, reader, context);
+		}
+		reader.endObject();
+		return instance;
+	}
+
+	/*
+	 * write helpers, take the "name": prefix of member and the first flag, return
+	 * the first flag for next member
+	 */
+	private static void writeName(boolean first, String member, CharSequenceOutputSink out) throws IOException {
+		if (!first)
+			out.write(',');
+		out.write(member);
+	}
+
+	protected final boolean writeBoolean(boolean first, String member, boolean value, JsonSystem context,
+			CharSequenceOutputSink out) throws IOException {
+		if (!context.primitiveByDefault(boolean.class))
+			return writeObject(first, member, boolean.class, value, context, out);
+		writeName(first, member, out);
+		out.write(value ? "true" : "false");
+		return false;
+	}
+
+	/**
+	 * writeInt: member of byte, short, char or int property of given type
+	 */
+	protected final boolean writeInt(boolean first, String member, Class type, int value, JsonSystem context,
+			CharSequenceOutputSink out) throws IOException {
+		if (!context.primitiveByDefault(type)) {
+			Object boxed;
+			if (type == byte.class)
+				boxed = Byte.valueOf((byte) value);
+			else if (type == short.class)
+				boxed = Short.valueOf((short) value);
+			else if (type == char.class)
+				boxed = Character.valueOf((char) value);
+			else
+				boxed = Integer.valueOf(value);
+			return writeObject(first, member, type, boxed, context, out);
+		}
+		writeName(first, member, out);
+		if (type == char.class)
+			JsonSystem.writeString(String.valueOf((char) value), out);
+		else
+			out.writeLong(value);
+		return false;
+	}
+
+	protected final boolean writeLong(boolean first, String member, long value, JsonSystem context,
+			CharSequenceOutputSink out) throws IOException {
+		if (!context.primitiveByDefault(long.class))
+			return writeObject(first, member, long.class, value, context, out);
+		writeName(first, member, out);
+		out.writeLong(value);
+		return false;
+	}
+
+	protected final boolean writeFloat(boolean first, String member, float value, JsonSystem context,
+			CharSequenceOutputSink out) throws IOException {
+		if (!context.primitiveByDefault(float.class))
+			return writeObject(first, member, float.class, value, context, out);
+		writeName(first, member, out);
+		out.write(Float.toString(value));
+		return false;
+	}
+
+	protected final boolean writeDouble(boolean first, String member, double value, JsonSystem context,
+			CharSequenceOutputSink out) throws IOException {
+		if (!context.primitiveByDefault(double.class))
+			return writeObject(first, member, double.class, value, context, out);
+		writeName(first, member, out);
+		out.write(Double.toString(value));
+		return false;
+	}
+
+	/**
+	 * writeObject: write member by the serializer the context has for given
+	 * type, the field type or the serializer named on the field. Null values and
+	 * values refused by a string serializer are left out.
+	 */
+	protected final boolean writeObject(boolean first, String member, Class type, Object value, JsonSystem context,
+			CharSequenceOutputSink out) throws IOException {
+		if (value == null)
+			return first;
+		JsonSerializer serializer = context.queryJsonSerializer(type);
+		if (serializer instanceof JsonStreamSerializer) {
+			writeName(first, member, out);
+			context.write(serializer, value, out);
+		} else {
+			String val = serializer.serialize(value, context);
+			if (val == null)
+				return first;
+			writeName(first, member, out);
+			out.write(val);
+		}
+		return false;
+	}
+
+	/*
+	 * read helpers, return value for the generated setter call
+	 */
+	private static boolean builtInReader(Class type, JsonSystem context) {
+		return context.queryJsonDeserializer(type) instanceof JDKReflectJsonWorker;
+	}
+
+	protected final boolean readBoolean(JsonElement json, JsonSystem context) throws JsonParseException {
+		if (builtInReader(boolean.class, context))
+			return json.getAsBoolean();
+		return (Boolean) readObject(boolean.class, boolean.class, json, context);
+	}
+
+	/**
+	 * readInt: value of byte, short, char or int property of given type
+	 */
+	protected final int readInt(Class type, JsonElement json, JsonSystem context) throws JsonParseException {
+		if (builtInReader(type, context))
+			return intOf(type, json);
+		Object value = readObject(type, type, json, context);
+		if (type == char.class)
+			return (Character) value;
+		return ((Number) value).intValue();
+	}
+
+	private static int intOf(Class type, JsonElement json) {
+		if (type == byte.class)
+			return json.getAsByte();
+		if (type == short.class)
+			return json.getAsShort();
+		if (type == char.class)
+			return json.getAsCharacter();
+		return json.getAsInt();
+	}
+
+	protected final long readLong(JsonElement json, JsonSystem context) throws JsonParseException {
+		if (builtInReader(long.class, context))
+			return json.getAsLong();
+		return ((Number) readObject(long.class, long.class, json, context)).longValue();
+	}
+
+	protected final float readFloat(JsonElement json, JsonSystem context) throws JsonParseException {
+		if (builtInReader(float.class, context))
+			return json.getAsFloat();
+		return ((Number) readObject(float.class, float.class, json, context)).floatValue();
+	}
+
+	protected final double readDouble(JsonElement json, JsonSystem context) throws JsonParseException {
+		if (builtInReader(double.class, context))
+			return json.getAsDouble();
+		return ((Number) readObject(double.class, double.class, json, context)).doubleValue();
+	}
+
+	/**
+	 * readObject: value of a property by the deserializer the context has for
+	 * given type, the field type or the deserializer named on the field
+	 *
+	 * @param targetClass
+	 *            type of the property
+	 * @param actualTypes
+	 *            element types of collection or map property
+	 */
+	protected final Object readObject(Class type, Class targetClass, JsonElement json, JsonSystem context,
+			Class... actualTypes) throws JsonParseException {
+		return context.queryJsonDeserializer(type).deserialize(json, targetClass, context, actualTypes);
+	}
+
+	/*
+	 * read helpers of the token reader, numbers and booleans are converted in
+	 * place when built-in rules apply, like their tree nodes would convert them
+	 */
+	protected final boolean readBoolean(JsonTokenReader reader, JsonSystem context)
+			throws IOException, JsonParseException {
+		if (!builtInReader(boolean.class, context))
+			return (Boolean) readObject(boolean.class, boolean.class, reader, context);
+		if (reader.nextToken() == JsonToken.BOOLEAN)
+			return reader.nextBoolean();
+		return context.readElement(reader).getAsBoolean();
+	}
+
+	protected final int readInt(Class type, JsonTokenReader reader, JsonSystem context)
+			throws IOException, JsonParseException {
+		if (!builtInReader(type, context)) {
+			Object value = readObject(type, type, reader, context);
+			if (type == char.class)
+				return (Character) value;
+			return ((Number) value).intValue();
+		}
+		if (type == char.class || reader.nextToken() != JsonToken.NUMBER)
+			return intOf(type, context.readElement(reader));
+		NumberLiteral literal = reader.nextNumberLiteral();
+		if (!literal.primitive())
+			return intOf(type, literal.toElement());
+		long value = literal.wholeValue();
+		if (type == byte.class)
+			return JsonLong.toByte(value);
+		if (type == short.class)
+			return JsonLong.toShort(value);
+		return JsonLong.toInt(value);
+	}
+
+	protected final long readLong(JsonTokenReader reader, JsonSystem context) throws IOException, JsonParseException {
+		if (!builtInReader(long.class, context))
+			return ((Number) readObject(long.class, long.class, reader, context)).longValue();
+		if (reader.nextToken() != JsonToken.NUMBER)
+			return context.readElement(reader).getAsLong();
+		NumberLiteral literal = reader.nextNumberLiteral();
+		if (!literal.primitive())
+			return literal.toElement().getAsLong();
+		return literal.wholeValue();
+	}
+
+	protected final float readFloat(JsonTokenReader reader, JsonSystem context)
+			throws IOException, JsonParseException {
+		if (!builtInReader(float.class, context))
+			return ((Number) readObject(float.class, float.class, reader, context)).floatValue();
+		if (reader.nextToken() != JsonToken.NUMBER)
+			return context.readElement(reader).getAsFloat();
+		NumberLiteral literal = reader.nextNumberLiteral();
+		if (!literal.primitive())
+			return literal.toElement().getAsFloat();
+		return literal.floatValue();
+	}
+
+	protected final double readDouble(JsonTokenReader reader, JsonSystem context)
+			throws IOException, JsonParseException {
+		if (!builtInReader(double.class, context))
+			return ((Number) readObject(double.class, double.class, reader, context)).doubleValue();
+		if (reader.nextToken() != JsonToken.NUMBER)
+			return context.readElement(reader).getAsDouble();
+		NumberLiteral literal = reader.nextNumberLiteral();
+		if (!literal.primitive())
+			return literal.toElement().getAsDouble();
+		return literal.doubleValue();
+	}
+
+	/**
+	 * readObject: same as
+	 * {@link #readObject(Class, Class, JsonElement, JsonSystem, Class...)} from
+	 * the token reader, strings of built-in rules are read in place
+	 */
+	protected final Object readObject(Class type, Class targetClass, JsonTokenReader reader, JsonSystem context,
+			Class... actualTypes) throws IOException, JsonParseException {
+		if (type == String.class && reader.nextToken() == JsonToken.STRING && context.builtInDeserializer(type))
+			return reader.nextString();
+		return context.read(context.queryJsonDeserializer(type), reader, targetClass, actualTypes);
+	}
+}
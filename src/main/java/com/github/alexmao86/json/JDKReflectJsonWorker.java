@@ -1,16 +1,19 @@
 package com.github.alexmao86.json;
 
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Array;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.logging.Level;
@@ -18,6 +21,7 @@ import java.util.logging.Logger;
 
 import com.github.alexmao86.json.annotation.JsonIgnore;
 import com.github.alexmao86.json.annotation.JsonSerializable;
+import com.github.alexmao86.json.io.CharSequenceOutputSink;
 
 /**
  * ClassName: JDKReflectJsonWorker <br/>
@@ -42,79 +46,134 @@ import com.github.alexmao86.json.annotation.JsonSerializable;
  * </ul>
  */
 @SuppressWarnings("rawtypes")
-public class JDKReflectJsonWorker implements JsonSerializer<Object>, JsonDeserializer<Object> {
+public class JDKReflectJsonWorker implements JsonStreamSerializer<Object>, JsonStreamDeserializer<Object> {
 	private final static Logger LOGGER = Logger.getLogger(JDKReflectJsonWorker.class.getName());
-	private Map<Class, List<FieldJsonDefinition>> typeFieldCache = new HashMap<Class, List<FieldJsonDefinition>>();
+	/**
+	 * field definitions of each class, reflected once per class. Reads take no
+	 * lock and hash nothing once a class is resolved, and entries go away with
+	 * their class when its loader is unloaded. Definitions do not depend on the
+	 * context, serializers of fields are resolved by the calling context.
+	 */
+	private final ClassValue<List<FieldJsonDefinition>> typeFieldCache = new ClassValue<List<FieldJsonDefinition>>() {
+		@Override
+		protected List<FieldJsonDefinition> computeValue(Class<?> type) {
+			REFLECTED.get()[0]++;
+			return reflectFileds(type);
+		}
+	};
+
+	/**
+	 * member names of each class, as index of its field definitions
+	 */
+	private final ClassValue<MemberIndex> memberIndexCache = new ClassValue<MemberIndex>() {
+		@Override
+		protected MemberIndex computeValue(Class<?> type) {
+			List<FieldJsonDefinition> fields = typeFieldCache.get(type);
+			List<String> names = new ArrayList<String>(fields.size());
+			for (FieldJsonDefinition def : fields) {
+				names.add(def.memberName);
+			}
+			return MemberIndex.of(names);
+		}
+	};
+
+	/**
+	 * codec generated for each class on first use, a holder with null codec if
+	 * it can not be generated for the class
+	 */
+	private final ClassValue<BeanCodec[]> codecCache = new ClassValue<BeanCodec[]>() {
+		@Override
+		protected BeanCodec[] computeValue(Class<?> type) {
+			return new BeanCodec[] { BeanCodecGenerator.generate(type, typeFieldCache.get(type)) };
+		}
+	};
+
+	/**
+	 * count of classes reflected by each thread, to tell hits of the field cache
+	 * from misses when metrics are set
+	 */
+	private final static ThreadLocal<int[]> REFLECTED = new ThreadLocal<int[]>() {
+		@Override
+		protected int[] initialValue() {
+			return new int[1];
+		}
+	};
+
+	/**
+	 * fieldsOf: field definitions of a bean class, the lookup is reported to
+	 * metrics of the context
+	 */
+	private final List<FieldJsonDefinition> fieldsOf(Class<?> type, JsonSystem context) {
+		JsonMetrics metrics = context.config.metrics;
+		if (metrics == JsonMetrics.NONE)
+			return typeFieldCache.get(type);
+		int[] reflected = REFLECTED.get();
+		int before = reflected[0];
+		List<FieldJsonDefinition> fields = typeFieldCache.get(type);
+		metrics.reflected(type, reflected[0] == before);
+		return fields;
+	}
+
+	/**
+	 * codecOf: generated codec of a bean class
+	 *
+	 * @return null if it can not be generated
+	 */
+	final BeanCodec codecOf(Class<?> type) {
+		return codecCache.get(type)[0];
+	}
 
 	public Class<Object> supportedType() {
 		return Object.class;
 	}
 
-	/*
-	 * primary types will be auto boxed 如果object是原始类型，已经被自动装箱
-	 */
-	@SuppressWarnings("unchecked")
 	@Override
 	public String serialize(Object object, JsonSystem context) {
 		if (object == null)
 			return "";
+		return JsonStreamSerializer.super.serialize(object, context);
+	}
+
+	/*
+	 * primary types will be auto boxed 如果object是原始类型，已经被自动装箱
+	 */
+	@Override
+	public void serialize(Object object, JsonSystem context, CharSequenceOutputSink out) throws IOException {
+		if (object == null) {
+			out.write("null");
+			return;
+		}
 		Class<?> clazz = object.getClass();
 		// if supported in built-in
 		if (context.supportedSerializerForClass(clazz)) {
-			return context.queryJsonSerializer(clazz).serialize(object, context);
+			context.write(context.queryJsonSerializer(clazz), object, out);
+			return;
 		}
 
 		// if array type
 		if (clazz.isArray()) {
 			Class<?> componentType = clazz.getComponentType();
 			if (componentType.isPrimitive()) {
-				if (boolean.class.isAssignableFrom(componentType)) {
-					return Arrays.toString((boolean[]) object);
-				} else if (byte.class.isAssignableFrom(componentType)) {
-					return Arrays.toString((byte[]) object);
-				} else if (char.class.isAssignableFrom(componentType)) {
-					char[] casted = (char[]) object;
-					if (casted.length == 0)
-						return "[]";
-					StringBuilder builder = new StringBuilder(casted.length << 4 + 2);
-					builder.append("[");
-					for (int i = 0; i < casted.length; i++) {
-						builder.append("\"").append(casted[i]).append("\",");
-					}
-					builder.deleteCharAt(builder.length() - 1);
-					builder.append("]");
-					return builder.toString();
-				} else if (double.class.isAssignableFrom(componentType)) {
-					return Arrays.toString((double[]) object);
-				} else if (float.class.isAssignableFrom(componentType)) {
-					return Arrays.toString((float[]) object);
-				} else if (int.class.isAssignableFrom(componentType)) {
-					return Arrays.toString((int[]) object);
-				} else if (long.class.isAssignableFrom(componentType)) {
-					return Arrays.toString((long[]) object);
-				} else if (short.class.isAssignableFrom(componentType)) {
-					return Arrays.toString((short[]) object);
-				}
-			} // end of isPrimitive
-			else {
+				writePrimitiveArray(object, componentType, out);
+			} else {
 				Object[] array = (Object[]) object;
-				StringBuilder builder = new StringBuilder(JsonSystem.AVG_OBJ_LENGTH * array.length);
-				builder.append("[");
-				for (Object obj : array) {
-					builder.append(context.queryJsonSerializer(obj.getClass()).serialize(obj, context)).append(",");
+				out.write('[');
+				for (int i = 0; i < array.length; i++) {
+					if (i > 0)
+						out.write(',');
+					context.write(array[i], out);
 				}
-				if (array.length > 0)
-					builder.deleteCharAt(builder.length() - 1);
-
-				builder.append("]");
-				return builder.toString();
+				out.write(']');
 			}
+			return;
 		}
 		// else if(clazz.isPrimitive()){}//已经被自动装箱
 		else if (object instanceof Collection) {
-			return context.queryJsonSerializer(Collection.class).serialize(object, context);
+			context.write(context.queryJsonSerializer(Collection.class), object, out);
+			return;
 		} else if (object instanceof Map) {
-			return context.queryJsonSerializer(Map.class).serialize(object, context);
+			context.write(context.queryJsonSerializer(Map.class), object, out);
+			return;
 		}
 
 		// check if set annotation on class
@@ -122,39 +181,104 @@ public class JDKReflectJsonWorker implements JsonSerializer<Object>, JsonDeseria
 		if (jsonSerializable != null) {
 			Class sType = jsonSerializable.serializer();
 			JsonSerializer jsonSerializer = context.queryJsonSerializer(sType);
-			if (jsonSerializer != null)
-				return jsonSerializer.serialize(object, context);
+			if (jsonSerializer != null) {
+				context.write(jsonSerializer, object, out);
+				return;
+			}
 		}
 
-		// then reflect it, process as object
-		List<FieldJsonDefinition> fields = typeFieldCache.get(clazz);
-		if (fields == null) {
-			fields = reflectFileds(clazz, context);
-			typeFieldCache.put(clazz, fields);
+		if (context.config.generatedCodecs) {
+			BeanCodec codec = codecOf(clazz);
+			if (codec != null) {
+				codec.serialize(object, context, out);
+				return;
+			}
 		}
 
-		StringBuilder builder = new StringBuilder(128);
-		builder.append("{");
+		// then reflect it, process as object
+		List<FieldJsonDefinition> fields = fieldsOf(clazz, context);
+
+		out.write('{');
+		boolean first = true;
 		for (FieldJsonDefinition def : fields) {
 			try {
-				Object fieldValue = def.getFieldValue(object);
-				if (fieldValue == null)
-					continue;
-				Object val = def.jsonSerializer.serialize(fieldValue, context);
-				// System.out.println(def.memberName+"="+val);
-				if (val == null)
+				if (def.mappingType.isPrimitive() && context.primitiveByDefault(def.mappingType)) {
+					def.writePrimitive(object, first, out);
+					first = false;
 					continue;
-				builder.append("\"").append(def.memberName).append("\":");
-				builder.append(val).append(",");
-			} catch (Exception e) {
-				e.printStackTrace();
+				}
+				first = def.write(def.getFieldValue(object), first, context, out);
+			} catch (ReflectiveOperationException e) {
+				throw new IOException("can not read field " + def.memberName + " of " + clazz.getName(), e);
 			}
 		}
-		if (builder.charAt(builder.length() - 1) == ',') {
-			builder.deleteCharAt(builder.length() - 1);
+		out.write('}');
+	}
+
+	/**
+	 * writePrimitiveArray: write elements of primitive array without boxing them
+	 */
+	private final void writePrimitiveArray(Object object, Class<?> componentType, CharSequenceOutputSink out)
+			throws IOException {
+		out.write('[');
+		if (boolean.class.equals(componentType)) {
+			boolean[] casted = (boolean[]) object;
+			for (int i = 0; i < casted.length; i++) {
+				if (i > 0)
+					out.write(',');
+				out.write(casted[i] ? "true" : "false");
+			}
+		} else if (byte.class.equals(componentType)) {
+			byte[] casted = (byte[]) object;
+			for (int i = 0; i < casted.length; i++) {
+				if (i > 0)
+					out.write(',');
+				out.writeLong(casted[i]);
+			}
+		} else if (char.class.equals(componentType)) {
+			char[] casted = (char[]) object;
+			for (int i = 0; i < casted.length; i++) {
+				if (i > 0)
+					out.write(',');
+				JsonSystem.writeString(String.valueOf(casted[i]), out);
+			}
+		} else if (double.class.equals(componentType)) {
+			double[] casted = (double[]) object;
+			for (int i = 0; i < casted.length; i++) {
+				if (i > 0)
+					out.write(',');
+				out.write(Double.toString(casted[i]));
+			}
+		} else if (float.class.equals(componentType)) {
+			float[] casted = (float[]) object;
+			for (int i = 0; i < casted.length; i++) {
+				if (i > 0)
+					out.write(',');
+				out.write(Float.toString(casted[i]));
+			}
+		} else if (int.class.equals(componentType)) {
+			int[] casted = (int[]) object;
+			for (int i = 0; i < casted.length; i++) {
+				if (i > 0)
+					out.write(',');
+				out.writeLong(casted[i]);
+			}
+		} else if (long.class.equals(componentType)) {
+			long[] casted = (long[]) object;
+			for (int i = 0; i < casted.length; i++) {
+				if (i > 0)
+					out.write(',');
+				out.writeLong(casted[i]);
+			}
+		} else if (short.class.equals(componentType)) {
+			short[] casted = (short[]) object;
+			for (int i = 0; i < casted.length; i++) {
+				if (i > 0)
+					out.write(',');
+				out.writeLong(casted[i]);
+			}
 		}
-		builder.append("}");
-		return builder.toString();
+		out.write(']');
 	}
 
 	@SuppressWarnings("unchecked")
@@ -225,8 +349,11 @@ public class JDKReflectJsonWorker implements JsonSerializer<Object>, JsonDeseria
 				Object array = Array.newInstance(componentType, casted.getSize());
 				Object[] castedArray = (Object[]) array;
 				for (int i = 0; i < casted.getSize(); i++) {
-					castedArray[i] = context.queryJsonDeserializer(componentType)
-							.deserialize(casted.getAsJSONElementAt(i), componentType, context);
+					JsonElement element = casted.getAsJSONElementAt(i);
+					if (element.isJSONNull())
+						continue;
+					castedArray[i] = context.queryJsonDeserializer(componentType).deserialize(element, componentType,
+							context);
 				}
 				return array;
 			}
@@ -255,37 +382,101 @@ public class JDKReflectJsonWorker implements JsonSerializer<Object>, JsonDeseria
 		if (jsonSerializable != null) {
 			Class dType = jsonSerializable.deserializer();
 			JsonDeserializer deserializer2 = context.queryJsonDeserializer(dType);
-			if (deserializer2 != null)
+			if (!(deserializer2 instanceof JDKReflectJsonWorker))
 				return deserializer2.deserialize(json, targetClass, context);
 		}
 
-		// JDK reflect
-		List<FieldJsonDefinition> fields = typeFieldCache.get(targetClass);
-		if (fields == null) {
-			fields = reflectFileds(targetClass, context);
-			typeFieldCache.put(targetClass, fields);
+		if (context.config.generatedCodecs) {
+			BeanCodec codec = codecOf(targetClass);
+			if (codec != null)
+				return codec.deserialize(json, targetClass, context);
 		}
 
+		// JDK reflect
+		List<FieldJsonDefinition> fields = fieldsOf(targetClass, context);
+
 		// create instance
+		Object instance;
 		try {
-			Object instance = targetClass.newInstance();
-			for (FieldJsonDefinition def : fields) {
-				JsonElement elment = json.getAsJSONElement(def.memberName);
-				if (elment == null)
-					continue;
-				Object value = def.jsonDeserializer.deserialize(elment, def.mappingType, context, def.actualType0,
-						def.actualType1);
-				if (value == null)
-					continue;
-				def.setFieldValue(instance, value);
+			instance = targetClass.newInstance();
+		} catch (ReflectiveOperationException e) {
+			throw new JsonParseException("Your plain java bean does not have default constructor", e);
+		}
+		for (FieldJsonDefinition def : fields) {
+			JsonElement elment = json.getAsJSONElement(def.memberName);
+			if (elment == null || elment.isJSONNull())
+				continue;
+			try {
+				def.read(instance, elment, context);
+			} catch (ReflectiveOperationException e) {
+				throw new JsonParseException("can not set field " + def.memberName + " of " + targetClass.getName(), e);
 			}
-			return instance;
-		} catch (Exception e) {
-			e.printStackTrace();
-			throw new JsonParseException("Your plain java bean does not have default constructor");
 		}
+		return instance;
 	}
 
+	/**
+	 * deserialize: bind a bean member by member from the token reader, no tree
+	 * is built for it. Member names are found by the perfect hash of the class,
+	 * without making strings of them. Unknown members are skipped without being
+	 * materialized, values are converted in place when built-in rules apply, or
+	 * read by the deserializer of their field type. Beans of a deserializer named
+	 * by {@link JsonSerializable} or of a generated codec are read by them from
+	 * the tokens too. Other values than beans are read from their tree.
+	 */
+	@Override
+	public Object deserialize(JsonTokenReader reader, Class<Object> targetClass, JsonSystem context,
+			Class... actualTypes) throws IOException, JsonParseException {
+		JsonDeserializer deserializer = context.queryJsonDeserializer(targetClass);
+		if (!(deserializer instanceof JDKReflectJsonWorker))
+			return context.read(deserializer, reader, targetClass, actualTypes);
+		if (reader.nextToken() != JsonToken.BEGIN_OBJECT || targetClass.isArray() || targetClass.isPrimitive())
+			return deserialize(context.readElement(reader), targetClass, context, actualTypes);
+
+		JsonSerializable jsonSerializable = targetClass.getDeclaredAnnotation(JsonSerializable.class);
+		if (jsonSerializable != null) {
+			JsonDeserializer deserializer2 = context.queryJsonDeserializer(jsonSerializable.deserializer());
+			if (!(deserializer2 instanceof JDKReflectJsonWorker))
+				return context.read(deserializer2, reader, targetClass);
+		}
+
+		if (context.config.generatedCodecs) {
+			BeanCodec codec = codecOf(targetClass);
+			if (codec != null)
+				return codec.deserialize(reader, targetClass, context, actualTypes);
+		}
+
+		List<FieldJsonDefinition> fields = fieldsOf(targetClass, context);
+		MemberIndex members = memberIndexCache.get(targetClass);
+		Object instance;
+		try {
+			instance = targetClass.newInstance();
+		} catch (ReflectiveOperationException e) {
+			throw new JsonParseException("Your plain java bean does not have default constructor", e);
+		}
+		reader.beginObject();
+		while (reader.hasNext()) {
+			int index = reader.nextName(members);
+			if (index < 0) {
+				reader.skipValue();
+				continue;
+			}
+			FieldJsonDefinition def = fields.get(index);
+			if (reader.nextToken() == JsonToken.NULL) {
+				reader.nextNull();
+				continue;
+			}
+			try {
+				def.read(instance, reader, context);
+			} catch (ReflectiveOperationException e) {
+				throw new JsonParseException("can not set field " + def.memberName + " of " + targetClass.getName(), e);
+			}
+		}
+		reader.endObject();
+		return instance;
+	}
+
+
 	/**
 	 * TODO 如果改进支持泛型类型的级联,则需要改进本方法,如果第归的记录和传递类型参数 reflectFileds: use java reflect to
 	 * list all fields for json serialization
@@ -293,7 +484,7 @@ public class JDKReflectJsonWorker implements JsonSerializer<Object>, JsonDeseria
 	 * @param object
 	 * @return
 	 */
-	private List<FieldJsonDefinition> reflectFileds(Class clazz, JsonSystem context) {
+	private static List<FieldJsonDefinition> reflectFileds(Class clazz) {
 		Field[] fields = clazz.getDeclaredFields();
 		if (fields == null || fields.length == 0) {
 			return new ArrayList<FieldJsonDefinition>(0);
@@ -369,10 +560,12 @@ public class JDKReflectJsonWorker implements JsonSerializer<Object>, JsonDeseria
 				}
 			}
 
-			JsonSerializer serializer = context.queryJsonSerializer(fieldType);
-			JsonDeserializer deserializer = context.queryJsonDeserializer(fieldType);
-			ret.add(new FieldJsonDefinition(fieldType, actualType0, actualType1, field, getter, setter, memberName,
-					serializer, deserializer));
+			try {
+				ret.add(new FieldJsonDefinition(fieldType, actualType0, actualType1, field, getter, setter,
+						memberName));
+			} catch (IllegalAccessException e) {// not after setAccessible
+				LOGGER.log(Level.SEVERE, "can not access field " + field, e);
+			}
 		}
 		ret.trimToSize();
 		return Collections.unmodifiableList(ret);
@@ -387,7 +580,7 @@ public class JDKReflectJsonWorker implements JsonSerializer<Object>, JsonDeseria
 	 * @return
 	 */
 	@SuppressWarnings("unchecked")
-	private Method getGetterMethod(final Class clazz, final Field field) {
+	private static Method getGetterMethod(final Class clazz, final Field field) {
 		Class fieldType = field.getType();
 
 		String fieldName = field.getName();
@@ -434,7 +627,7 @@ public class JDKReflectJsonWorker implements JsonSerializer<Object>, JsonDeseria
 	}
 
 	@SuppressWarnings("unchecked")
-	private Method getSetterMethod(final Class clazz, final Field field) {
+	private static Method getSetterMethod(final Class clazz, final Field field) {
 		Class fieldType = field.getType();
 
 		String fieldName = field.getName();
@@ -463,7 +656,11 @@ public class JDKReflectJsonWorker implements JsonSerializer<Object>, JsonDeseria
 	/**
 	 * one class to hold field serialization definition
 	 */
-	class FieldJsonDefinition {
+	static class FieldJsonDefinition {
+		private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+		private static final MethodType OBJECT_GETTER = MethodType.methodType(Object.class, Object.class);
+		private static final MethodType OBJECT_SETTER = MethodType.methodType(void.class, Object.class, Object.class);
+
 		Class mappingType;// 字段影射的类型,由于装箱类型,和范型,因此存在类型和实际类型可能不同
 		// 如果是collection范型，则ActualType0不空，map则ActualType0和ActualType1不空
 		Class actualType0;// 如果是范类型，元素的实际类型
@@ -476,12 +673,23 @@ public class JDKReflectJsonWorker implements JsonSerializer<Object>, JsonDeseria
 		Method setter;
 		// the final serialization name
 		String memberName;
-		// the serializaer will be used
-		JsonSerializer jsonSerializer;
-		JsonDeserializer jsonDeserializer;
+		// "name": prefix of member, escaped once, as chars and as UTF-8 bytes; the
+		// separated one starts with the comma of members but the first
+		char[] nameChars;
+		byte[] nameUtf8;
+		char[] separatedNameChars;
+		byte[] separatedNameUtf8;
+		// accessors made once from getter and setter, or field if there is none.
+		// typed (Object)T and (Object,T)void, T is the field type if primitive so
+		// primitives are not boxed, Object otherwise. The object ones box.
+		// setter handles are null if the field can not be written by handle
+		final MethodHandle getterHandle;
+		final MethodHandle setterHandle;
+		final MethodHandle objectGetterHandle;
+		final MethodHandle objectSetterHandle;
 
 		private FieldJsonDefinition(Class mappingType, Class actualType0, Class actualType1, Field field, Method getter,
-				Method setter, String memberName, JsonSerializer jsonSerializer, JsonDeserializer jsonDeserializer) {
+				Method setter, String memberName) throws IllegalAccessException {
 			super();
 			this.mappingType = mappingType;
 			this.actualType0 = actualType0;
@@ -490,8 +698,30 @@ public class JDKReflectJsonWorker implements JsonSerializer<Object>, JsonDeseria
 			this.getter = getter;
 			this.setter = setter;
 			this.memberName = memberName;
-			this.jsonSerializer = jsonSerializer;
-			this.jsonDeserializer = jsonDeserializer;
+			String prefix = "\"" + JsonSystem.escape(memberName) + "\":";
+			this.nameChars = prefix.toCharArray();
+			this.nameUtf8 = prefix.getBytes(StandardCharsets.UTF_8);
+			this.separatedNameChars = ("," + prefix).toCharArray();
+			this.separatedNameUtf8 = ("," + prefix).getBytes(StandardCharsets.UTF_8);
+
+			Class valueType = mappingType.isPrimitive() ? mappingType : Object.class;
+			MethodHandle get = getter != null ? LOOKUP.unreflect(getter) : LOOKUP.unreflectGetter(field);
+			this.getterHandle = get.asType(MethodType.methodType(valueType, Object.class));
+			this.objectGetterHandle = get.asType(OBJECT_GETTER);
+			MethodHandle set;
+			try {
+				set = setter != null ? LOOKUP.unreflect(setter) : LOOKUP.unreflectSetter(field);
+			} catch (IllegalAccessException e) {// final field, left to Field.set
+				set = null;
+			}
+			this.setterHandle = set == null ? null : set.asType(MethodType.methodType(void.class, Object.class, valueType));
+			this.objectSetterHandle = set == null ? null : set.asType(OBJECT_SETTER);
+		}
+
+		private static InvocationTargetException invocationFailure(Throwable e) {
+			if (e instanceof Error)
+				throw (Error) e;
+			return new InvocationTargetException(e);
 		}
 
 		/**
@@ -504,9 +734,15 @@ public class JDKReflectJsonWorker implements JsonSerializer<Object>, JsonDeseria
 		 */
 		public void setFieldValue(Object object, Object value)
 				throws IllegalAccessException, IllegalArgumentException, InvocationTargetException {
-			if (setter != null)
-				setter.invoke(object, value);
-			field.set(object, value);
+			if (objectSetterHandle == null) {
+				field.set(object, value);
+				return;
+			}
+			try {
+				objectSetterHandle.invokeExact(object, value);
+			} catch (Throwable e) {
+				throw invocationFailure(e);
+			}
 		}
 
 		/**
@@ -519,9 +755,379 @@ public class JDKReflectJsonWorker implements JsonSerializer<Object>, JsonDeseria
 		 */
 		public Object getFieldValue(Object object)
 				throws IllegalAccessException, IllegalArgumentException, InvocationTargetException {
-			if (getter != null)
-				return getter.invoke(object);
-			return field.get(object);
+			try {
+				return (Object) objectGetterHandle.invokeExact(object);
+			} catch (Throwable e) {
+				throw invocationFailure(e);
+			}
+		}
+
+		/*
+		 * primitive accessors, only for a field of that primitive type
+		 */
+		final boolean getBoolean(Object object) throws InvocationTargetException {
+			try {
+				return (boolean) getterHandle.invokeExact(object);
+			} catch (Throwable e) {
+				throw invocationFailure(e);
+			}
+		}
+
+		final byte getByte(Object object) throws InvocationTargetException {
+			try {
+				return (byte) getterHandle.invokeExact(object);
+			} catch (Throwable e) {
+				throw invocationFailure(e);
+			}
+		}
+
+		final char getChar(Object object) throws InvocationTargetException {
+			try {
+				return (char) getterHandle.invokeExact(object);
+			} catch (Throwable e) {
+				throw invocationFailure(e);
+			}
+		}
+
+		final short getShort(Object object) throws InvocationTargetException {
+			try {
+				return (short) getterHandle.invokeExact(object);
+			} catch (Throwable e) {
+				throw invocationFailure(e);
+			}
+		}
+
+		final int getInt(Object object) throws InvocationTargetException {
+			try {
+				return (int) getterHandle.invokeExact(object);
+			} catch (Throwable e) {
+				throw invocationFailure(e);
+			}
+		}
+
+		final long getLong(Object object) throws InvocationTargetException {
+			try {
+				return (long) getterHandle.invokeExact(object);
+			} catch (Throwable e) {
+				throw invocationFailure(e);
+			}
+		}
+
+		final float getFloat(Object object) throws InvocationTargetException {
+			try {
+				return (float) getterHandle.invokeExact(object);
+			} catch (Throwable e) {
+				throw invocationFailure(e);
+			}
+		}
+
+		final double getDouble(Object object) throws InvocationTargetException {
+			try {
+				return (double) getterHandle.invokeExact(object);
+			} catch (Throwable e) {
+				throw invocationFailure(e);
+			}
+		}
+
+		final void setBoolean(Object object, boolean value) throws ReflectiveOperationException {
+			if (setterHandle == null) {
+				field.setBoolean(object, value);
+				return;
+			}
+			try {
+				setterHandle.invokeExact(object, value);
+			} catch (Throwable e) {
+				throw invocationFailure(e);
+			}
+		}
+
+		final void setByte(Object object, byte value) throws ReflectiveOperationException {
+			if (setterHandle == null) {
+				field.setByte(object, value);
+				return;
+			}
+			try {
+				setterHandle.invokeExact(object, value);
+			} catch (Throwable e) {
+				throw invocationFailure(e);
+			}
+		}
+
+		final void setChar(Object object, char value) throws ReflectiveOperationException {
+			if (setterHandle == null) {
+				field.setChar(object, value);
+				return;
+			}
+			try {
+				setterHandle.invokeExact(object, value);
+			} catch (Throwable e) {
+				throw invocationFailure(e);
+			}
+		}
+
+		final void setShort(Object object, short value) throws ReflectiveOperationException {
+			if (setterHandle == null) {
+				field.setShort(object, value);
+				return;
+			}
+			try {
+				setterHandle.invokeExact(object, value);
+			} catch (Throwable e) {
+				throw invocationFailure(e);
+			}
+		}
+
+		final void setInt(Object object, int value) throws ReflectiveOperationException {
+			if (setterHandle == null) {
+				field.setInt(object, value);
+				return;
+			}
+			try {
+				setterHandle.invokeExact(object, value);
+			} catch (Throwable e) {
+				throw invocationFailure(e);
+			}
+		}
+
+		final void setLong(Object object, long value) throws ReflectiveOperationException {
+			if (setterHandle == null) {
+				field.setLong(object, value);
+				return;
+			}
+			try {
+				setterHandle.invokeExact(object, value);
+			} catch (Throwable e) {
+				throw invocationFailure(e);
+			}
+		}
+
+		final void setFloat(Object object, float value) throws ReflectiveOperationException {
+			if (setterHandle == null) {
+				field.setFloat(object, value);
+				return;
+			}
+			try {
+				setterHandle.invokeExact(object, value);
+			} catch (Throwable e) {
+				throw invocationFailure(e);
+			}
+		}
+
+		final void setDouble(Object object, double value) throws ReflectiveOperationException {
+			if (setterHandle == null) {
+				field.setDouble(object, value);
+				return;
+			}
+			try {
+				setterHandle.invokeExact(object, value);
+			} catch (Throwable e) {
+				throw invocationFailure(e);
+			}
+		}
+
+		final void writeName(boolean first, CharSequenceOutputSink out) throws IOException {
+			if (first)
+				out.writeToken(nameChars, nameUtf8);
+			else
+				out.writeToken(separatedNameChars, separatedNameUtf8);
+		}
+
+		/**
+		 * writePrimitive: write member of a primitive field by built-in rules,
+		 * value is read before the name is written
+		 */
+		final void writePrimitive(Object object, boolean first, CharSequenceOutputSink out)
+				throws IOException, InvocationTargetException {
+			Class type = mappingType;
+			if (type == int.class) {
+				int value = getInt(object);
+				writeName(first, out);
+				out.writeLong(value);
+			} else if (type == long.class) {
+				long value = getLong(object);
+				writeName(first, out);
+				out.writeLong(value);
+			} else if (type == boolean.class) {
+				boolean value = getBoolean(object);
+				writeName(first, out);
+				out.write(value ? "true" : "false");
+			} else if (type == double.class) {
+				double value = getDouble(object);
+				writeName(first, out);
+				out.write(Double.toString(value));
+			} else if (type == float.class) {
+				float value = getFloat(object);
+				writeName(first, out);
+				out.write(Float.toString(value));
+			} else if (type == short.class) {
+				short value = getShort(object);
+				writeName(first, out);
+				out.writeLong(value);
+			} else if (type == byte.class) {
+				byte value = getByte(object);
+				writeName(first, out);
+				out.writeLong(value);
+			} else {
+				char value = getChar(object);
+				writeName(first, out);
+				JsonSystem.writeString(String.valueOf(value), out);
+			}
+		}
+
+		/**
+		 * write: write member of given field value by serializer of the context,
+		 * null values and values refused by a string serializer are left out
+		 * 
+		 * @return first flag for next member
+		 */
+		@SuppressWarnings("unchecked")
+		final boolean write(Object value, boolean first, JsonSystem context, CharSequenceOutputSink out)
+				throws IOException {
+			if (value == null)
+				return first;
+			JsonSerializer serializer = context.queryJsonSerializer(mappingType);
+			if (serializer instanceof JsonStreamSerializer) {
+				writeName(first, out);
+				context.write(serializer, value, out);
+			} else {
+				String val = serializer.serialize(value, context);
+				if (val == null)
+					return first;
+				writeName(first, out);
+				out.write(val);
+			}
+			return false;
+		}
+
+		/**
+		 * deserialize: value of this field from json, by deserializer of the
+		 * context
+		 */
+		@SuppressWarnings("unchecked")
+		final Object deserialize(JsonElement json, JsonSystem context) throws JsonParseException {
+			return context.queryJsonDeserializer(mappingType).deserialize(json, mappingType, context, actualType0,
+					actualType1);
+		}
+
+		/**
+		 * read: set this field of object from json, primitives of built-in rules
+		 * are not boxed, null values are not set
+		 */
+		final void read(Object object, JsonElement json, JsonSystem context)
+				throws ReflectiveOperationException, JsonParseException {
+			if (mappingType.isPrimitive() && context.queryJsonDeserializer(mappingType) instanceof JDKReflectJsonWorker) {
+				readPrimitive(object, json);
+				return;
+			}
+			Object value = deserialize(json, context);
+			if (value != null)
+				setFieldValue(object, value);
+		}
+
+		/**
+		 * read: set this field of object from the value at current position of
+		 * the token reader. Numbers and booleans of primitive fields and strings
+		 * are converted in place when built-in rules apply, like their tree nodes
+		 * would convert them.
+		 */
+		final void read(Object object, JsonTokenReader reader, JsonSystem context)
+				throws ReflectiveOperationException, IOException, JsonParseException {
+			Class type = mappingType;
+			JsonToken token = reader.nextToken();
+			if (type.isPrimitive() && context.queryJsonDeserializer(type) instanceof JDKReflectJsonWorker) {
+				if (token == JsonToken.NUMBER && type != boolean.class && type != char.class) {
+					NumberLiteral literal = reader.nextNumberLiteral();
+					if (literal.kind() == NumberLiteral.INTEGER)
+						readNumber(object, literal.longValue());
+					else if (literal.shortDecimal())
+						readNumber(object, literal);
+					else
+						readPrimitive(object, literal.toElement());
+					return;
+				}
+				if (token == JsonToken.BOOLEAN && type == boolean.class) {
+					setBoolean(object, reader.nextBoolean());
+					return;
+				}
+			}
+			Object value = deserialize(reader, context);
+			if (value != null)
+				setFieldValue(object, value);
+		}
+
+		/**
+		 * deserialize: value of this field from the token reader, strings of
+		 * built-in rules are taken as they are, others are read by deserializer
+		 * of the context
+		 */
+		@SuppressWarnings("unchecked")
+		final Object deserialize(JsonTokenReader reader, JsonSystem context) throws IOException, JsonParseException {
+			Class type = mappingType;
+			if (type == String.class && reader.nextToken() == JsonToken.STRING && context.builtInDeserializer(type))
+				return reader.nextString();
+			return context.read(context.queryJsonDeserializer(type), reader, type, actualType0, actualType1);
+		}
+
+		/**
+		 * readNumber: set a primitive number field from an integer, narrowed like
+		 * {@link JsonLong} does
+		 */
+		final void readNumber(Object object, long value) throws ReflectiveOperationException {
+			Class type = mappingType;
+			if (type == int.class)
+				setInt(object, JsonLong.toInt(value));
+			else if (type == long.class)
+				setLong(object, value);
+			else if (type == double.class)
+				setDouble(object, value);
+			else if (type == float.class)
+				setFloat(object, value);
+			else if (type == short.class)
+				setShort(object, JsonLong.toShort(value));
+			else
+				setByte(object, JsonLong.toByte(value));
+		}
+
+		/**
+		 * readNumber: set a primitive number field from a short decimal, narrowed
+		 * like {@link JsonDouble} does
+		 */
+		final void readNumber(Object object, NumberLiteral literal) throws ReflectiveOperationException {
+			Class type = mappingType;
+			if (type == double.class)
+				setDouble(object, literal.doubleValue());
+			else if (type == float.class)
+				setFloat(object, literal.floatValue());
+			else {
+				long value = JsonDouble.toLong(literal.doubleValue(), literal.text());
+				if (type == long.class)
+					setLong(object, value);
+				else
+					readNumber(object, value);
+			}
+		}
+
+		/**
+		 * readPrimitive: set a primitive field from json by built-in rules
+		 */
+		final void readPrimitive(Object object, JsonElement json) throws ReflectiveOperationException {
+			Class type = mappingType;
+			if (type == int.class)
+				setInt(object, json.getAsInt());
+			else if (type == long.class)
+				setLong(object, json.getAsLong());
+			else if (type == boolean.class)
+				setBoolean(object, json.getAsBoolean());
+			else if (type == double.class)
+				setDouble(object, json.getAsDouble());
+			else if (type == float.class)
+				setFloat(object, json.getAsFloat());
+			else if (type == short.class)
+				setShort(object, json.getAsShort());
+			else if (type == byte.class)
+				setByte(object, json.getAsByte());
+			else
+				setChar(object, json.getAsCharacter());
 		}
 	}
 
@@ -262,17 +262,6 @@ public final class JsonArray extends JsonElement {
 
 	@Override
 	public String toString() {
-		StringBuilder builder = new StringBuilder(AVG_OBJ_LENGTH * elements.size());
-		builder.append("[");
-		for (JsonElement e : elements) {
-			if (e instanceof JsonNull)
-				continue;
-			builder.append(e.toString()).append(",");
-		}
-		if (builder.charAt(builder.length() - 1) == ',') {
-			builder.deleteCharAt(builder.length() - 1);
-		}
-		builder.append("}");
-		return builder.toString();
+		return JsonWriter.DEFAULT.stringify(this);
 	}
 }
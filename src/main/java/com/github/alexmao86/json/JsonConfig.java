@@ -0,0 +1,177 @@
+package com.github.alexmao86.json;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * ClassName: JsonConfig is an immutable snapshot of the rules of a
+ * {@link JsonSystem}: serializers and deserializers registered by the user,
+ * date formatter, generated codecs, metrics and max depth of readers. Build one
+ * by {@link JsonSystem#builder()} and share it, readers and writers made of it
+ * by {@link JsonReader#JsonReader(JsonConfig)} and
+ * {@link JsonWriter#JsonWriter(JsonConfig)} only keep a reference to it, and
+ * look serializers up without lock from any thread.<br/>
+ *
+ * @author
+ */
+@SuppressWarnings("rawtypes")
+public final class JsonConfig {
+	private final static Logger LOGGER = Logger.getLogger(JsonConfig.class.getName());
+	/**
+	 * rules of a context nothing is registered to
+	 */
+	static final JsonConfig DEFAULT = new Builder().build();
+
+	final Map<Class<?>, JsonSerializer<?>> serializers;
+	final Map<Class<?>, JsonDeserializer> deserializers;
+	final JsonDateFormatter dateFormatter;
+	final boolean generatedCodecs;
+	final JsonMetrics metrics;
+	final int maxDepth;
+
+	private JsonConfig(Builder builder) {
+		this.serializers = Collections.unmodifiableMap(new HashMap<Class<?>, JsonSerializer<?>>(builder.serializers));
+		this.deserializers = Collections.unmodifiableMap(new HashMap<Class<?>, JsonDeserializer>(builder.deserializers));
+		this.dateFormatter = builder.dateFormatter;
+		this.generatedCodecs = builder.generatedCodecs;
+		this.metrics = builder.metrics;
+		this.maxDepth = builder.maxDepth;
+	}
+
+	public final JsonDateFormatter getJsonDateFormatter() {
+		return dateFormatter;
+	}
+
+	public final boolean isGeneratedCodecs() {
+		return generatedCodecs;
+	}
+
+	public final JsonMetrics getJsonMetrics() {
+		return metrics;
+	}
+
+	public final int getMaxDepth() {
+		return maxDepth;
+	}
+
+	/**
+	 * toBuilder: builder holding the rules of this snapshot, to derive another
+	 * one, this snapshot is not changed
+	 */
+	public final Builder toBuilder() {
+		Builder builder = new Builder();
+		builder.serializers.putAll(serializers);
+		builder.deserializers.putAll(deserializers);
+		builder.dateFormatter = dateFormatter;
+		builder.generatedCodecs = generatedCodecs;
+		builder.metrics = metrics;
+		builder.maxDepth = maxDepth;
+		return builder;
+	}
+
+	/**
+	 * Builder collects rules for a {@link JsonConfig}, it is not thread safe.
+	 * Later registration for the same type overrides former one.
+	 */
+	public static final class Builder {
+		private final Map<Class<?>, JsonSerializer<?>> serializers = new HashMap<Class<?>, JsonSerializer<?>>();
+		private final Map<Class<?>, JsonDeserializer> deserializers = new HashMap<Class<?>, JsonDeserializer>();
+		private JsonDateFormatter dateFormatter = JsonSystem.DEFAULT_DATE_FORMATTER;
+		private boolean generatedCodecs = false;
+		private JsonMetrics metrics = JsonMetrics.NONE;
+		private int maxDepth = JsonTokenReader.DEFAULT_MAX_DEPTH;
+
+		Builder() {
+		}
+
+		public final Builder registerJsonSerializer(JsonSerializer<?> serializer) {
+			serializers.put(serializer.supportedType(), serializer);
+			return this;
+		}
+
+		public final Builder registerJsonDeserializer(JsonDeserializer deserializer) {
+			deserializers.put(deserializer.supportedType(), deserializer);
+			return this;
+		}
+
+		/**
+		 * registerJsonWorker: register worker as serializer and deserializer of
+		 * its type
+		 */
+		public final Builder registerJsonWorker(JsonWorker<?> worker) {
+			registerJsonSerializer(worker);
+			return registerJsonDeserializer(worker);
+		}
+
+		/**
+		 * registerJsonWorkers: register the workers listed as services of
+		 * {@link JsonWorker} for given class loader, like the ones generated by
+		 * {@link com.github.alexmao86.json.processor.JsonWorkerProcessor}
+		 */
+		public final Builder registerJsonWorkers(ClassLoader loader) {
+			try {
+				for (JsonWorker worker : ServiceLoader.load(JsonWorker.class, loader)) {
+					registerJsonWorker(worker);
+				}
+			} catch (ServiceConfigurationError e) {
+				LOGGER.log(Level.WARNING, "can not load json workers", e);
+			}
+			return this;
+		}
+
+		/**
+		 * registerGeneratedCodec: see
+		 * {@link JsonSystem#registerGeneratedCodec(Class)}
+		 */
+		public final Builder registerGeneratedCodec(Class<?> type) {
+			BeanCodec codec = JsonSystem.jdkReflectJsonWorker.codecOf(type);
+			if (codec == null)
+				throw new IllegalArgumentException("can not generate codec for " + type.getName());
+			registerJsonSerializer(codec);
+			return registerJsonDeserializer(codec);
+		}
+
+		public final Builder jsonDateFormatter(JsonDateFormatter dateFormatter) {
+			if (dateFormatter == null)
+				throw new IllegalArgumentException("date formatter must not be null");
+			this.dateFormatter = dateFormatter;
+			return this;
+		}
+
+		/**
+		 * generatedCodecs: see {@link JsonSystem#setGeneratedCodecs(boolean)}
+		 */
+		public final Builder generatedCodecs(boolean generatedCodecs) {
+			this.generatedCodecs = generatedCodecs;
+			return this;
+		}
+
+		/**
+		 * jsonMetrics: listener of the work of contexts, null for none
+		 */
+		public final Builder jsonMetrics(JsonMetrics metrics) {
+			this.metrics = metrics != null ? metrics : JsonMetrics.NONE;
+			return this;
+		}
+
+		/**
+		 * maxDepth: limit nesting of arrays and objects read, see
+		 * {@link JsonTokenReader#setMaxDepth(int)}
+		 */
+		public final Builder maxDepth(int maxDepth) {
+			if (maxDepth < 1)
+				throw new IllegalArgumentException("max depth must be positive: " + maxDepth);
+			this.maxDepth = maxDepth;
+			return this;
+		}
+
+		public final JsonConfig build() {
+			return new JsonConfig(this);
+		}
+	}
+}
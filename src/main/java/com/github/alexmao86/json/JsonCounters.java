@@ -0,0 +1,153 @@
+package com.github.alexmao86.json;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ClassName: JsonCounters sums what {@link JsonMetrics} reports in striped
+ * counters, so threads sharing one instance do not contend on a counter. Read
+ * the sums to export them, a sum taken while threads report is not a snapshot
+ * of one moment.<br/>
+ *
+ * @author
+ */
+public final class JsonCounters implements JsonMetrics {
+	private final LongAdder documents = new LongAdder();
+	private final LongAdder length = new LongAdder();
+	private final LongAdder values = new LongAdder();
+	private final LongAccumulator depth = new LongAccumulator(Math::max, 0);
+	private final LongAdder parseNanos = new LongAdder();
+	private final LongAdder reflectHits = new LongAdder();
+	private final LongAdder reflectMisses = new LongAdder();
+	private final ConcurrentMap<Class<?>, Timer> bindTimers = new ConcurrentHashMap<Class<?>, Timer>();
+	private final ConcurrentMap<Class<?>, Timer> serializeTimers = new ConcurrentHashMap<Class<?>, Timer>();
+
+	/**
+	 * Timer: count and total time of one kind of work
+	 */
+	public static final class Timer {
+		private final LongAdder count = new LongAdder();
+		private final LongAdder nanos = new LongAdder();
+
+		private Timer() {
+		}
+
+		private final void add(long time) {
+			count.increment();
+			nanos.add(time);
+		}
+
+		public final long getCount() {
+			return count.sum();
+		}
+
+		public final long getNanos() {
+			return nanos.sum();
+		}
+	}
+
+	@Override
+	public final void parsed(long length, long values, int depth, long nanos) {
+		this.documents.increment();
+		this.length.add(length);
+		this.values.add(values);
+		this.depth.accumulate(depth);
+		this.parseNanos.add(nanos);
+	}
+
+	@Override
+	public final void bound(Class<?> type, long nanos) {
+		timer(bindTimers, type).add(nanos);
+	}
+
+	@Override
+	public final void serialized(Class<?> type, long nanos) {
+		timer(serializeTimers, type).add(nanos);
+	}
+
+	@Override
+	public final void reflected(Class<?> type, boolean hit) {
+		if (hit)
+			reflectHits.increment();
+		else
+			reflectMisses.increment();
+	}
+
+	/**
+	 * timer: timer of given type, looked up without lock once it exists
+	 */
+	private static Timer timer(ConcurrentMap<Class<?>, Timer> timers, Class<?> type) {
+		Timer timer = timers.get(type);
+		if (timer != null)
+			return timer;
+		timer = new Timer();
+		Timer existing = timers.putIfAbsent(type, timer);
+		return existing != null ? existing : timer;
+	}
+
+	/**
+	 * getDocuments: count of documents parsed
+	 */
+	public final long getDocuments() {
+		return documents.sum();
+	}
+
+	/**
+	 * getLength: input consumed by all documents parsed, see
+	 * {@link JsonMetrics#parsed(long, long, int, long)}
+	 */
+	public final long getLength() {
+		return length.sum();
+	}
+
+	/**
+	 * getValues: values read by all documents parsed
+	 */
+	public final long getValues() {
+		return values.sum();
+	}
+
+	/**
+	 * getMaxDepth: deepest nesting of all documents parsed
+	 */
+	public final int getMaxDepth() {
+		return (int) depth.get();
+	}
+
+	public final long getParseNanos() {
+		return parseNanos.sum();
+	}
+
+	public final long getReflectHits() {
+		return reflectHits.sum();
+	}
+
+	public final long getReflectMisses() {
+		return reflectMisses.sum();
+	}
+
+	/**
+	 * getBindTimers: timers of binding by target type, a copy of the types seen
+	 * so far
+	 */
+	public final Map<Class<?>, Timer> getBindTimers() {
+		return copy(bindTimers);
+	}
+
+	/**
+	 * getSerializeTimers: timers of writing by type of value, a copy of the types
+	 * seen so far
+	 */
+	public final Map<Class<?>, Timer> getSerializeTimers() {
+		return copy(serializeTimers);
+	}
+
+	private static Map<Class<?>, Timer> copy(ConcurrentMap<Class<?>, Timer> timers) {
+		return Collections.unmodifiableMap(new HashMap<Class<?>, Timer>(timers));
+	}
+}
@@ -0,0 +1,121 @@
+package com.github.alexmao86.json;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * ClassName: JsonDouble is a parsed decimal number held in a primitive field,
+ * so reading it costs nothing and nothing is boxed until
+ * {@link #getValue()}. The node writes the literal as it is written, which is
+ * kept only if {@link Double#toString(double)} does not give it back. Integer
+ * conversions take whole numbers in range only.<br/>
+ * 
+ * @author
+ */
+final class JsonDouble extends JsonLeaf {
+	private final double value;
+	/**
+	 * literal as it is written, null if it is the one of
+	 * {@link Double#toString(double)}
+	 */
+	private final String literal;
+
+	JsonDouble(double value, String literal) {
+		super();
+		this.value = value;
+		this.literal = literal;
+	}
+
+	/**
+	 * of: node of a decimal literal, the literal is dropped when the value
+	 * writes it back. Only literals of the plain notation with a fraction are
+	 * tried, which is the shape of {@link Double#toString(double)} in
+	 * [10<sup>-3</sup>, 10<sup>7</sup>).
+	 */
+	static JsonDouble of(double value, CharSequence literal) {
+		String text = literal.toString();
+		double magnitude = Math.abs(value);
+		if (magnitude >= 1e-3 && magnitude < 1e7 && text.indexOf('.') > 0 && text.indexOf('e') < 0
+				&& text.indexOf('E') < 0 && Double.toString(value).equals(text))
+			return new JsonDouble(value, null);
+		return new JsonDouble(value, text);
+	}
+
+	public Object getValue() {
+		return Double.valueOf(value);
+	}
+
+	@Override
+	JsonUncertain toUncertain() {
+		return new JsonUncertain(toString(), NUMBER);
+	}
+
+	@Override
+	public String toString() {
+		return literal == null ? Double.toString(value) : literal;
+	}
+
+	@Override
+	public Number getAsNumber() {
+		return Double.valueOf(value);
+	}
+
+	@Override
+	public String getAsString() {
+		return toString();
+	}
+
+	@Override
+	public double getAsDouble() {
+		return value;
+	}
+
+	/**
+	 * getAsFloat: float of the literal rounded once, rounding the double again
+	 * could differ
+	 */
+	@Override
+	public float getAsFloat() {
+		return NumberLiteral.parseFloat(toString());
+	}
+
+	@Override
+	public long getAsLong() {
+		return toLong(value, toString());
+	}
+
+	@Override
+	public int getAsInt() {
+		return JsonLong.toInt(getAsLong());
+	}
+
+	@Override
+	public byte getAsByte() {
+		return JsonLong.toByte(getAsLong());
+	}
+
+	@Override
+	public short getAsShort() {
+		return JsonLong.toShort(getAsLong());
+	}
+
+	/**
+	 * toLong: value of a decimal which is a whole number in range of long, like
+	 * 1e3, others fail as {@link Long#parseLong(String)} does
+	 */
+	static long toLong(double value, CharSequence literal) {
+		if (value != Math.rint(value) || value < -0x1p63 || value >= 0x1p63)
+			throw new NumberFormatException("For input string: \"" + literal + "\"");
+		return (long) value;
+	}
+
+	@Override
+	public BigDecimal getAsBigDecimal() {
+		return new BigDecimal(toString());
+	}
+
+	@Override
+	public BigInteger getAsBigInteger() {
+		return new BigDecimal(toString()).toBigInteger();
+	}
+}
@@ -6,12 +6,13 @@ import java.util.Date;
 
 /**
  * A class representing an element of Json. It could either be a
- * {@link JsonObject}, a {@link JsonArray}, a {@link JsonPrimitive} or a
- * {@link JsonNull}.
+ * {@link JsonObject}, a {@link JsonArray}, a {@link JsonUncertain} or a
+ * {@link JsonNull}. Elements only hold data, the serializer rules stay in the
+ * {@link JsonSystem} that built them, so a parsed tree carries no registry.
  * 
  * @author
  */
-public abstract class JsonElement extends JsonSystem {
+public abstract class JsonElement {
 	/**
 	 * type definition of uncertain
 	 */
@@ -84,7 +85,7 @@ public abstract class JsonElement extends JsonSystem {
 	 *         otherwise.
 	 */
 	public boolean isJSONUncertain() {
-		return this instanceof JsonUncertain;
+		return this instanceof JsonLeaf;
 	}
 
 	/**
@@ -125,7 +126,9 @@ public abstract class JsonElement extends JsonSystem {
 	 * convenience method to get this element as a {@link JsonUncertain}. If the
 	 * element is of some other type, a {@link ClassCastException} will result.
 	 * Hence it is best to use this method after ensuring that this element is of
-	 * the desired type by calling {@link #JSONUncertain()} first.
+	 * the desired type by calling {@link #isJSONUncertain()} first. Numbers held in
+	 * primitive fields are returned as a new {@link JsonUncertain} of their
+	 * text.
 	 *
 	 * @return get this element as a {@link JsonUncertain}.
 	 * @throws IllegalStateException
@@ -133,7 +136,7 @@ public abstract class JsonElement extends JsonSystem {
 	 */
 	public JsonUncertain getAsJSONUncertain() {
 		if (isJSONUncertain()) {
-			return (JsonUncertain) this;
+			return ((JsonLeaf) this).toUncertain();
 		}
 		throw new IllegalStateException("This is not a JSONUncertain.");
 	}
@@ -0,0 +1,154 @@
+package com.github.alexmao86.json;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Date;
+
+/**
+ * ClassName: JsonLeaf is the base of single values, a {@link JsonUncertain}
+ * or a number held in a primitive field. It has no field, so typed leaves
+ * hold their value only. Like a {@link JsonUncertain}, a leaf is taken as one
+ * element at index 0.<br/>
+ * 
+ * @author
+ */
+abstract class JsonLeaf extends JsonElement {
+
+	/**
+	 * toUncertain: this leaf as {@link JsonUncertain}, for
+	 * {@link JsonElement#getAsJSONUncertain()}
+	 */
+	abstract JsonUncertain toUncertain();
+
+	@Override
+	public boolean getAsBoolean() {
+		return Boolean.parseBoolean(getAsString());
+	}
+
+	@Override
+	public char getAsCharacter() {
+		return getAsString().charAt(0);
+	}
+
+	@Override
+	public Date getAsDate() {
+		return JsonSystem.DEFAULT_DATE_FORMATTER.parse(getAsString());
+	}
+
+	@Override
+	public JsonElement getAsJSONElementAt(int index) {
+		if (index != 0)
+			return super.getAsJSONElementAt(index);
+		return this;
+	}
+
+	@Override
+	public JsonArray getAsJSONArrayAt(int index) {
+		if (index != 0)
+			return super.getAsJSONArrayAt(index);
+		return this.getAsJSONArray();
+	}
+
+	@Override
+	public JsonObject getAsJSONObjectAt(int index) {
+		if (index != 0)
+			return super.getAsJSONObjectAt(index);
+		return this.getAsJsonObject();
+	}
+
+	@Override
+	public boolean getAsBooleanAt(int index) {
+		if (index != 0)
+			return super.getAsBooleanAt(index);
+		return this.getAsBoolean();
+	}
+
+	@Override
+	public Number getAsNumberAt(int index) {
+		if (index != 0)
+			return super.getAsNumberAt(index);
+		return this.getAsNumber();
+	}
+
+	@Override
+	public String getAsStringAt(int index) {
+		if (index != 0)
+			return super.getAsStringAt(index);
+		return this.getAsString();
+	}
+
+	@Override
+	public double getAsDoubleAt(int index) {
+		if (index != 0)
+			return super.getAsDoubleAt(index);
+		return this.getAsDouble();
+	}
+
+	@Override
+	public float getAsFloatAt(int index) {
+		if (index != 0)
+			return super.getAsFloatAt(index);
+		return this.getAsFloat();
+	}
+
+	@Override
+	public long getAsLongAt(int index) {
+		if (index != 0)
+			return super.getAsLongAt(index);
+		return this.getAsLong();
+	}
+
+	@Override
+	public int getAsIntAt(int index) {
+		if (index != 0)
+			return super.getAsIntAt(index);
+		return this.getAsInt();
+	}
+
+	@Override
+	public byte getAsByteAt(int index) {
+		if (index != 0)
+			return super.getAsByteAt(index);
+		return this.getAsByte();
+	}
+
+	@Override
+	public char getAsCharacterAt(int index) {
+		if (index != 0)
+			return super.getAsCharacterAt(index);
+		return this.getAsCharacter();
+	}
+
+	@Override
+	public BigDecimal getAsBigDecimalAt(int index) {
+		if (index != 0)
+			return super.getAsBigDecimalAt(index);
+		return this.getAsBigDecimal();
+	}
+
+	@Override
+	public BigInteger getAsBigIntegerAt(int index) {
+		if (index != 0)
+			return super.getAsBigIntegerAt(index);
+		return this.getAsBigInteger();
+	}
+
+	@Override
+	public short getAsShortAt(int index) {
+		if (index != 0)
+			return super.getAsShortAt(index);
+		return this.getAsShort();
+	}
+
+	@Override
+	public Date getAsDateAt(int index) {
+		if (index != 0)
+			return super.getAsDateAt(index);
+		return this.getAsDate();
+	}
+
+	@Override
+	public int getSize() {
+		return 1;
+	}
+}
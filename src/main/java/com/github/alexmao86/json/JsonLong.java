@@ -0,0 +1,106 @@
+package com.github.alexmao86.json;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * ClassName: JsonLong is a parsed integer number held in a primitive field, so
+ * reading it costs nothing and nothing is boxed until
+ * {@link #getValue()}.<br/>
+ * 
+ * @author
+ */
+final class JsonLong extends JsonLeaf {
+	private final long value;
+
+	JsonLong(long value) {
+		super();
+		this.value = value;
+	}
+
+	public Object getValue() {
+		return Long.valueOf(value);
+	}
+
+	@Override
+	JsonUncertain toUncertain() {
+		return new JsonUncertain(toString(), NUMBER);
+	}
+
+	@Override
+	public String toString() {
+		return Long.toString(value);
+	}
+
+	@Override
+	public Number getAsNumber() {
+		return Long.valueOf(value);
+	}
+
+	@Override
+	public String getAsString() {
+		return Long.toString(value);
+	}
+
+	@Override
+	public double getAsDouble() {
+		return value;
+	}
+
+	@Override
+	public float getAsFloat() {
+		return value;
+	}
+
+	@Override
+	public long getAsLong() {
+		return value;
+	}
+
+	@Override
+	public int getAsInt() {
+		return toInt(value);
+	}
+
+	@Override
+	public byte getAsByte() {
+		return toByte(value);
+	}
+
+	@Override
+	public short getAsShort() {
+		return toShort(value);
+	}
+
+	/*
+	 * narrowing conversions, out of range values fail like the parsers of
+	 * Integer, Byte and Short do
+	 */
+	static int toInt(long value) {
+		if ((int) value != value)
+			throw new NumberFormatException("For input string: \"" + value + "\"");
+		return (int) value;
+	}
+
+	static byte toByte(long value) {
+		if ((byte) value != value)
+			throw new NumberFormatException("Value out of range. Value:\"" + value + "\" Radix:10");
+		return (byte) value;
+	}
+
+	static short toShort(long value) {
+		if ((short) value != value)
+			throw new NumberFormatException("Value out of range. Value:\"" + value + "\" Radix:10");
+		return (short) value;
+	}
+
+	@Override
+	public BigDecimal getAsBigDecimal() {
+		return BigDecimal.valueOf(value);
+	}
+
+	@Override
+	public BigInteger getAsBigInteger() {
+		return BigInteger.valueOf(value);
+	}
+}
@@ -0,0 +1,60 @@
+package com.github.alexmao86.json;
+
+import com.github.alexmao86.json.io.CharSequenceInputSource;
+
+/**
+ * ClassName: JsonMetrics listens to the work of a {@link JsonSystem}, set by
+ * {@link JsonSystem#setJsonMetrics(JsonMetrics)} or built into a
+ * {@link JsonConfig}. Every method does nothing by default, implement the ones
+ * of interest. Methods are called by the thread doing the work, so they must be
+ * thread safe and cheap, see {@link JsonCounters}. Nothing is measured while
+ * {@link #NONE} is set, which is the default.<br/>
+ *
+ * @author
+ */
+public interface JsonMetrics {
+	/**
+	 * listener of nothing, contexts skip measuring when it is set
+	 */
+	JsonMetrics NONE = new JsonMetrics() {
+	};
+
+	/**
+	 * parsed: one document was read, into a tree or a java object
+	 *
+	 * @param length
+	 *            input consumed, bytes of UTF-8 sources and chars of other
+	 *            sources, see {@link CharSequenceInputSource#consumed()}
+	 * @param values
+	 *            values read, arrays and objects included, skipped ones too
+	 * @param depth
+	 *            deepest nesting of arrays and objects
+	 * @param nanos
+	 *            time taken, binding included
+	 */
+	default void parsed(long length, long values, int depth, long nanos) {
+	}
+
+	/**
+	 * bound: one document was bound to a java object of given type, reading of
+	 * the tokens included
+	 */
+	default void bound(Class<?> type, long nanos) {
+	}
+
+	/**
+	 * serialized: one value of given type was written
+	 */
+	default void serialized(Class<?> type, long nanos) {
+	}
+
+	/**
+	 * reflected: field definitions of a bean class were asked of
+	 * {@link JDKReflectJsonWorker}
+	 *
+	 * @param hit
+	 *            false if the class was reflected by this call
+	 */
+	default void reflected(Class<?> type, boolean hit) {
+	}
+}
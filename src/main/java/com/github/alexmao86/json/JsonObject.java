@@ -405,18 +405,6 @@ public final class JsonObject extends JsonElement {
 
 	@Override
 	public String toString() {
-		StringBuilder builder = new StringBuilder(AVG_OBJ_LENGTH << 2);
-		builder.append("{");
-		for (Entry<String, JsonElement> entry : members.entrySet()) {
-			JsonElement value = entry.getValue();
-			if (value instanceof JsonNull)
-				continue;
-			builder.append("\"").append(entry.getKey()).append("\":").append(value.toString()).append(",");
-		}
-		if (builder.charAt(builder.length() - 1) == ',') {
-			builder.deleteCharAt(builder.length() - 1);
-		}
-		builder.append("}");
-		return builder.toString();
+		return JsonWriter.DEFAULT.stringify(this);
 	}
 }
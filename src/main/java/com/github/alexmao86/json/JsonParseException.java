@@ -44,7 +44,7 @@ public class JsonParseException extends Exception {
 	 * @param src
 	 * @param location
 	 */
-	public JsonParseException(String src, int location) {
+	public JsonParseException(String src, long location) {
 		super(src + ", location " + location);
 	}
 
@@ -1,254 +1,174 @@
 package com.github.alexmao86.json;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.file.Path;
 import java.util.Collection;
 import java.util.Map;
-import java.util.Stack;
 
 import com.github.alexmao86.json.io.CharSequenceInputSource;
+import com.github.alexmao86.json.io.MappedFileInputSource;
+import com.github.alexmao86.json.io.ReaderInputSource;
 import com.github.alexmao86.json.io.StringInputSource;
+import com.github.alexmao86.json.io.Utf8ByteArrayInputSource;
+import com.github.alexmao86.json.io.Utf8InputStreamSource;
+
+/**
+ * ClassName: JsonReader builds {@link JsonElement} tree or java objects from
+ * json text. The tree is built on top of {@link JsonTokenReader}, use the token
+ * reader directly to stream huge documents.<br/>
+ * 
+ * @author
+ */
+public final class JsonReader extends JsonSystem {
+	public JsonReader() {
+		super();
+	}
 
+	/**
+	 * JsonReader: reader of given rules, cheap to make, see {@link JsonConfig}
+	 */
+	public JsonReader(JsonConfig config) {
+		super(config);
+	}
 
-public final class JsonReader extends JsonSystem {
-	private final class IndexedChar {
-		char chr;
-		int location;
-
-		private IndexedChar(char chr, int location) {
-			super();
-			this.chr = chr;
-			this.location = location;
-		}
+	public final int getMaxDepth() {
+		return config.maxDepth;
+	}
 
-		@Override
-		public String toString() {
-			return chr + "@" + location;
-		}
+	/**
+	 * setMaxDepth: limit nesting of arrays and objects, see
+	 * {@link JsonTokenReader#setMaxDepth(int)}
+	 */
+	public final synchronized void setMaxDepth(int maxDepth) {
+		config = config.toBuilder().maxDepth(maxDepth).build();
 	}
 
 	public final JsonElement parse(final String src) throws IOException, JsonParseException {
 		if (src == null || src.trim().length() == 0) {
 			return JsonNull.INSTANCE;
 		}
-		final CharSequenceInputSource source = new StringInputSource(src);
-		Stack<IndexedChar> stack = new Stack<IndexedChar>();
-		JsonElement element = nextJSONElement(source, stack);
-		if (!stack.isEmpty()) {
-			throw new JsonParseException(src, stack.pop().location);
-		}
-		if (source.available()) {
-			throw new JsonParseException(source.remaining());
-		}
-		return element;
-	}
-
-	@SuppressWarnings("unchecked")
-	public final <T> T parse(final String src, Class<T> type) throws IOException, JsonParseException {
-		JsonElement e = parse(src);
-		JsonDeserializer<T> jsonDeserializer = this.queryJsonDeserializer(type);
-		return (T) jsonDeserializer.deserialize(e, type, this);
+		return parse(new StringInputSource(src));
 	}
 
-	@SuppressWarnings("unchecked")
-	public final <T> Collection<T> parseAsCollection(final String src, Class<T> type)
-			throws IOException, JsonParseException {
-		if (Map.class.isAssignableFrom(type) || Collection.class.isAssignableFrom(type)) {
-			throw new IllegalArgumentException("direct nested java generic type is not supported");
-		}
-		JsonElement e = parse(src);
-		@SuppressWarnings("rawtypes")
-		JsonDeserializer jsonDeserializer = this.queryJsonDeserializer(Collection.class);
-		return (Collection<T>) jsonDeserializer.deserialize(e, Collection.class, this, type);
+	/**
+	 * parse: build one json tree from a reader through a bounded window, the
+	 * reader is not closed
+	 */
+	public final JsonElement parse(final Reader reader) throws IOException, JsonParseException {
+		return parse(new ReaderInputSource(reader));
 	}
 
 	/**
-	 * nextJSONValue: when we find one whole
-	 * 
-	 * @param source
-	 * @return
-	 * @throws JsonParseException
-	 * @throws IOException
+	 * parse: build one json tree from UTF-8 bytes of an input stream through a
+	 * bounded window, the stream is not closed
 	 */
-	private final JsonElement nextJSONUncertain(CharSequenceInputSource source, Stack<IndexedChar> stack, int type)
-			throws IOException, JsonParseException {
-		source.skipWhitespace();
-		if (type == JsonElement.STRING) {
-			String src = nextString(source);
-			return new JsonUncertain(src, type);
-		}
-		// non-string
-		StringBuilder elementBuilder = new StringBuilder();
-		while (source.available()) {
-			char chr = source.getChar();
-			if (chr == ' ' || chr == ',' || chr == ':' || chr == ']' || chr == '}' || chr == '[' || chr == '{') {
-				break;
-			}
-			elementBuilder.append(chr);
-			source.move();
-		}
-		return new JsonUncertain(elementBuilder.toString());
+	public final JsonElement parse(final InputStream in) throws IOException, JsonParseException {
+		return parse(new Utf8InputStreamSource(in));
 	}
 
 	/**
-	 * 
-	 * @param source
-	 * @return
-	 * @throws IOException
-	 * @throws JsonParseException
-	 * @since JDK 1.8
+	 * parse: build one json tree directly from UTF-8 bytes, no decoded copy of
+	 * the document is made, string values are decoded when they are read
 	 */
-	private final JsonElement nextJSONArray(CharSequenceInputSource source, Stack<IndexedChar> stack)
-			throws IOException, JsonParseException {
-		JsonArray array = new JsonArray();
-		source.move();// skip "["
-		source.skipWhitespace();
-		boolean firstEntry = true;// flag to mark first entry
-		while (source.available()) {
-
-			char chr = source.getChar();
-
-			if (chr == ']') {
-				stack.pop();// end of array
-				source.move();
-				break;
-			}
-
-			if (!firstEntry) {
-				skipSyntaxChar(source, ',');// skipping entry splitting from second one
-				chr = source.getChar();
-			}
-
-			if (chr == '{') {// array element is object
-				stack.push(new IndexedChar(chr, source.getCursor()));
-				array.add(nextJSONObject(source, stack));
-			} else if (chr == '[') {// nested array
-				stack.push(new IndexedChar(chr, source.getCursor()));
-				array.add(nextJSONArray(source, stack));
-			} else if (chr == '\"') {// now this array is one array of string
-				array.add(nextJSONUncertain(source, stack, JsonElement.STRING));
-			} else {// consider non-string array element, such as numbric
-				array.add(nextJSONUncertain(source, stack, JsonElement.UNCERTAIN));
-			}
-			firstEntry = false;
-			source.skipWhitespace();
-		}
-		return array;
+	public final JsonElement parse(final byte[] src) throws IOException, JsonParseException {
+		return parse(new Utf8ByteArrayInputSource(src));
+	}
+
+	public final JsonElement parse(final byte[] src, int offset, int length) throws IOException, JsonParseException {
+		return parse(new Utf8ByteArrayInputSource(src, offset, length));
 	}
 
 	/**
-	 * readJSONObject:
-	 * 
-	 * @param src
-	 * @param pointer
-	 * @param ret
-	 * @throws JsonParseException
-	 * @throws IOException
+	 * parse: build one json tree from a UTF-8 file, the file is memory mapped and
+	 * decoded lazily, files over 2 GB are remapped transparently
 	 */
-	private final JsonObject nextJSONObject(final CharSequenceInputSource source, Stack<IndexedChar> stack)
-			throws JsonParseException, IOException {
-		JsonObject ret = new JsonObject();
-		source.move();// skip "{"
-		source.skipWhitespace();
-		boolean firstEntry = true;// flag to mark first entry
-		while (source.available()) {
-			char chr = source.getChar();
-			if (chr == '}') {
-				stack.pop();
-				source.move();
-				break;
-			}
-
-			if (!firstEntry) {
-				skipSyntaxChar(source, ',');// skipping entry splitting from second one
-				chr = source.getChar();
-			}
-
-			source.skipWhitespace();
-			String key = nextString(source);
-			skipSyntaxChar(source, ':');
-			JsonElement value = nextJSONElement(source, stack);
-
-			ret.add(key, value);
-			firstEntry = false;
-			source.skipWhitespace();
+	public final JsonElement parse(final Path path) throws IOException, JsonParseException {
+		try (MappedFileInputSource source = new MappedFileInputSource(path)) {
+			return parse(source);
 		}
-		return ret;
 	}
 
 	/**
-	 * nextJSONElement:
+	 * parse: build one json tree from given input source, the whole source must be
+	 * one json value
 	 * 
-	 * @param src
-	 * @param pointer
-	 * @return
+	 * @param source
+	 * @return {@link JsonNull#INSTANCE} if source is blank
 	 * @throws IOException
 	 * @throws JsonParseException
 	 */
-	private final JsonElement nextJSONElement(final CharSequenceInputSource source, Stack<IndexedChar> stack)
-			throws IOException, JsonParseException {
-		source.skipWhitespace();
+	public final JsonElement parse(final CharSequenceInputSource source) throws IOException, JsonParseException {
+		JsonConfig config = this.config;
+		JsonTokenReader reader = new JsonTokenReader(source);
+		reader.setMaxDepth(config.maxDepth);
+		JsonMetrics metrics = config.metrics;
+		long start = metrics == JsonMetrics.NONE ? 0 : System.nanoTime();
+		JsonElement element = readElement(reader);
+		reader.nextToken();// ensure nothing left behind
+		if (metrics != JsonMetrics.NONE)
+			parsed(metrics, reader, System.nanoTime() - start);
+		return element;
+	}
 
-		char chr = source.getChar();
-		if (chr == 0) {
-			return JsonNull.INSTANCE;// null
-		}
-		if (chr == '{') {
-			stack.push(new IndexedChar(chr, source.getCursor()));
-			return nextJSONObject(source, stack);
-		} else if (chr == '[') {
-			stack.push(new IndexedChar(chr, source.getCursor()));
-			return nextJSONArray(source, stack);
-		} else if (chr == '\"') {
-			return nextJSONUncertain(source, stack, JsonElement.STRING);
+	private static void parsed(JsonMetrics metrics, JsonTokenReader reader, long nanos) {
+		metrics.parsed(reader.getConsumed(), reader.getValueCount(), reader.getDeepest(), nanos);
+	}
+
+	@SuppressWarnings("unchecked")
+	public final <T> T parse(final String src, Class<T> type) throws IOException, JsonParseException {
+		if (src == null || src.trim().length() == 0) {
+			JsonDeserializer<T> jsonDeserializer = this.queryJsonDeserializer(type);
+			return (T) jsonDeserializer.deserialize(JsonNull.INSTANCE, type, this);
 		}
-		return nextJSONUncertain(source, stack, JsonElement.UNCERTAIN);
+		return parse(new StringInputSource(src), type);
 	}
 
 	/**
-	 * nextString: TODO ignore double quotes option
-	 * 
-	 * @param src
-	 * @param pointer
-	 * @return
-	 * @throws JsonParseException
+	 * parse: bind one java object from given input source. Beans are read member
+	 * by member from the tokens, see {@link JsonStreamDeserializer}, no tree is
+	 * built for them.
 	 */
-	private final String nextString(final CharSequenceInputSource source) throws IOException, JsonParseException {
-		source.skipWhitespace();
-		StringBuilder builder = new StringBuilder();
-		char chr = source.getCharAndMove();
-
-		if (chr == '\"') {// strict mode
-			while (source.available()) {
-				chr = source.getChar();
-				if (chr == '\"' && source.tryPreviousChar() != '\\') {// meet end of string, aware of \"
-					source.move();
-					break;
-				}
-				source.move();
-				builder.append(chr);
-			}
-		} else if (chr == '\'') {// strict mode
-			while (source.available()) {
-				chr = source.getChar();
-				if (chr == '\'' && source.tryPreviousChar() != '\\') {// meet end of string, aware of \'
-					source.move();
-					break;
-				}
-				source.move();
-				builder.append(chr);
-			}
-		} else {// non strict mode
-			builder.append(chr);
-			while (source.available()) {
-				chr = source.getChar();
-				if (chr == ' ' || chr == ',' || chr == ':' || chr == ']' || chr == '}' || chr == '[' || chr == '{') {
-					break;
-				}
-				source.move();
-				builder.append(chr);
-			}
+	@SuppressWarnings("unchecked")
+	public final <T> T parse(final CharSequenceInputSource source, Class<T> type)
+			throws IOException, JsonParseException {
+		JsonConfig config = this.config;
+		JsonTokenReader reader = new JsonTokenReader(source);
+		reader.setMaxDepth(config.maxDepth);
+		JsonMetrics metrics = config.metrics;
+		long start = metrics == JsonMetrics.NONE ? 0 : System.nanoTime();
+		T value = (T) read(reader, type);
+		reader.nextToken();// ensure nothing left behind
+		if (metrics != JsonMetrics.NONE) {
+			long nanos = System.nanoTime() - start;
+			parsed(metrics, reader, nanos);
+			metrics.bound(type, nanos);
+		}
+		return value;
+	}
+
+	@SuppressWarnings("unchecked")
+	public final <T> Collection<T> parseAsCollection(final String src, Class<T> type)
+			throws IOException, JsonParseException {
+		if (Map.class.isAssignableFrom(type) || Collection.class.isAssignableFrom(type)) {
+			throw new IllegalArgumentException("direct nested java generic type is not supported");
 		}
+		JsonElement e = parse(src);
+		@SuppressWarnings("rawtypes")
+		JsonDeserializer jsonDeserializer = this.queryJsonDeserializer(Collection.class);
+		return (Collection<T>) jsonDeserializer.deserialize(e, Collection.class, this, type);
+	}
 
-		return unescape(builder.toString());
+	@SuppressWarnings("unchecked")
+	public final <K, V> Map<K, V> parseAsMap(final String src, Class<K> keyType, Class<V> valueType)
+			throws IOException, JsonParseException {
+		if (Map.class.isAssignableFrom(valueType) || Collection.class.isAssignableFrom(valueType)) {
+			throw new IllegalArgumentException("direct nested java generic type is not supported");
+		}
+		JsonElement e = parse(src);
+		@SuppressWarnings("rawtypes")
+		JsonDeserializer jsonDeserializer = this.queryJsonDeserializer(Map.class);
+		return (Map<K, V>) jsonDeserializer.deserialize(e, Map.class, this, keyType, valueType);
 	}
 }
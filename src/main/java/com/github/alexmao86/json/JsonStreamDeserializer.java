@@ -0,0 +1,21 @@
+package com.github.alexmao86.json;
+
+import java.io.IOException;
+
+/**
+ * ClassName: JsonStreamDeserializer binds a value straight from the tokens of
+ * {@link JsonTokenReader}, instead of from a {@link JsonElement} tree built
+ * before. Nested values are read through
+ * {@link JsonSystem#read(JsonTokenReader, Class, Class...)}.<br/>
+ * 
+ * @author
+ */
+public interface JsonStreamDeserializer<T> extends JsonDeserializer<T> {
+
+	/**
+	 * deserialize: read the value at current position of the token reader, the
+	 * whole value is consumed
+	 */
+	public T deserialize(JsonTokenReader reader, Class<T> targetClass, JsonSystem context,
+			@SuppressWarnings("rawtypes") Class... actualTypes) throws IOException, JsonParseException;
+}
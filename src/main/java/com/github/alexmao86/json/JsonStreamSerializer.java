@@ -0,0 +1,37 @@
+package com.github.alexmao86.json;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import com.github.alexmao86.json.io.CharArrayOutputSink;
+import com.github.alexmao86.json.io.CharSequenceOutputSink;
+
+/**
+ * ClassName: JsonStreamSerializer writes json text of an object into the sink
+ * shared by the whole document, instead of returning a string which its parent
+ * copies again. Nested values are written through
+ * {@link JsonSystem#write(Object, CharSequenceOutputSink)}.<br/>
+ * 
+ * @author
+ */
+public interface JsonStreamSerializer<T> extends JsonSerializer<T> {
+
+	/**
+	 * serialize: write json text of given object to the sink
+	 */
+	void serialize(T object, JsonSystem context, CharSequenceOutputSink out) throws IOException;
+
+	/**
+	 * serialize given object instance to json string, through a private sink
+	 */
+	@Override
+	default public String serialize(T object, JsonSystem context) {
+		CharArrayOutputSink out = new CharArrayOutputSink();
+		try {
+			serialize(object, context, out);
+		} catch (IOException e) {// not thrown by char array sink
+			throw new UncheckedIOException(e);
+		}
+		return out.toString();
+	}
+}
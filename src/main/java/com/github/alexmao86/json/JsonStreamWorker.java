@@ -0,0 +1,11 @@
+package com.github.alexmao86.json;
+
+/**
+ * ClassName: JsonStreamWorker is a {@link JsonWorker} which writes into the
+ * output sink <br/>
+ * 
+ * @author
+ */
+public interface JsonStreamWorker<T> extends JsonWorker<T>, JsonStreamSerializer<T> {
+
+}
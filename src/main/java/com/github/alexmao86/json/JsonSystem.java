@@ -1,5 +1,6 @@
 package com.github.alexmao86.json;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
@@ -8,9 +9,14 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import com.github.alexmao86.json.io.CharSequenceOutputSink;
+
 /**
  * ClassName: JSONSystem is the core rules holder for all serializer<br/>
  * date: 2017年9月28日 下午2:36:08 <br/>
@@ -23,33 +29,48 @@ public class JsonSystem {
 	protected static final String JSON_SPLITER = ",";
 	protected static final int AVG_OBJ_LENGTH = 24;
 
-	protected JsonDateFormatter dateFormatter = new JsonDateFormatter() {
+	/**
+	 * stateless default formatter, shared by every context and by the tree nodes
+	 */
+	protected final static JsonDateFormatter DEFAULT_DATE_FORMATTER = new JsonDateFormatter() {
 	};
 
+	/**
+	 * rules of this context, replaced as a whole when a rule is changed, so
+	 * lookups take no lock and see either the former rules or the new ones
+	 */
+	protected volatile JsonConfig config;
+
 	/**
 	 * if user does not speicify serializer, reflection serialzer will be used
 	 */
 	protected final static JDKReflectJsonWorker jdkReflectJsonWorker = new JDKReflectJsonWorker();
 
-	protected final static Map<Class<?>, JsonSerializer<?>> builtInJSONSerializers = new HashMap<Class<?>, JsonSerializer<?>>();
-
-	protected final Map<Class<?>, JsonSerializer<?>> userJsonSerializers = new HashMap<Class<?>, JsonSerializer<?>>();
+	/**
+	 * global rules are concurrent maps, they may be registered while other
+	 * threads read them
+	 */
+	protected final static Map<Class<?>, JsonSerializer<?>> builtInJSONSerializers = new ConcurrentHashMap<Class<?>, JsonSerializer<?>>();
 
-	protected final static Map<Class<?>, JsonDeserializer> builtInJsonDeserializers = new HashMap<Class<?>, JsonDeserializer>();
+	/**
+	 * built-in serializers of primitive boxes by primitive type, see
+	 * {@link #primitiveByDefault(Class)}
+	 */
+	private final static Map<Class<?>, JsonSerializer<?>> primitiveJsonSerializers = new HashMap<Class<?>, JsonSerializer<?>>();
 
-	protected final Map<Class<?>, JsonDeserializer> userJsonDeserializers = new HashMap<Class<?>, JsonDeserializer>();
+	protected final static Map<Class<?>, JsonDeserializer> builtInJsonDeserializers = new ConcurrentHashMap<Class<?>, JsonDeserializer>();
 
 	// register built-in object swapper
 	static {
 		// string
-		JsonWorker stringWorker = new JsonWorker<String>() {
+		JsonWorker stringWorker = new JsonStreamWorker<String>() {
 			public Class<String> supportedType() {
 				return String.class;
 			}
 
 			@Override
-			public String serialize(String src, JsonSystem context) {
-				return new StringBuilder(2 + src.length()).append("\"").append(escape(src)).append("\"").toString();
+			public void serialize(String src, JsonSystem context, CharSequenceOutputSink out) throws IOException {
+				writeString(src, out);
 			}
 
 			@Override
@@ -77,11 +98,16 @@ public class JsonSystem {
 		globalJsonDeserializer(boolWorker);
 
 		// byte
-		JsonWorker byteWorker = new JsonWorker<Byte>() {
+		JsonWorker byteWorker = new JsonStreamWorker<Byte>() {
 			public Class<Byte> supportedType() {
 				return Byte.class;
 			}
 
+			@Override
+			public void serialize(Byte src, JsonSystem context, CharSequenceOutputSink out) throws IOException {
+				out.writeLong(src.longValue());
+			}
+
 			@Override
 			public Byte deserialize(JsonElement json, Class targetClass, JsonSystem context, Class... actuallTypes)
 					throws JsonParseException {
@@ -92,14 +118,14 @@ public class JsonSystem {
 		globalJsonDeserializer(byteWorker);
 
 		// character
-		JsonWorker charWorker = new JsonWorker<Character>() {
+		JsonWorker charWorker = new JsonStreamWorker<Character>() {
 			public Class<Character> supportedType() {
 				return Character.class;
 			}
 
 			@Override
-			public String serialize(Character src, JsonSystem context) {
-				return new StringBuilder(3).append("\"").append(src).append("\"").toString();
+			public void serialize(Character src, JsonSystem context, CharSequenceOutputSink out) throws IOException {
+				writeString(src.toString(), out);
 			}
 
 			@Override
@@ -111,27 +137,56 @@ public class JsonSystem {
 		globalJsonSerializer(charWorker);
 		globalJsonDeserializer(charWorker);
 		// short
-		JsonWorker shortWorker = new JsonWorker<Short>() {
+		JsonWorker shortWorker = new JsonStreamWorker<Short>() {
 			public Class<Short> supportedType() {
 				return Short.class;
 			}
 
+			@Override
+			public void serialize(Short src, JsonSystem context, CharSequenceOutputSink out) throws IOException {
+				out.writeLong(src.longValue());
+			}
+
 			@Override
 			public Short deserialize(JsonElement json, Class targetClass, JsonSystem context, Class... actuallTypes)
 					throws JsonParseException {
 				return json.getAsShort();
 			}
 		};
-	
+		globalJsonSerializer(shortWorker);
+		globalJsonDeserializer(shortWorker);
+
+		// integer
+		JsonWorker intWorker = new JsonStreamWorker<Integer>() {
+			public Class<Integer> supportedType() {
+				return Integer.class;
+			}
+
+			@Override
+			public void serialize(Integer src, JsonSystem context, CharSequenceOutputSink out) throws IOException {
+				out.writeLong(src.longValue());
+			}
+
+			@Override
+			public Integer deserialize(JsonElement json, Class targetClass, JsonSystem context, Class... actuallTypes)
+					throws JsonParseException {
+				return json.getAsInt();
+			}
+		};
 		globalJsonSerializer(intWorker);
 		globalJsonDeserializer(intWorker);
 
 		// long
-		JsonWorker longWorker = new JsonWorker<Long>() {
+		JsonWorker longWorker = new JsonStreamWorker<Long>() {
 			public Class<Long> supportedType() {
 				return Long.class;
 			}
 
+			@Override
+			public void serialize(Long src, JsonSystem context, CharSequenceOutputSink out) throws IOException {
+				out.writeLong(src.longValue());
+			}
+
 			@Override
 			public Long deserialize(JsonElement json, Class targetClass, JsonSystem context, Class... actuallTypes)
 					throws JsonParseException {
@@ -170,6 +225,15 @@ public class JsonSystem {
 		globalJsonSerializer(doubleWorker);
 		globalJsonDeserializer(doubleWorker);
 
+		primitiveJsonSerializers.put(boolean.class, boolWorker);
+		primitiveJsonSerializers.put(byte.class, byteWorker);
+		primitiveJsonSerializers.put(char.class, charWorker);
+		primitiveJsonSerializers.put(short.class, shortWorker);
+		primitiveJsonSerializers.put(int.class, intWorker);
+		primitiveJsonSerializers.put(long.class, longWorker);
+		primitiveJsonSerializers.put(float.class, floatWorker);
+		primitiveJsonSerializers.put(double.class, doubleWorker);
+
 		JsonWorker numberWorker = new JsonWorker<Number>() {
 			public Class<Number> supportedType() {
 				return Number.class;
@@ -193,7 +257,7 @@ public class JsonSystem {
 			public String serialize(Date object, JsonSystem context) {
 				if (object == null)
 					return null;
-				return context.dateFormatter.format(object);
+				return context.config.dateFormatter.format(object);
 			}
 
 			@Override
@@ -205,30 +269,26 @@ public class JsonSystem {
 		globalJsonSerializer(dateWorker);
 		globalJsonDeserializer(dateWorker);
 
-	}
-
-	{
-
-		JsonWorker collectionWorker = new JsonWorker<Collection>() {
+		// collection and map resolve their element workers through the calling
+		// context, so one shared instance serves every JsonSystem
+		JsonWorker collectionWorker = new JsonStreamWorker<Collection>() {
 			public Class<Collection> supportedType() {
 				return Collection.class;
 			}
 
-			@SuppressWarnings("unchecked")
 			@Override
-			public String serialize(Collection value, JsonSystem context) {
-				if (value == null || value.size() == 0)
-					return "[]";
-
-				StringBuilder builder = new StringBuilder(value.size() * AVG_OBJ_LENGTH);
-				builder.append("[");
-				for (Object obj : value) {
-					JsonSerializer swapper = queryJsonSerializer(obj.getClass());
-					builder.append(swapper.serialize(obj, JsonSystem.this)).append(",");
+			public void serialize(Collection value, JsonSystem context, CharSequenceOutputSink out) throws IOException {
+				out.write('[');
+				if (value != null) {
+					boolean first = true;
+					for (Object obj : value) {
+						if (!first)
+							out.write(',');
+						first = false;
+						context.write(obj, out);
+					}
 				}
-				builder.deleteCharAt(builder.length() - 1);
-				builder.append("]");
-				return builder.toString();
+				out.write(']');
 			}
 
 			// TODO how to determine composited type, java运行期间进行了范型擦除
@@ -247,43 +307,39 @@ public class JsonSystem {
 					return null;
 				List list = new ArrayList<>(elements.size());
 				for (JsonElement e : elements) {
+					if (e.isJSONNull()) {
+						list.add(null);
+						continue;
+					}
 					JsonDeserializer deserializer = context.queryJsonDeserializer(actuallTypes[0]);
 					list.add(deserializer.deserialize(e, actuallTypes[0], context));
 				}
 				return list;
 			}
 		};
-		registerJsonSerializer(collectionWorker);
-		registerJsonDeserializer(collectionWorker);
+		globalJsonSerializer(collectionWorker);
+		globalJsonDeserializer(collectionWorker);
 
-		JsonWorker mapWorker = new JsonWorker<Map>() {
+		JsonWorker mapWorker = new JsonStreamWorker<Map>() {
 			public Class<Map> supportedType() {
 				return Map.class;
 			}
 
-			@SuppressWarnings("unchecked")
 			@Override
-			public String serialize(Map value, JsonSystem context) {
-				if (value.size() == 0)
-					return "{}";
-
-				JsonSerializer stringSwapper = queryJsonSerializer(String.class);
-				StringBuilder builder = new StringBuilder(value.size() * AVG_OBJ_LENGTH);
-				builder.append("{");
+			public void serialize(Map value, JsonSystem context, CharSequenceOutputSink out) throws IOException {
+				out.write('{');
+				boolean first = true;
 				Iterator iterator = value.entrySet().iterator();
 				while (iterator.hasNext()) {
 					Entry entry = (Entry) iterator.next();
-					String key = entry.getKey().toString();
-					Object v = entry.getValue();
-
-					JsonSerializer valueSwapper = queryJsonSerializer(v.getClass());
-
-					builder.append(stringSwapper.serialize(key, JsonSystem.this)).append(":")
-							.append(valueSwapper.serialize(v, JsonSystem.this)).append(",");
+					if (!first)
+						out.write(',');
+					first = false;
+					context.write(context.queryJsonSerializer(String.class), entry.getKey().toString(), out);
+					out.write(':');
+					context.write(entry.getValue(), out);
 				}
-				builder.deleteCharAt(builder.length() - 1);
-				builder.append("}");
-				return builder.toString();
+				out.write('}');
 			}
 
 			@SuppressWarnings("unchecked")
@@ -308,14 +364,18 @@ public class JsonSystem {
 																							// java运行期间进行了范型擦除
 				for (Entry<String, JsonElement> entry : jsonMap.entrySet()) {
 					JsonElement valueEntry = entry.getValue();
+					if (valueEntry.isJSONNull()) {
+						map.put(entry.getKey(), null);
+						continue;
+					}
 					JsonDeserializer deserializer = context.queryJsonDeserializer(actuallTypes[1]);
 					map.put(entry.getKey(), deserializer.deserialize(valueEntry, actuallTypes[1], context));
 				}
 				return map;
 			}
 		};
-		registerJsonSerializer(mapWorker);
-		registerJsonDeserializer(mapWorker);
+		globalJsonSerializer(mapWorker);
+		globalJsonDeserializer(mapWorker);
 	}
 
 	public final static void globalJsonSerializer(JsonSerializer<?> serializer) {
@@ -332,23 +392,162 @@ public class JsonSystem {
 		builtInJsonDeserializers.put(deserializer.supportedType(), deserializer);
 	}
 
-	public final void registerJsonSerializer(JsonSerializer<?> swapper) {
-		if (userJsonSerializers.containsKey(swapper.supportedType())) {
+	/**
+	 * globalJsonWorkers: register the workers listed as services of
+	 * {@link JsonWorker} for given class loader, like the ones generated by
+	 * {@link com.github.alexmao86.json.processor.JsonWorkerProcessor}, for every
+	 * context. Nothing is registered unless this method is called, see
+	 * {@link JsonConfig.Builder#registerJsonWorkers(ClassLoader)} to register
+	 * them for one config only.
+	 */
+	public final static void globalJsonWorkers(ClassLoader loader) {
+		try {
+			for (JsonWorker worker : ServiceLoader.load(JsonWorker.class, loader)) {
+				globalJsonSerializer(worker);
+				globalJsonDeserializer(worker);
+			}
+		} catch (ServiceConfigurationError e) {
+			LOGGER.log(Level.WARNING, "can not load json workers", e);
+		}
+	}
+
+	public JsonSystem() {
+		this(JsonConfig.DEFAULT);
+	}
+
+	/**
+	 * JsonSystem: context of given rules, nothing is copied
+	 */
+	public JsonSystem(JsonConfig config) {
+		if (config == null)
+			throw new IllegalArgumentException("config must not be null");
+		this.config = config;
+	}
+
+	/**
+	 * builder: builder of an immutable {@link JsonConfig}, to be shared by
+	 * readers and writers of any thread
+	 */
+	public final static JsonConfig.Builder builder() {
+		return new JsonConfig.Builder();
+	}
+
+	/**
+	 * getConfig: current rules of this context, changes made later by setters of
+	 * the context do not change the returned snapshot
+	 */
+	public final JsonConfig getConfig() {
+		return config;
+	}
+
+	/*
+	 * setters below replace the rules of this context by a changed copy, they are
+	 * meant for setting up, build a JsonConfig to share rules
+	 */
+	public final synchronized void registerJsonSerializer(JsonSerializer<?> swapper) {
+		if (config.serializers.containsKey(swapper.supportedType())) {
 			LOGGER.log(Level.FINE, "{} is already registered, you are overriding");
 		}
-		userJsonSerializers.put(swapper.supportedType(), swapper);
+		config = config.toBuilder().registerJsonSerializer(swapper).build();
 	}
 
-	public final void registerJsonDeserializer(JsonDeserializer swapper) {
-		if (userJsonDeserializers.containsKey(swapper.supportedType())) {
+	public final synchronized void registerJsonDeserializer(JsonDeserializer swapper) {
+		if (config.deserializers.containsKey(swapper.supportedType())) {
 			LOGGER.log(Level.FINE, "{} is already registered, you are overriding");
 		}
-		userJsonDeserializers.put(swapper.supportedType(), swapper);
+		config = config.toBuilder().registerJsonDeserializer(swapper).build();
+	}
+
+	/**
+	 * registerGeneratedCodec: register the codec generated for a bean class as
+	 * its serializer and deserializer, like a hand written one
+	 *
+	 * @throws IllegalArgumentException
+	 *             if no codec can be generated for the class, it must be public
+	 *             and not anonymous
+	 */
+	public final synchronized void registerGeneratedCodec(Class<?> type) {
+		config = config.toBuilder().registerGeneratedCodec(type).build();
+	}
+
+	/**
+	 * setGeneratedCodecs: use codecs generated at runtime for beans without
+	 * registered serializer, off by default. Classes a codec can not be
+	 * generated for are still reflected.
+	 */
+	public final synchronized void setGeneratedCodecs(boolean generatedCodecs) {
+		config = config.toBuilder().generatedCodecs(generatedCodecs).build();
+	}
+
+	public final boolean isGeneratedCodecs() {
+		return config.generatedCodecs;
+	}
+
+	/**
+	 * setJsonMetrics: report the work of this context to given listener, null
+	 * stops reporting
+	 */
+	public final synchronized void setJsonMetrics(JsonMetrics metrics) {
+		config = config.toBuilder().jsonMetrics(metrics).build();
+	}
+
+	public final JsonMetrics getJsonMetrics() {
+		return config.metrics;
+	}
+
+	/**
+	 * escape sequence of each ascii char, null for chars written as they are
+	 */
+	private static final String[] ASCII_ESCAPES = new String[128];
+	private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+	static {
+		for (int ch = 0; ch < 0x20; ch++) {
+			ASCII_ESCAPES[ch] = unicodeEscape((char) ch);
+		}
+		ASCII_ESCAPES[0x7F] = unicodeEscape((char) 0x7F);
+		ASCII_ESCAPES['"'] = "\\\"";
+		ASCII_ESCAPES['\\'] = "\\\\";
+		ASCII_ESCAPES['/'] = "\\/";
+		ASCII_ESCAPES['\b'] = "\\b";
+		ASCII_ESCAPES['\f'] = "\\f";
+		ASCII_ESCAPES['\n'] = "\\n";
+		ASCII_ESCAPES['\r'] = "\\r";
+		ASCII_ESCAPES['\t'] = "\\t";
+	}
+
+	private static String unicodeEscape(char ch) {
+		return new String(new char[] { '\\', 'u', HEX_DIGITS[ch >> 12], HEX_DIGITS[(ch >> 8) & 0xF],
+				HEX_DIGITS[(ch >> 4) & 0xF], HEX_DIGITS[ch & 0xF] });
+	}
+
+	/**
+	 * needsEscape: quotes, \, /, \r, \n, \b, \f, \t and other control characters
+	 * (U+0000 through U+001F), U+007F through U+009F and U+2000 through U+20FF
+	 */
+	private static boolean needsEscape(char ch) {
+		if (ch < 128)
+			return ASCII_ESCAPES[ch] != null;
+		// Reference: http://www.unicode.org/versions/Unicode5.1.0/
+		return ch <= '\u009F' || (ch >= '\u2000' && ch <= '\u20FF');
+	}
+
+	/**
+	 * firstEscape: index of first char of s from given index which needs escape,
+	 * length of s if none
+	 */
+	private static int firstEscape(String s, int from) {
+		final int len = s.length();
+		for (int i = from; i < len; i++) {
+			if (needsEscape(s.charAt(i)))
+				return i;
+		}
+		return len;
 	}
 
 	/**
 	 * Escape quotes, \, /, \r, \n, \b, \f, \t and other control characters (U+0000
-	 * through U+001F).
+	 * through U+001F). Strings without such chars are returned as they are.
 	 * 
 	 * @param s
 	 * @return
@@ -356,69 +555,121 @@ public class JsonSystem {
 	final static String escape(String s) {
 		if (s == null)
 			return null;
-		StringBuilder sb = new StringBuilder();
 		final int len = s.length();
-		for (int i = 0; i < len; i++) {
+		int i = firstEscape(s, 0);
+		if (i == len)
+			return s;
+		StringBuilder sb = new StringBuilder(len + 16);
+		int from = 0;
+		while (i < len) {
+			sb.append(s, from, i);
 			char ch = s.charAt(i);
+			sb.append(ch < 128 ? ASCII_ESCAPES[ch] : unicodeEscape(ch));
+			from = i + 1;
+			i = firstEscape(s, from);
+		}
+		return sb.append(s, from, len).toString();
+	}
+
+	/**
+	 * writeString: write given text quoted and escaped, runs of chars which need
+	 * no escape are written in bulk
+	 */
+	final static void writeString(String s, CharSequenceOutputSink out) throws IOException {
+		out.write('"');
+		final int len = s.length();
+		int from = 0;
+		int i = firstEscape(s, 0);
+		while (i < len) {
+			if (i > from)
+				out.write(s, from, i - from);
+			char ch = s.charAt(i);
+			if (ch < 128) {
+				out.write(ASCII_ESCAPES[ch]);
+			} else {
+				out.write('\\');
+				out.write('u');
+				out.write(HEX_DIGITS[ch >> 12]);
+				out.write(HEX_DIGITS[(ch >> 8) & 0xF]);
+				out.write(HEX_DIGITS[(ch >> 4) & 0xF]);
+				out.write(HEX_DIGITS[ch & 0xF]);
+			}
+			from = i + 1;
+			i = firstEscape(s, from);
+		}
+		if (from < len)
+			out.write(s, from, len - from);
+		out.write('"');
+	}
+
+	/**
+	 * unescape: decode escape sequences of a quoted json text body, unknown
+	 * escapes like \' of non strict json keep the escaped char
+	 * 
+	 * @param text
+	 *            body of quoted text, without quotes
+	 * @return
+	 * @throws IllegalArgumentException
+	 *             if a \\u escape is not followed by 4 hex digits, or text ends
+	 *             with a single backslash
+	 */
+	final static String unescape(CharSequence text) {
+		final int len = text.length();
+		StringBuilder sb = new StringBuilder(len);
+		for (int i = 0; i < len; i++) {
+			char ch = text.charAt(i);
+			if (ch != '\\') {
+				sb.append(ch);
+				continue;
+			}
+			if (++i == len) {
+				throw new IllegalArgumentException("unterminated escape at " + (i - 1));
+			}
+			ch = text.charAt(i);
 			switch (ch) {
-			case '"':
-				sb.append("\\\"");
-				break;
-			case '\\':
-				sb.append("\\\\");
+			case 'b':
+				sb.append('\b');
 				break;
-			case '\b':
-				sb.append("\\b");
+			case 'f':
+				sb.append('\f');
 				break;
-			case '\f':
-				sb.append("\\f");
+			case 'n':
+				sb.append('\n');
 				break;
-			case '\n':
-				sb.append("\\n");
+			case 'r':
+				sb.append('\r');
 				break;
-			case '\r':
-				sb.append("\\r");
+			case 't':
+				sb.append('\t');
 				break;
-			case '\t':
-				sb.append("\\t");
-				break;
-			case '/':
-				sb.append("\\/");
-				break;
-			default:
-				// Reference: http://www.unicode.org/versions/Unicode5.1.0/
-				if ((ch >= '\u0000' && ch <= '\u001F') || (ch >= '\u007F' && ch <= '\u009F')
-						|| (ch >= '\u2000' && ch <= '\u20FF')) {
-					String ss = Integer.toHexString(ch);
-					sb.append("\\u");
-					for (int k = 0; k < 4 - ss.length(); k++) {
-						sb.append('0');
+			case 'u':
+				if (i + 4 >= len) {
+					throw new IllegalArgumentException("bad unicode escape at " + (i - 1));
+				}
+				int code = 0;
+				for (int k = i + 1; k <= i + 4; k++) {
+					int digit = Character.digit(text.charAt(k), 16);
+					if (digit < 0) {
+						throw new IllegalArgumentException("bad unicode escape at " + (i - 1));
 					}
-					sb.append(ss.toUpperCase());
-				} else {
-					sb.append(ch);
+					code = (code << 4) | digit;
 				}
+				sb.append((char) code);
+				i += 4;
+				break;
+			default:// \" \\ \/ and non strict ones
+				sb.append(ch);
 			}
-		} // for
+		}
 		return sb.toString();
 	}
 
-	/**
-	 * unescape:TODO describe the approach and target of this method.
-	 * 
-	 * @param string
-	 * @return
-	 */
-	final static String unescape(String string) {
-		return string;
-	}
-
-	public final void setJsonDateFormatter(JsonDateFormatter dateFormatter) {
-		this.dateFormatter = dateFormatter;
+	public final synchronized void setJsonDateFormatter(JsonDateFormatter dateFormatter) {
+		config = config.toBuilder().jsonDateFormatter(dateFormatter).build();
 	}
 
 	protected final JsonSerializer queryJsonSerializer(Class cls) {
-		JsonSerializer swapper = userJsonSerializers.get(cls);
+		JsonSerializer swapper = config.serializers.get(cls);
 		if (swapper != null)
 			return swapper;
 
@@ -430,8 +681,198 @@ public class JsonSystem {
 		return jdkReflectJsonWorker;
 	}
 
+	/**
+	 * write: write json text of any value to the sink, by the serializer
+	 * registered for its class. Null is written as null literal. Stream
+	 * serializers should write their nested values by this method.
+	 */
+	public final void write(Object value, CharSequenceOutputSink out) throws IOException {
+		if (value == null) {
+			out.write("null");
+			return;
+		}
+		if (value instanceof JsonElement) {
+			writeElement((JsonElement) value, out);
+			return;
+		}
+		write(queryJsonSerializer(value.getClass()), value, out);
+	}
+
+	/**
+	 * write: write value by given serializer, a serializer which is not a
+	 * {@link JsonStreamSerializer} is asked for its string, a null string is
+	 * written as null
+	 */
+	@SuppressWarnings("unchecked")
+	protected final void write(JsonSerializer serializer, Object value, CharSequenceOutputSink out)
+			throws IOException {
+		if (serializer instanceof JsonStreamSerializer) {
+			((JsonStreamSerializer) serializer).serialize(value, this, out);
+			return;
+		}
+		String json = serializer.serialize(value, this);
+		out.write(json == null ? "null" : json);
+	}
+
+	/**
+	 * writeElement: write a json tree node, null members of objects are left out
+	 */
+	protected final void writeElement(JsonElement element, CharSequenceOutputSink out) throws IOException {
+		if (element instanceof JsonObject) {
+			out.write('{');
+			boolean first = true;
+			for (Entry<String, JsonElement> entry : ((JsonObject) element).entrySet()) {
+				JsonElement value = entry.getValue();
+				if (value instanceof JsonNull)
+					continue;
+				if (!first)
+					out.write(',');
+				first = false;
+				writeString(entry.getKey(), out);
+				out.write(':');
+				writeElement(value, out);
+			}
+			out.write('}');
+		} else if (element instanceof JsonArray) {
+			JsonArray array = (JsonArray) element;
+			out.write('[');
+			for (int i = 0, size = array.getSize(); i < size; i++) {
+				if (i > 0)
+					out.write(',');
+				writeElement(array.getAsJSONElementAt(i), out);
+			}
+			out.write(']');
+		} else if (element instanceof JsonLong) {
+			out.writeLong(element.getAsLong());
+		} else if (element instanceof JsonDouble) {
+			out.write(element.toString());
+		} else if (element instanceof JsonUncertain) {
+			JsonUncertain uncertain = (JsonUncertain) element;
+			Object value = uncertain.getValue();
+			switch (uncertain.getType()) {
+			case JsonElement.BOOLEAN:
+				if (value instanceof Boolean)
+					out.write(value.toString());
+				else
+					out.write(Boolean.toString(Boolean.parseBoolean(value.toString())));
+				break;
+			case JsonElement.CHAR:
+			case JsonElement.STRING:
+				writeString(value.toString(), out);
+				break;
+			case JsonElement.DATE:
+				if (value instanceof Date)
+					write(value, out);
+				else
+					writeString(value.toString(), out);
+				break;
+			case JsonElement.UNCERTAIN:
+			case JsonElement.JSON_ELEMENT:
+				write(value, out);
+				break;
+			default:
+				out.write(String.valueOf(value));
+			}
+		} else {// JsonNull
+			out.write("null");
+		}
+	}
+
+	/**
+	 * read: bind the value at current position of the token reader to given
+	 * type, by the deserializer registered for it. Stream deserializers should
+	 * read their nested values by this method.
+	 */
+	public final Object read(JsonTokenReader reader, Class type, Class... actualTypes)
+			throws IOException, JsonParseException {
+		return read(queryJsonDeserializer(type), reader, type, actualTypes);
+	}
+
+	/**
+	 * read: bind the value by given deserializer, a
+	 * {@link JsonStreamDeserializer} reads the tokens, others get the tree of the
+	 * value
+	 */
+	@SuppressWarnings("unchecked")
+	protected final Object read(JsonDeserializer deserializer, JsonTokenReader reader, Class type,
+			Class... actualTypes) throws IOException, JsonParseException {
+		if (deserializer instanceof JsonStreamDeserializer)
+			return ((JsonStreamDeserializer) deserializer).deserialize(reader, type, this, actualTypes);
+		return deserializer.deserialize(readElement(reader), type, this, actualTypes);
+	}
+
+	/**
+	 * readElement: build the tree of the value at current position of token
+	 * reader
+	 * 
+	 * @param reader
+	 * @return
+	 * @throws IOException
+	 * @throws JsonParseException
+	 */
+	protected final JsonElement readElement(final JsonTokenReader reader) throws IOException, JsonParseException {
+		switch (reader.nextToken()) {
+		case BEGIN_OBJECT:
+			return nextJSONObject(reader);
+		case BEGIN_ARRAY:
+			return nextJSONArray(reader);
+		case STRING:
+			return new JsonUncertain(reader.nextStringValue(), JsonElement.STRING);
+		case NUMBER:
+			return reader.nextNumberLiteral().toElement();
+		case BOOLEAN:
+			return reader.nextBoolean() ? JsonUncertain.TRUE : JsonUncertain.FALSE;
+		case NULL:
+			reader.nextNull();
+			return JsonNull.INSTANCE;
+		case END_DOCUMENT:
+			return JsonNull.INSTANCE;// null
+		default:// non strict literals are kept as they are written
+			return new JsonUncertain(reader.nextString());
+		}
+	}
+
+	private final JsonArray nextJSONArray(final JsonTokenReader reader) throws IOException, JsonParseException {
+		JsonArray array = new JsonArray();
+		reader.beginArray();
+		while (reader.hasNext()) {
+			array.add(readElement(reader));
+		}
+		reader.endArray();
+		return array;
+	}
+
+	private final JsonObject nextJSONObject(final JsonTokenReader reader) throws IOException, JsonParseException {
+		JsonObject ret = new JsonObject();
+		reader.beginObject();
+		while (reader.hasNext()) {
+			String key = reader.nextName();
+			ret.add(key, readElement(reader));
+		}
+		reader.endObject();
+		return ret;
+	}
+
+	/**
+	 * primitiveByDefault: true if values of given primitive type are written by
+	 * the built-in serializer of their box, so they may be written without boxing
+	 */
+	final boolean primitiveByDefault(Class primitiveType) {
+		JsonSerializer builtIn = primitiveJsonSerializers.get(primitiveType);
+		return builtIn != null && queryJsonSerializer(primitiveType) == jdkReflectJsonWorker
+				&& queryJsonSerializer(builtIn.supportedType()) == builtIn;
+	}
+
+	/**
+	 * builtInDeserializer: true if values of given type are read by the built-in
+	 * deserializer
+	 */
+	final boolean builtInDeserializer(Class type) {
+		return !config.deserializers.containsKey(type) && builtInJsonDeserializers.containsKey(type);
+	}
+
 	protected final JsonDeserializer queryJsonDeserializer(Class cls) {
-		JsonDeserializer swapper = userJsonDeserializers.get(cls);
+		JsonDeserializer swapper = config.deserializers.get(cls);
 		if (swapper != null)
 			return swapper;
 
@@ -450,6 +891,6 @@ public class JsonSystem {
 	 * @return
 	 */
 	public boolean supportedSerializerForClass(Class<?> clazz) {
-		return builtInJSONSerializers.containsKey(clazz) || userJsonDeserializers.containsKey(clazz);
+		return builtInJSONSerializers.containsKey(clazz) || config.serializers.containsKey(clazz);
 	}
 }
@@ -0,0 +1,50 @@
+package com.github.alexmao86.json;
+
+/**
+ * ClassName: JsonToken is the kind of token reported by
+ * {@link JsonTokenReader#nextToken()}<br/>
+ *
+ * @author
+ */
+public enum JsonToken {
+	/**
+	 * opening '[' of an array
+	 */
+	BEGIN_ARRAY,
+	/**
+	 * closing ']' of an array
+	 */
+	END_ARRAY,
+	/**
+	 * opening '{' of an object
+	 */
+	BEGIN_OBJECT,
+	/**
+	 * closing '}' of an object
+	 */
+	END_OBJECT,
+	/**
+	 * member name of an object, quoted or not
+	 */
+	NAME,
+	/**
+	 * string value, quoted or non strict literal
+	 */
+	STRING,
+	/**
+	 * number literal
+	 */
+	NUMBER,
+	/**
+	 * true or false literal
+	 */
+	BOOLEAN,
+	/**
+	 * null literal
+	 */
+	NULL,
+	/**
+	 * end of the input source
+	 */
+	END_DOCUMENT
+}
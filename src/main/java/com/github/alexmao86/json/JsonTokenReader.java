@@ -0,0 +1,582 @@
+package com.github.alexmao86.json;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import com.github.alexmao86.json.io.CharSequenceInputSource;
+import com.github.alexmao86.json.io.StringInputSource;
+
+/**
+ * ClassName: JsonTokenReader is the pull tokenizer of json. It reads one token
+ * at a time from a {@link CharSequenceInputSource} and never builds a tree, so
+ * memory stays constant whatever the document size. {@link JsonReader} builds
+ * its {@link JsonElement} tree on top of it.<br/>
+ *
+ * <pre>
+ * reader.beginObject();
+ * while (reader.hasNext()) {
+ * 	String name = reader.nextName();
+ * 	if ("age".equals(name))
+ * 		age = reader.nextLong();
+ * 	else
+ * 		reader.skipValue();
+ * }
+ * reader.endObject();
+ * </pre>
+ *
+ * Same as {@link JsonReader}, non strict names and values (unquoted or single
+ * quoted) are accepted.
+ *
+ * @author
+ */
+public final class JsonTokenReader {
+	/*
+	 * scope states of one opened bracket
+	 */
+	private static final int EMPTY_ARRAY = 1;
+	private static final int NONEMPTY_ARRAY = 2;
+	private static final int EMPTY_OBJECT = 3;
+	private static final int DANGLING_NAME = 4;
+	private static final int NONEMPTY_OBJECT = 5;
+
+	/**
+	 * default of max nesting depth of arrays and objects
+	 */
+	public static final int DEFAULT_MAX_DEPTH = 1000;
+
+	private final CharSequenceInputSource source;
+	/*
+	 * scope state and location of opened brackets, grown on demand and reused
+	 */
+	private int[] scopes = new int[32];
+	private long[] locations = new long[32];
+	private int stackSize = 0;
+	private int maxDepth = DEFAULT_MAX_DEPTH;
+	private int deepest = 0;
+	private long values = 0;
+	private final NumberLiteral numberLiteral = new NumberLiteral();
+	/**
+	 * if top level value has been peeked
+	 */
+	private boolean documentStarted = false;
+	/**
+	 * token at current position, null if not peeked yet
+	 */
+	private JsonToken peeked;
+	/**
+	 * if an unquoted literal has been scanned while peeking to classify it, its
+	 * text is the slice of source
+	 */
+	private boolean peekedLiteral;
+
+	public JsonTokenReader(final String src) {
+		this(new StringInputSource(src));
+	}
+
+	public JsonTokenReader(final CharSequenceInputSource source) {
+		super();
+		this.source = source;
+	}
+
+	/**
+	 * nextToken: get the kind of next token without consuming it
+	 *
+	 * @return token kind, {@link JsonToken#END_DOCUMENT} if source is exhausted
+	 * @throws JsonParseException
+	 *             if next token is not valid at current position
+	 */
+	public final JsonToken nextToken() throws IOException, JsonParseException {
+		if (peeked == null) {
+			peeked = doPeek();
+		}
+		return peeked;
+	}
+
+	/**
+	 * hasNext: check if current array or object has another element
+	 */
+	public final boolean hasNext() throws IOException, JsonParseException {
+		JsonToken token = nextToken();
+		return token != JsonToken.END_OBJECT && token != JsonToken.END_ARRAY && token != JsonToken.END_DOCUMENT;
+	}
+
+	public final void beginObject() throws IOException, JsonParseException {
+		expect(JsonToken.BEGIN_OBJECT);
+		push(EMPTY_OBJECT);
+		source.move();
+		peeked = null;
+	}
+
+	public final void endObject() throws IOException, JsonParseException {
+		expect(JsonToken.END_OBJECT);
+		stackSize--;
+		source.move();
+		peeked = null;
+	}
+
+	public final void beginArray() throws IOException, JsonParseException {
+		expect(JsonToken.BEGIN_ARRAY);
+		push(EMPTY_ARRAY);
+		source.move();
+		peeked = null;
+	}
+
+	public final void endArray() throws IOException, JsonParseException {
+		expect(JsonToken.END_ARRAY);
+		stackSize--;
+		source.move();
+		peeked = null;
+	}
+
+	/**
+	 * nextName: consume one member name of current object
+	 */
+	public final String nextName() throws IOException, JsonParseException {
+		expect(JsonToken.NAME);
+		String name = nextText();
+		peeked = null;
+		return name;
+	}
+
+	/**
+	 * nextName: consume one member name of current object and find it in given
+	 * index. Quoted names without escapes are matched where they are in the
+	 * source, no string is made of them.
+	 * 
+	 * @return position of the name in the index, -1 if it is not there
+	 */
+	final int nextName(MemberIndex index) throws IOException, JsonParseException {
+		expect(JsonToken.NAME);
+		int found;
+		char chr = source.getChar();
+		if (chr == '\"' || chr == '\'') {
+			if (scanQuotedBody() == CharSequenceInputSource.QUOTE_PLAIN) {
+				found = index.indexOf(source.slice());
+			} else {
+				found = index.indexOf(unescapeSlice());
+			}
+			source.move();
+		} else {
+			found = index.indexOf(nextText());
+		}
+		peeked = null;
+		return found;
+	}
+
+	/**
+	 * nextString: consume one scalar value as text, numbers, booleans and null are
+	 * returned as they are written
+	 */
+	public final String nextString() throws IOException, JsonParseException {
+		JsonToken token = nextToken();
+		String ret;
+		if (token == JsonToken.STRING && !peekedLiteral) {
+			ret = nextText();
+		} else if (token == JsonToken.STRING || token == JsonToken.NUMBER || token == JsonToken.BOOLEAN
+				|| token == JsonToken.NULL) {
+			ret = source.sliceText().toString();
+		} else {
+			throw new IllegalStateException("Expected a value but was " + token + " at " + source.getCursor());
+		}
+		consumed();
+		return ret;
+	}
+
+	/**
+	 * nextStringValue: same as {@link #nextString()}, but quoted text is returned
+	 * as the source slices it, text read from UTF-8 bytes is decoded once it is
+	 * materialized
+	 */
+	final CharSequence nextStringValue() throws IOException, JsonParseException {
+		JsonToken token = nextToken();
+		if (token == JsonToken.STRING && !peekedLiteral) {
+			CharSequence text = nextQuoted();
+			consumed();
+			return text;
+		}
+		return nextString();
+	}
+
+	/**
+	 * nextNumberLiteral: consume a number literal and scan its shape, the literal
+	 * is reused by next call
+	 */
+	final NumberLiteral nextNumberLiteral() throws IOException, JsonParseException {
+		expect(JsonToken.NUMBER);
+		numberLiteral.scan(source.slice());
+		consumed();
+		return numberLiteral;
+	}
+
+	public final long nextLong() throws IOException, JsonParseException {
+		return parseLong(nextNumberText());
+	}
+
+	public final int nextInt() throws IOException, JsonParseException {
+		CharSequence text = nextNumberText();
+		long value = parseLong(text);
+		if ((int) value != value) {
+			throw new NumberFormatException("For input string: \"" + text + "\"");
+		}
+		return (int) value;
+	}
+
+	public final double nextDouble() throws IOException, JsonParseException {
+		return NumberLiteral.parseDouble(nextNumberText());
+	}
+
+	public final boolean nextBoolean() throws IOException, JsonParseException {
+		JsonToken token = nextToken();
+		if (token == JsonToken.BOOLEAN) {
+			boolean ret = matches(source.slice(), "true");
+			consumed();
+			return ret;
+		}
+		if (token != JsonToken.STRING) {
+			throw new IllegalStateException("Expected a boolean but was " + token + " at " + source.getCursor());
+		}
+		return Boolean.parseBoolean(nextString());
+	}
+
+	public final void nextNull() throws IOException, JsonParseException {
+		expect(JsonToken.NULL);
+		consumed();
+	}
+
+	/**
+	 * skipValue: skip next value, nested arrays and objects included. if reader
+	 * is positioned at a member name, both name and its value are skipped.
+	 * Skipped strings are never materialized.
+	 */
+	public final void skipValue() throws IOException, JsonParseException {
+		int depth = 0;
+		while (true) {
+			switch (nextToken()) {
+			case BEGIN_ARRAY:
+				beginArray();
+				depth++;
+				break;
+			case BEGIN_OBJECT:
+				beginObject();
+				depth++;
+				break;
+			case END_ARRAY:
+				if (depth == 0)
+					throw new IllegalStateException("No value to skip at " + source.getCursor());
+				endArray();
+				depth--;
+				break;
+			case END_OBJECT:
+				if (depth == 0)
+					throw new IllegalStateException("No value to skip at " + source.getCursor());
+				endObject();
+				depth--;
+				break;
+			case END_DOCUMENT:
+				throw new IllegalStateException("No value to skip at " + source.getCursor());
+			case NAME:
+				skipText();
+				peeked = null;
+				continue;// the value of this name is skipped by next round
+			default:
+				if (!peekedLiteral)
+					skipText();
+				consumed();
+			}
+			if (depth == 0)
+				return;
+		}
+	}
+
+	/**
+	 * getDepth: count of arrays and objects currently opened
+	 */
+	public final int getDepth() {
+		return stackSize;
+	}
+
+	public final int getMaxDepth() {
+		return maxDepth;
+	}
+
+	/**
+	 * setMaxDepth: limit nesting of arrays and objects, deeper input fails with
+	 * {@link JsonParseException} as soon as the limit is passed
+	 */
+	public final void setMaxDepth(int maxDepth) {
+		if (maxDepth < 1) {
+			throw new IllegalArgumentException("max depth must be positive: " + maxDepth);
+		}
+		this.maxDepth = maxDepth;
+	}
+
+	/**
+	 * getDeepest: deepest nesting of arrays and objects read so far
+	 */
+	public final int getDeepest() {
+		return deepest;
+	}
+
+	/**
+	 * getValueCount: count of values read so far, arrays and objects included,
+	 * skipped ones too
+	 */
+	public final long getValueCount() {
+		return values;
+	}
+
+	/**
+	 * getCursor: current position in input source
+	 */
+	public final long getCursor() {
+		return source.getCursor();
+	}
+
+	/**
+	 * getConsumed: input consumed, see {@link CharSequenceInputSource#consumed()}
+	 */
+	public final long getConsumed() {
+		return source.consumed();
+	}
+
+	/**
+	 * nextNumberText: consume number text, unquoted literal is viewed in place
+	 */
+	private final CharSequence nextNumberText() throws IOException, JsonParseException {
+		JsonToken token = nextToken();
+		if (token != JsonToken.NUMBER && token != JsonToken.STRING) {
+			throw new IllegalStateException("Expected a number but was " + token + " at " + source.getCursor());
+		}
+		if (!peekedLiteral) {
+			return nextString();
+		}
+		CharSequence text = source.slice();
+		consumed();
+		return text;
+	}
+
+	/**
+	 * parseLong: same as {@link Long#parseLong(String)} on a char sequence, the
+	 * text is scanned once and accumulated without overflow checks per digit
+	 */
+	private final long parseLong(CharSequence text) {
+		int kind = numberLiteral.scan(text);
+		if (kind != NumberLiteral.INTEGER && !(kind == NumberLiteral.DECIMAL && numberLiteral.integral())) {
+			throw new NumberFormatException("For input string: \"" + text + "\"");
+		}
+		return numberLiteral.longValue();
+	}
+
+	private static final boolean matches(CharSequence text, String keyword) {
+		if (text.length() != keyword.length())
+			return false;
+		for (int i = 0; i < keyword.length(); i++) {
+			if (text.charAt(i) != keyword.charAt(i))
+				return false;
+		}
+		return true;
+	}
+
+	private final void expect(JsonToken expected) throws IOException, JsonParseException {
+		JsonToken token = nextToken();
+		if (token != expected) {
+			throw new IllegalStateException(
+					"Expected " + expected + " but was " + token + " at " + source.getCursor());
+		}
+	}
+
+	private final void push(int scope) throws JsonParseException {
+		if (stackSize == maxDepth) {
+			throw new JsonParseException("nesting deeper than " + maxDepth, source.getCursor());
+		}
+		if (stackSize == scopes.length) {
+			int length = Math.min(scopes.length * 2, maxDepth);
+			scopes = Arrays.copyOf(scopes, length);
+			locations = Arrays.copyOf(locations, length);
+		}
+		scopes[stackSize] = scope;
+		locations[stackSize] = source.getCursor();
+		stackSize++;
+		values++;
+		if (stackSize > deepest)
+			deepest = stackSize;
+	}
+
+	private final void consumed() {
+		values++;
+		peeked = null;
+		peekedLiteral = false;
+	}
+
+	private final JsonToken doPeek() throws IOException, JsonParseException {
+		source.skipWhitespace();
+		if (stackSize == 0) {
+			if (documentStarted) {
+				if (source.available()) {
+					throw new JsonParseException(source.remaining());
+				}
+				return JsonToken.END_DOCUMENT;
+			}
+			documentStarted = true;
+			if (!source.available()) {
+				return JsonToken.END_DOCUMENT;
+			}
+			return peekValue();
+		}
+
+		int top = stackSize - 1;
+		char chr = currentChar();
+		switch (scopes[top]) {
+		case EMPTY_ARRAY:
+			if (chr == ']')
+				return JsonToken.END_ARRAY;
+			scopes[top] = NONEMPTY_ARRAY;
+			return peekValue();
+		case NONEMPTY_ARRAY:
+			if (chr == ']')
+				return JsonToken.END_ARRAY;
+			skipSyntaxChar(',');
+			return peekValue();
+		case EMPTY_OBJECT:
+		case NONEMPTY_OBJECT:
+			if (chr == '}')
+				return JsonToken.END_OBJECT;
+			if (scopes[top] == NONEMPTY_OBJECT) {
+				skipSyntaxChar(',');
+				chr = currentChar();
+			}
+			if (chr == '}' || chr == ']' || chr == ',' || chr == ':') {
+				throw new JsonParseException("unexpected '" + chr + "'", source.getCursor());
+			}
+			scopes[top] = DANGLING_NAME;
+			return JsonToken.NAME;
+		case DANGLING_NAME:
+			skipSyntaxChar(':');
+			scopes[top] = NONEMPTY_OBJECT;
+			return peekValue();
+		default:
+			throw new IllegalStateException("unknown scope " + scopes[top]);
+		}
+	}
+
+	/**
+	 * currentChar: char at current position inside an opened bracket, source must
+	 * not end before the bracket is closed
+	 */
+	private final char currentChar() throws IOException, JsonParseException {
+		source.skipWhitespace();
+		if (!source.available()) {
+			if (stackSize == 0)
+				throw new JsonParseException("unexpected end of source", source.getCursor());
+			int scope = scopes[stackSize - 1];
+			char bracket = scope == EMPTY_ARRAY || scope == NONEMPTY_ARRAY ? '[' : '{';
+			throw new JsonParseException("unclosed '" + bracket + "'", locations[stackSize - 1]);
+		}
+		return source.getChar();
+	}
+
+	private final void skipSyntaxChar(char syntaxChar) throws IOException, JsonParseException {
+		char chr = source.getChar();
+		if (chr != syntaxChar) {
+			throw new JsonParseException("expect '" + syntaxChar + "' but found '" + chr + "'", source.getCursor());
+		}
+		source.move();
+	}
+
+	private final JsonToken peekValue() throws IOException, JsonParseException {
+		char chr = currentChar();// top level is checked by caller
+		switch (chr) {
+		case '{':
+			return JsonToken.BEGIN_OBJECT;
+		case '[':
+			return JsonToken.BEGIN_ARRAY;
+		case '\"':
+		case '\'':
+			return JsonToken.STRING;
+		case '}':
+		case ']':
+		case ',':
+		case ':':
+			throw new JsonParseException("unexpected '" + chr + "'", source.getCursor());
+		default:
+			source.mark();
+			source.scanLiteral();
+			peekedLiteral = true;
+			CharSequence text = source.slice();
+			if (matches(text, "true") || matches(text, "false")) {
+				return JsonToken.BOOLEAN;
+			} else if (matches(text, "null")) {
+				return JsonToken.NULL;
+			} else if (chr == '-' || (chr >= '0' && chr <= '9')) {
+				return JsonToken.NUMBER;
+			}
+			return JsonToken.STRING;
+		}
+	}
+
+	/**
+	 * nextText: read a quoted or non strict text at current position
+	 */
+	private final String nextText() throws IOException, JsonParseException {
+		char chr = source.getChar();
+		if (chr == '\"' || chr == '\'') {
+			return nextQuoted().toString();
+		}
+		source.mark();
+		source.scanLiteral();
+		return source.sliceText().toString();
+	}
+
+	/**
+	 * nextQuoted: read body of quoted text at current position. The body is found
+	 * by one bulk scan of source, text without escapes is sliced out once and only
+	 * escaped text is decoded.
+	 */
+	private final CharSequence nextQuoted() throws IOException, JsonParseException {
+		CharSequence text;
+		if (scanQuotedBody() == CharSequenceInputSource.QUOTE_PLAIN) {
+			text = source.sliceText();
+		} else {
+			text = unescapeSlice();
+		}
+		source.move();
+		return text;
+	}
+
+	/**
+	 * scanQuotedBody: mark and scan body of quoted text at current position, the
+	 * body is left as the slice of source
+	 * 
+	 * @return kind of the quoted text
+	 */
+	private final int scanQuotedBody() throws IOException, JsonParseException {
+		char chr = source.getCharAndMove();
+		source.mark();
+		int kind = source.scanQuoted(chr);
+		if (kind == CharSequenceInputSource.QUOTE_UNCLOSED) {
+			throw new JsonParseException("unclosed string", source.getCursor());
+		}
+		return kind;
+	}
+
+	private final CharSequence unescapeSlice() throws JsonParseException {
+		try {
+			return JsonSystem.unescape(source.slice());
+		} catch (IllegalArgumentException e) {
+			throw new JsonParseException(e.getMessage() + " of string", source.getCursor());
+		}
+	}
+
+	private final void skipText() throws IOException, JsonParseException {
+		char chr = source.getChar();
+		if (chr == '\"' || chr == '\'') {
+			source.move();
+			if (source.scanQuoted(chr) == CharSequenceInputSource.QUOTE_UNCLOSED) {
+				throw new JsonParseException("unclosed string", source.getCursor());
+			}
+			source.move();
+			return;
+		}
+		source.scanLiteral();
+	}
+}
@@ -4,12 +4,20 @@ import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.Date;
 
+import com.github.alexmao86.json.io.Utf8Text;
+
 /**
  * JSONUncertain: JSONUncertain is original string which can not be
  * determined<br/>
  * 
  */
-public class JsonUncertain extends JsonElement {
+public class JsonUncertain extends JsonLeaf {
+	/*
+	 * parsed true and false literals, leaves are never modified so they are shared
+	 */
+	static final JsonUncertain TRUE = new JsonUncertain(Boolean.TRUE, BOOLEAN);
+	static final JsonUncertain FALSE = new JsonUncertain(Boolean.FALSE, BOOLEAN);
+
 	private final Object value;
 	private final int type;
 
@@ -23,7 +31,13 @@ public class JsonUncertain extends JsonElement {
 		this.type = type;
 	}
 
-	public final Object getValue() {
+	/**
+	 * getValue: text read from UTF-8 bytes is decoded here, numbers held in
+	 * primitive fields are boxed here
+	 */
+	public Object getValue() {
+		if (value instanceof Utf8Text)
+			return value.toString();
 		return value;
 	}
 
@@ -31,28 +45,14 @@ public class JsonUncertain extends JsonElement {
 		return type;
 	}
 
+	@Override
+	final JsonUncertain toUncertain() {
+		return this;
+	}
+
 	@Override
 	public String toString() {
-		switch (type) {
-		case UNCERTAIN:
-		case JSON_ELEMENT:
-			return new JsonWriter().stringify(value);
-		case BOOLEAN:
-			if (value instanceof Boolean)
-				return value.toString();
-			else
-				return Boolean.parseBoolean(value.toString()) + "";
-		case CHAR:
-		case STRING:
-			return new JsonWriter().stringify(value.toString());
-		case DATE:
-			if (value instanceof Date)
-				new JsonWriter().stringify(value);
-			return new JsonWriter().stringify(value.toString());
-		case NUMBER:
-			return value.toString();
-		}
-		return value.toString();
+		return JsonWriter.DEFAULT.stringify(this);
 	}
 
 	@Override
@@ -95,7 +95,7 @@ public class JsonUncertain extends JsonElement {
 	public boolean getAsBoolean() {
 		if (value instanceof Boolean)
 			return (Boolean) value;
-		return Boolean.parseBoolean(value.toString());
+		return Boolean.parseBoolean(getValue().toString());
 	}
 
 	@Override
@@ -114,42 +114,42 @@ public class JsonUncertain extends JsonElement {
 	public double getAsDouble() {
 		if (value instanceof Double)
 			return (Double) value;
-		return Double.parseDouble((String) value);
+		return NumberLiteral.parseDouble(value.toString());
 	}
 
 	@Override
 	public float getAsFloat() {
 		if (value instanceof Float)
 			return (Float) value;
-		return Float.parseFloat((String) value);
+		return NumberLiteral.parseFloat(value.toString());
 	}
 
 	@Override
 	public long getAsLong() {
 		if (value instanceof Long)
 			return (Long) value;
-		return Long.parseLong((String) value);
+		return Long.parseLong(value.toString());
 	}
 
 	@Override
 	public int getAsInt() {
 		if (value instanceof Integer)
 			return (Integer) value;
-		return Integer.parseInt((String) value);
+		return Integer.parseInt(value.toString());
 	}
 
 	@Override
 	public byte getAsByte() {
 		if (value instanceof Byte)
 			return (Byte) value;
-		return Byte.parseByte((String) value);
+		return Byte.parseByte(value.toString());
 	}
 
 	@Override
 	public char getAsCharacter() {
 		if (value instanceof Character)
 			return (Character) value;
-		return value.toString().charAt(0);
+		return getValue().toString().charAt(0);
 	}
 
 	@Override
@@ -177,124 +177,7 @@ public class JsonUncertain extends JsonElement {
 	public Date getAsDate() {
 		if (value instanceof Date)
 			return (Date) value;
-		return dateFormatter.parse(value.toString());
-	}
-
-	@Override
-	public JsonElement getAsJSONElementAt(int index) {
-		if (index != 0)
-			return super.getAsJSONElementAt(index);
-		return this;
-	}
-
-	@Override
-	public JsonArray getAsJSONArrayAt(int index) {
-		if (index != 0)
-			return super.getAsJSONArrayAt(index);
-		return this.getAsJSONArray();
-	}
-
-	@Override
-	public JsonObject getAsJSONObjectAt(int index) {
-		if (index != 0)
-			return super.getAsJSONObjectAt(index);
-		return this.getAsJsonObject();
-	}
-
-	@Override
-	public boolean getAsBooleanAt(int index) {
-		if (index != 0)
-			return super.getAsBooleanAt(index);
-		return this.getAsBoolean();
-	}
-
-	@Override
-	public Number getAsNumberAt(int index) {
-		if (index != 0)
-			return super.getAsNumberAt(index);
-		return this.getAsNumber();
-	}
-
-	@Override
-	public String getAsStringAt(int index) {
-		if (index != 0)
-			return super.getAsStringAt(index);
-		return this.getAsString();
-	}
-
-	@Override
-	public double getAsDoubleAt(int index) {
-		if (index != 0)
-			return super.getAsDoubleAt(index);
-		return this.getAsDouble();
-	}
-
-	@Override
-	public float getAsFloatAt(int index) {
-		if (index != 0)
-			return super.getAsFloatAt(index);
-		return this.getAsFloat();
-	}
-
-	@Override
-	public long getAsLongAt(int index) {
-		if (index != 0)
-			return super.getAsLongAt(index);
-		return this.getAsLong();
-	}
-
-	@Override
-	public int getAsIntAt(int index) {
-		if (index != 0)
-			return super.getAsIntAt(index);
-		return this.getAsInt();
-	}
-
-	@Override
-	public byte getAsByteAt(int index) {
-		if (index != 0)
-			return super.getAsByteAt(index);
-		return this.getAsByte();
-	}
-
-	@Override
-	public char getAsCharacterAt(int index) {
-		if (index != 0)
-			return super.getAsCharacterAt(index);
-		return this.getAsCharacter();
-	}
-
-	@Override
-	public BigDecimal getAsBigDecimalAt(int index) {
-		if (index != 0)
-			return super.getAsBigDecimalAt(index);
-		return this.getAsBigDecimal();
-	}
-
-	@Override
-	public BigInteger getAsBigIntegerAt(int index) {
-		if (index != 0)
-			return super.getAsBigIntegerAt(index);
-		return this.getAsBigInteger();
-	}
-
-	@Override
-	public short getAsShortAt(int index) {
-		if (index != 0)
-			return super.getAsShortAt(index);
-		return this.getAsShort();
-	}
-
-	@Override
-	public Date getAsDateAt(int index) {
-		if (index != 0)
-			return super.getAsDateAt(index);
-		return this.getAsDate();
-	}
-
-	@Override
-	public int getSize() {
-		return 1;
+		return JsonSystem.DEFAULT_DATE_FORMATTER.parse(getValue().toString());
 	}
 
 }
@@ -1,40 +1,169 @@
 package com.github.alexmao86.json;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.util.Collection;
 import java.util.Map;
 
+import com.github.alexmao86.json.io.CharArrayOutputSink;
+import com.github.alexmao86.json.io.Utf8OutputSink;
+import com.github.alexmao86.json.io.WriterOutputSink;
+
 /**
  * 
  * ClassName: JSONStringify <br/>
  * date: 2017年9月26日 上午9:38:02 <br/>
+ * Every level of the document is written into one sink, strings are stringified
+ * in a char buffer reused by the thread, so only the result is copied. Bytes
+ * are encoded to UTF-8 while written, not from a string.
  * 
  * @author
  */
-@SuppressWarnings(value = { "rawtypes", "unchecked" })
+@SuppressWarnings(value = { "rawtypes" })
 public final class JsonWriter extends JsonSystem {
+	/**
+	 * writer of default rules, used by toString() of the tree nodes
+	 */
+	static final JsonWriter DEFAULT = new JsonWriter();
+
+	/**
+	 * larger buffers are not kept by the thread after use
+	 */
+	private static final int MAX_POOLED_CAPACITY = 1 << 16;
+	private static final ThreadLocal<CharArrayOutputSink> BUFFERS = new ThreadLocal<CharArrayOutputSink>();
+	private static final ThreadLocal<Utf8OutputSink> UTF8_BUFFERS = new ThreadLocal<Utf8OutputSink>();
+
+	public JsonWriter() {
+		super();
+	}
+
+	/**
+	 * JsonWriter: writer of given rules, cheap to make, see {@link JsonConfig}
+	 */
+	public JsonWriter(JsonConfig config) {
+		super(config);
+	}
 
 	public final String stringify(Object value) {
 		if (value == null)
 			return null;
-		if (value instanceof JsonElement) {
-			return value.toString();
-		}
-		if (value.getClass().isArray()) {
-			return jdkReflectJsonWorker.serialize(value, this);
-		}
-
-		return queryJsonSerializer(value.getClass()).serialize(value, this);
+		return stringify(null, value);
 	}
 
 	public final String stringify(Map value) {
 		if (value == null)
 			return null;
-		return queryJsonSerializer(Map.class).serialize(value, this);
+		return stringify(queryJsonSerializer(Map.class), value);
 	}
 
 	public final String stringify(Collection value) {
 		if (value == null)
 			return null;
-		return queryJsonSerializer(Collection.class).serialize(value, this);
+		return stringify(queryJsonSerializer(Collection.class), value);
+	}
+
+	/**
+	 * stringify: write value to given writer, writer is flushed but not closed
+	 */
+	public final void stringify(Object value, Writer writer) throws IOException {
+		JsonMetrics metrics = config.metrics;
+		long start = metrics == JsonMetrics.NONE ? 0 : System.nanoTime();
+		WriterOutputSink out = new WriterOutputSink(writer);
+		write(value, out);
+		out.flush();
+		serialized(metrics, value, start);
+	}
+
+	/**
+	 * stringify: write value to given stream in UTF-8, stream is flushed but not
+	 * closed
+	 */
+	public final void stringify(Object value, OutputStream stream) throws IOException {
+		JsonMetrics metrics = config.metrics;
+		long start = metrics == JsonMetrics.NONE ? 0 : System.nanoTime();
+		Utf8OutputSink out = borrowUtf8(stream);
+		try {
+			write(value, out);
+			out.flush();
+			serialized(metrics, value, start);
+		} finally {
+			release(out);
+		}
+	}
+
+	/**
+	 * stringifyUtf8: UTF-8 bytes of the json text, null for null value
+	 */
+	public final byte[] stringifyUtf8(Object value) {
+		if (value == null)
+			return null;
+		JsonMetrics metrics = config.metrics;
+		long start = metrics == JsonMetrics.NONE ? 0 : System.nanoTime();
+		Utf8OutputSink out = borrowUtf8(null);
+		try {
+			write(value, out);
+			byte[] bytes = out.toByteArray();
+			serialized(metrics, value, start);
+			return bytes;
+		} catch (IOException e) {// not thrown without stream
+			throw new UncheckedIOException(e);
+		} finally {
+			release(out);
+		}
+	}
+
+	/**
+	 * serialized: report writing of value started at given time, if metrics
+	 * were set when it started
+	 */
+	private static void serialized(JsonMetrics metrics, Object value, long start) {
+		if (metrics != JsonMetrics.NONE && value != null)
+			metrics.serialized(value.getClass(), System.nanoTime() - start);
+	}
+
+	private final Utf8OutputSink borrowUtf8(OutputStream stream) {
+		Utf8OutputSink out = UTF8_BUFFERS.get();
+		if (out == null)
+			return new Utf8OutputSink(stream);
+		UTF8_BUFFERS.set(null);
+		out.reset(stream);
+		return out;
+	}
+
+	private final void release(Utf8OutputSink out) {
+		out.reset(null);
+		if (out.capacity() <= MAX_POOLED_CAPACITY)
+			UTF8_BUFFERS.set(out);
+	}
+
+	/**
+	 * stringify: write into the thread's buffer, a nested call made by a
+	 * serializer while the buffer is in use gets its own
+	 */
+	private final String stringify(JsonSerializer serializer, Object value) {
+		JsonMetrics metrics = config.metrics;
+		long start = metrics == JsonMetrics.NONE ? 0 : System.nanoTime();
+		CharArrayOutputSink out = BUFFERS.get();
+		if (out == null)
+			out = new CharArrayOutputSink();
+		else
+			BUFFERS.set(null);
+		try {
+			if (serializer == null)
+				write(value, out);
+			else
+				write(serializer, value, out);
+			String json = out.toString();
+			serialized(metrics, value, start);
+			return json;
+		} catch (IOException e) {// not thrown by char array sink
+			throw new UncheckedIOException(e);
+		} finally {
+			out.reset();
+			if (out.capacity() <= MAX_POOLED_CAPACITY)
+				BUFFERS.set(out);
+		}
 	}
 }
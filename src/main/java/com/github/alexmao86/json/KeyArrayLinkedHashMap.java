@@ -15,7 +15,7 @@ import java.util.function.BiFunction;
  */
 public class KeyArrayLinkedHashMap extends LinkedHashMap<String, JsonElement> {
 	private static final long serialVersionUID = 1L;
-	private List<String> keyList = new ArrayList<String>();
+	private List<String> keyList;
 	private volatile boolean synch = false;
 
 	public JsonElement getAt(int index) {
@@ -28,6 +28,8 @@ public class KeyArrayLinkedHashMap extends LinkedHashMap<String, JsonElement> {
 	 * synch: synch to key list
 	 */
 	private void synch() {
+		if (keyList == null)
+			keyList = new ArrayList<String>(size());
 		keyList.clear();
 		for (String k : this.keySet()) {
 			keyList.add(k);
@@ -1,55 +1,111 @@
 package com.github.alexmao86.json;
 
-import java.math.BigInteger;
+import java.math.BigDecimal;
 
 /**
  * This class holds a number value that is lazily converted to a specific number
- * type
+ * type. The text is scanned once on first use, the scanned shape picks the
+ * conversion directly and converted values are cached, so repeated calls cost
+ * nothing.
  *
  * @author
  */
 @SuppressWarnings("serial")
 public final class LazilyParsedNumber extends Number {
 	private final String value;
+	/**
+	 * shape and values of the text, made whole on first use and published by
+	 * one volatile write, so threads sharing the number see all of it or none
+	 */
+	private transient volatile Parsed parsed;
+	private transient volatile BigDecimal bigValue;
+
+	/**
+	 * Parsed: immutable result of one scan
+	 */
+	private static final class Parsed {
+		private final int kind;
+		private final long longValue;
+		private final double doubleValue;
+		private final float floatValue;
+
+		private Parsed(String value) {
+			NumberLiteral literal = new NumberLiteral();
+			this.kind = literal.scan(value);
+			if (kind == NumberLiteral.INTEGER) {
+				this.longValue = literal.longValue();
+				this.doubleValue = longValue;
+				this.floatValue = longValue;
+			} else if (kind == NumberLiteral.INVALID) {
+				this.longValue = 0;
+				this.doubleValue = 0;
+				this.floatValue = 0;
+			} else {
+				this.longValue = 0;
+				this.doubleValue = literal.doubleValue();
+				this.floatValue = literal.floatValue();
+			}
+		}
+	}
 
 	public LazilyParsedNumber(String value) {
 		this.value = value;
 	}
 
+	/**
+	 * scan: find shape of the number on first use
+	 *
+	 * @throws NumberFormatException
+	 *             if value is not a number
+	 */
+	private final Parsed scan() {
+		Parsed result = parsed;
+		if (result == null) {
+			result = new Parsed(value);
+			parsed = result;// a race scans twice to the same result
+		}
+		if (result.kind == NumberLiteral.INVALID)
+			throw new NumberFormatException("For input string: \"" + value + "\"");
+		return result;
+	}
+
+	private final BigDecimal bigValue() {
+		BigDecimal big = bigValue;
+		if (big == null) {
+			big = new BigDecimal(value);
+			bigValue = big;
+		}
+		return big;
+	}
+
 	@Override
 	public int intValue() {
-		try {
-			return Integer.parseInt(value);
-		} catch (NumberFormatException e) {
-			try {
-				return (int) Long.parseLong(value);
-			} catch (NumberFormatException nfe) {
-				return new BigInteger(value).intValue();
-			}
-		}
+		Parsed result = scan();
+		if (result.kind == NumberLiteral.INTEGER)
+			return (int) result.longValue;
+		return bigValue().intValue();
 	}
 
 	@Override
 	public long longValue() {
-		try {
-			return Long.parseLong(value);
-		} catch (NumberFormatException e) {
-			return new BigInteger(value).longValue();
-		}
+		Parsed result = scan();
+		if (result.kind == NumberLiteral.INTEGER)
+			return result.longValue;
+		return bigValue().longValue();
 	}
 
 	@Override
 	public float floatValue() {
-		return Float.parseFloat(value);
+		return scan().floatValue;
 	}
 
 	@Override
 	public double doubleValue() {
-		return Double.parseDouble(value);
+		return scan().doubleValue;
 	}
 
 	@Override
 	public String toString() {
 		return value;
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,225 @@
+package com.github.alexmao86.json;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ClassName: MemberIndex finds member names of one bean by a perfect hash,
+ * built by hash and displace: a name falls in a bucket by its hash, and each
+ * bucket has a displacement searched once, so that no two names share a slot
+ * of a table about as long as the names. A lookup is one hash of the chars,
+ * one slot and one compare. If no displacement is found for a bucket, names
+ * are kept in an open addressed table probed linearly instead. Names are
+ * looked up as {@link CharSequence}, like the slices of
+ * {@link JsonTokenReader#nextName(MemberIndex)}, no string is made of
+ * them.<br/>
+ *
+ * @author
+ */
+final class MemberIndex {
+	/**
+	 * displacements tried for each bucket before falling back to probing
+	 */
+	private static final int MAX_DISPLACEMENT = 1 << 16;
+
+	private final int mask;
+	private final String[] names;
+	private final int[] indexes;
+	/**
+	 * displacement of each bucket, null if the table is probed
+	 */
+	private final int[] displacements;
+	private final int bucketMask;
+
+	private MemberIndex(String[] names, int[] indexes, int[] displacements) {
+		this.mask = names.length - 1;
+		this.names = names;
+		this.indexes = indexes;
+		this.displacements = displacements;
+		this.bucketMask = displacements == null ? 0 : displacements.length - 1;
+	}
+
+	/**
+	 * of: build the index of given names, a name is found at its position in
+	 * the list, first one wins if a name is repeated
+	 */
+	static MemberIndex of(List<String> memberNames) {
+		return of(memberNames, MAX_DISPLACEMENT);
+	}
+
+	/**
+	 * of: same as {@link #of(List)}, given count of displacements are tried for
+	 * each bucket
+	 */
+	static MemberIndex of(List<String> memberNames, int maxDisplacement) {
+		Map<String, Integer> positions = new HashMap<String, Integer>();
+		List<String> unique = new ArrayList<String>(memberNames.size());
+		for (int i = 0; i < memberNames.size(); i++) {
+			String name = memberNames.get(i);
+			if (!positions.containsKey(name)) {
+				positions.put(name, i);
+				unique.add(name);
+			}
+		}
+		// load of the table at most 0.8, four names per bucket on average
+		int size = powerOfTwo(unique.size() + unique.size() / 4 + 1);
+		MemberIndex index = displace(unique, positions, size, powerOfTwo((unique.size() + 3) / 4),
+				maxDisplacement);
+		if (index != null)
+			return index;
+		return probed(unique, positions, powerOfTwo(unique.size() * 2));
+	}
+
+	private static int powerOfTwo(int count) {
+		int size = 1;
+		while (size < count) {
+			size <<= 1;
+		}
+		return size;
+	}
+
+	/**
+	 * displace: place the buckets with most names first, while the table is
+	 * still empty
+	 *
+	 * @return null if a bucket can not be placed
+	 */
+	private static MemberIndex displace(List<String> unique, Map<String, Integer> positions, int size,
+			int bucketCount, int maxDisplacement) {
+		List<List<String>> buckets = new ArrayList<List<String>>(bucketCount);
+		for (int i = 0; i < bucketCount; i++) {
+			buckets.add(new ArrayList<String>(4));
+		}
+		for (String name : unique) {
+			buckets.get(hash(name) & (bucketCount - 1)).add(name);
+		}
+		List<Integer> order = new ArrayList<Integer>(bucketCount);
+		for (int i = 0; i < bucketCount; i++) {
+			order.add(i);
+		}
+		Collections.sort(order, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer a, Integer b) {
+				return buckets.get(b).size() - buckets.get(a).size();
+			}
+		});
+
+		String[] names = new String[size];
+		int[] indexes = new int[size];
+		Arrays.fill(indexes, -1);
+		int[] displacements = new int[bucketCount];
+		int[] slots = new int[unique.size()];
+		for (int bucket : order) {
+			List<String> members = buckets.get(bucket);
+			if (members.isEmpty())
+				break;
+			int displacement = 0;
+			while (!place(members, displacement, names, slots)) {
+				if (++displacement >= maxDisplacement)
+					return null;
+			}
+			displacements[bucket] = displacement;
+			for (int i = 0; i < members.size(); i++) {
+				names[slots[i]] = members.get(i);
+				indexes[slots[i]] = positions.get(members.get(i));
+			}
+		}
+		return new MemberIndex(names, indexes, displacements);
+	}
+
+	/**
+	 * place: true if names of a bucket fall in free and distinct slots by given
+	 * displacement, slots are left in given array
+	 */
+	private static boolean place(List<String> members, int displacement, String[] names, int[] slots) {
+		for (int i = 0; i < members.size(); i++) {
+			int slot = slot(hash(members.get(i)), displacement) & (names.length - 1);
+			if (names[slot] != null)
+				return false;
+			for (int j = 0; j < i; j++) {
+				if (slots[j] == slot)
+					return false;
+			}
+			slots[i] = slot;
+		}
+		return true;
+	}
+
+	private static MemberIndex probed(List<String> unique, Map<String, Integer> positions, int size) {
+		String[] names = new String[size];
+		int[] indexes = new int[size];
+		Arrays.fill(indexes, -1);
+		for (String name : unique) {
+			int slot = hash(name) & (size - 1);
+			while (names[slot] != null) {
+				slot = (slot + 1) & (size - 1);
+			}
+			names[slot] = name;
+			indexes[slot] = positions.get(name);
+		}
+		return new MemberIndex(names, indexes, null);
+	}
+
+	private static int hash(CharSequence name) {
+		int h = 0x811C9DC5;
+		for (int i = 0, length = name.length(); i < length; i++) {
+			h = (h ^ name.charAt(i)) * 0x01000193;
+		}
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * slot: mix of the hash and a displacement, the finalizer of murmur3
+	 */
+	private static int slot(int hash, int displacement) {
+		int h = hash ^ displacement * 0x9E3779B9;
+		h = (h ^ (h >>> 16)) * 0x85EBCA6B;
+		h = (h ^ (h >>> 13)) * 0xC2B2AE35;
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * tableSize: count of slots, to check the table grows with the names
+	 */
+	final int tableSize() {
+		return names.length;
+	}
+
+	/**
+	 * indexOf: position of given name in the list the index was built of
+	 *
+	 * @return -1 if it is not a member
+	 */
+	final int indexOf(CharSequence name) {
+		int hash = hash(name);
+		if (displacements != null) {
+			int slot = slot(hash, displacements[hash & bucketMask]) & mask;
+			return matches(name, names[slot]) ? indexes[slot] : -1;
+		}
+		for (int slot = hash & mask;; slot = (slot + 1) & mask) {
+			String candidate = names[slot];
+			if (candidate == null)
+				return -1;
+			if (matches(name, candidate))
+				return indexes[slot];
+		}
+	}
+
+	private static boolean matches(CharSequence name, String candidate) {
+		if (candidate == null)
+			return false;
+		int length = candidate.length();
+		if (name.length() != length)
+			return false;
+		for (int i = 0; i < length; i++) {
+			if (name.charAt(i) != candidate.charAt(i))
+				return false;
+		}
+		return true;
+	}
+}
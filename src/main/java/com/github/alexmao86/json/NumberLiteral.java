@@ -0,0 +1,270 @@
+package com.github.alexmao86.json;
+
+import java.math.BigDecimal;
+
+/**
+ * ClassName: NumberLiteral scans the shape of a number literal once: sign,
+ * significant digits, fraction and exponent. The scanned shape tells which
+ * conversion fits the literal, so no conversion is tried and failed. One
+ * instance is reused for every literal of a document.<br/>
+ *
+ * @author
+ */
+final class NumberLiteral {
+	/*
+	 * kinds of scanned literal
+	 */
+	static final int INVALID = 0;
+	/**
+	 * integer in range of long, see {@link #longValue()}
+	 */
+	static final int INTEGER = 1;
+	/**
+	 * integer out of range of long
+	 */
+	static final int BIG_INTEGER = 2;
+	/**
+	 * number with fraction or exponent
+	 */
+	static final int DECIMAL = 3;
+
+	/**
+	 * count of significant digits kept in {@link #significand}, 19 decimal digits
+	 * always fit in 64 bits as unsigned
+	 */
+	static final int MAX_SIGNIFICAND_DIGITS = 19;
+	/**
+	 * decimals up to this count of significant digits are held as double without
+	 * loss of their decimal value
+	 */
+	private static final int MAX_DOUBLE_DIGITS = 15;
+
+	private CharSequence text;
+	private int kind;
+	private boolean negative;
+	/**
+	 * leading significant digits as unsigned long, without decimal point
+	 */
+	private long significand;
+	/**
+	 * count of significant digits, leading zeros excluded
+	 */
+	private int digits;
+	/**
+	 * power of ten to apply to {@link #significand}
+	 */
+	private int exponent;
+	/**
+	 * true if last scanned literal has neither fraction nor exponent part
+	 */
+	private boolean integral;
+
+	/**
+	 * scan: scan shape of given number text, lenient about leading zeros and
+	 * empty fraction like java parsers are
+	 *
+	 * @return kind of literal, {@link #INVALID} if text is not a number
+	 */
+	final int scan(CharSequence text) {
+		this.text = text;
+		negative = false;
+		significand = 0;
+		digits = 0;
+		exponent = 0;
+		integral = false;
+		kind = INVALID;
+
+		final int length = text.length();
+		int i = 0;
+		if (i < length && text.charAt(i) == '-') {
+			negative = true;
+			i++;
+		}
+		int mantissaDigits = 0;
+		boolean fraction = false;
+		for (; i < length; i++) {
+			char chr = text.charAt(i);
+			if (chr == '.') {
+				if (fraction)
+					return INVALID;
+				fraction = true;
+				continue;
+			}
+			int digit = chr - '0';
+			if (digit < 0 || digit > 9)
+				break;
+			mantissaDigits++;
+			if (digits == 0 && digit == 0) {// leading zero
+				if (fraction)
+					exponent--;
+			} else if (digits < MAX_SIGNIFICAND_DIGITS) {
+				significand = significand * 10 + digit;
+				digits++;
+				if (fraction)
+					exponent--;
+			} else {// dropped digit
+				digits++;
+				if (!fraction)
+					exponent++;
+			}
+		}
+		if (mantissaDigits == 0)
+			return INVALID;
+		boolean exponentPart = false;
+		if (i < length && (text.charAt(i) == 'e' || text.charAt(i) == 'E')) {
+			exponentPart = true;
+			i++;
+			boolean negativeExponent = false;
+			if (i < length && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+				negativeExponent = text.charAt(i) == '-';
+				i++;
+			}
+			int from = i;
+			int value = 0;
+			for (; i < length; i++) {
+				int digit = text.charAt(i) - '0';
+				if (digit < 0 || digit > 9)
+					break;
+				if (value < 100000)// far beyond any double, keep it from overflow
+					value = value * 10 + digit;
+			}
+			if (i == from)
+				return INVALID;
+			exponent += negativeExponent ? -value : value;
+		}
+		if (i != length)
+			return INVALID;
+
+		integral = !fraction && !exponentPart;
+		if (!integral || (negative && significand == 0)) {// -0 is a decimal to keep its sign
+			kind = DECIMAL;
+		} else if (digits < MAX_SIGNIFICAND_DIGITS || (digits == MAX_SIGNIFICAND_DIGITS
+				&& Long.compareUnsigned(significand, negative ? Long.MIN_VALUE : Long.MAX_VALUE) <= 0)) {
+			kind = INTEGER;
+		} else {
+			kind = BIG_INTEGER;
+		}
+		return kind;
+	}
+
+	final int kind() {
+		return kind;
+	}
+
+	/**
+	 * integral: true if last scanned literal is written without fraction and
+	 * exponent, -0 is one though it is a {@link #DECIMAL}
+	 */
+	final boolean integral() {
+		return integral;
+	}
+
+	/**
+	 * text: last scanned literal as it is written
+	 */
+	final CharSequence text() {
+		return text;
+	}
+
+	/**
+	 * shortDecimal: true if last scanned literal is a decimal held as double
+	 * without losing digits, see {@link #toElement()}
+	 */
+	final boolean shortDecimal() {
+		return kind == DECIMAL && digits <= MAX_DOUBLE_DIGITS && exponent + digits > -300 && exponent + digits < 300;
+	}
+
+	/**
+	 * primitive: true if the node of last scanned literal holds it in a
+	 * primitive field
+	 */
+	final boolean primitive() {
+		return kind == INTEGER || shortDecimal();
+	}
+
+	/**
+	 * wholeValue: value of a {@link #primitive()} literal as long, decimals which
+	 * are not whole numbers in range fail like {@link JsonDouble#getAsLong()}
+	 */
+	final long wholeValue() {
+		if (kind == INTEGER)
+			return longValue();
+		return JsonDouble.toLong(doubleValue(), text);
+	}
+
+	/**
+	 * longValue: value of an {@link #INTEGER} literal
+	 */
+	final long longValue() {
+		return negative ? -significand : significand;
+	}
+
+	/**
+	 * doubleValue: correctly rounded double of last scanned literal, converted
+	 * from the scanned digits by {@link FastDoubleParser}
+	 */
+	final double doubleValue() {
+		if (kind == INTEGER)
+			return longValue();
+		double value = FastDoubleParser.toDouble(negative, significand, exponent);
+		if (digits > MAX_SIGNIFICAND_DIGITS && value != FastDoubleParser.toDouble(negative, significand + 1, exponent)) {
+			value = Double.NaN;// dropped digits decide rounding
+		}
+		if (Double.isNaN(value))
+			return Double.parseDouble(text.toString());
+		return value;
+	}
+
+	/**
+	 * floatValue: same as {@link #doubleValue()} for float, rounded once
+	 */
+	final float floatValue() {
+		if (kind == INTEGER)
+			return longValue();
+		float value = FastDoubleParser.toFloat(negative, significand, exponent);
+		if (digits > MAX_SIGNIFICAND_DIGITS && value != FastDoubleParser.toFloat(negative, significand + 1, exponent)) {
+			value = Float.NaN;
+		}
+		if (Float.isNaN(value))
+			return Float.parseFloat(text.toString());
+		return value;
+	}
+
+	/**
+	 * parseDouble: same as {@link Double#parseDouble(String)} on a char
+	 * sequence, text which is not a json number is left to the JDK parser
+	 */
+	static double parseDouble(CharSequence text) {
+		NumberLiteral literal = new NumberLiteral();
+		if (literal.scan(text) == INVALID)
+			return Double.parseDouble(text.toString());
+		return literal.doubleValue();
+	}
+
+	static float parseFloat(CharSequence text) {
+		NumberLiteral literal = new NumberLiteral();
+		if (literal.scan(text) == INVALID)
+			return Float.parseFloat(text.toString());
+		return literal.floatValue();
+	}
+
+	/**
+	 * toElement: build the node of last scanned literal, integers in range of
+	 * long and short decimals are held in primitive fields, others as
+	 * {@link BigDecimal}. Invalid ones are kept as they are written.
+	 */
+	final JsonLeaf toElement() {
+		switch (kind) {
+		case INTEGER:
+			return new JsonLong(longValue());
+		case DECIMAL:
+			if (shortDecimal())
+				return JsonDouble.of(doubleValue(), text);
+			// fall through, keep every digit
+		case BIG_INTEGER:
+			return new JsonUncertain(new BigDecimal(text.toString()), JsonElement.NUMBER);
+		default:
+			return new JsonUncertain(text.toString());
+		}
+	}
+}
@@ -6,10 +6,11 @@ package com.github.alexmao86.json.io;
  * @author
  */
 public abstract class AbstractCharSequenceInputSource implements CharSequenceInputSource {
-	protected int address = 0;
 
-	@Override
-	public int getCursor() {
-		return address;
+	/**
+	 * isLiteralEnd: check if char ends a non strict text
+	 */
+	protected static final boolean isLiteralEnd(int chr) {
+		return chr <= ' ' || chr == ',' || chr == ':' || chr == ']' || chr == '}' || chr == '[' || chr == '{';
 	}
 }
@@ -0,0 +1,138 @@
+package com.github.alexmao86.json.io;
+
+import java.io.IOException;
+
+/**
+ * ClassName: AbstractUtf8InputSource decodes UTF-8 bytes into the char window
+ * of {@link BufferedCharSequenceInputSource}. ASCII runs are copied without
+ * decoding, malformed bytes are replaced by U+FFFD and a leading byte order
+ * mark is skipped.<br/>
+ * 
+ * @author
+ */
+public abstract class AbstractUtf8InputSource extends BufferedCharSequenceInputSource {
+	private final byte[] bytes;
+	private int bytePos = 0;
+	private int byteLimit = 0;
+	/**
+	 * count of bytes read from underlying input
+	 */
+	private long bytesRead = 0;
+	private boolean started = false;
+	/**
+	 * low half of a surrogate pair which did not fit in last fill
+	 */
+	private char pendingLowSurrogate = 0;
+
+	protected AbstractUtf8InputSource(int window) {
+		super(window);
+		this.bytes = new byte[window];
+	}
+
+	/**
+	 * readBytes: read more bytes of underlying input
+	 * 
+	 * @return count of bytes read, -1 if end of input
+	 */
+	protected abstract int readBytes(byte[] buf, int off, int len) throws IOException;
+
+	/**
+	 * consumed: bytes decoded into the window
+	 */
+	@Override
+	public final long consumed() {
+		return bytesRead - (byteLimit - bytePos);
+	}
+
+	@Override
+	protected final int fill(char[] buf, int off, int len) throws IOException {
+		final int start = off;
+		final int end = off + len;
+		if (pendingLowSurrogate != 0) {
+			buf[off++] = pendingLowSurrogate;
+			pendingLowSurrogate = 0;
+		}
+		while (off < end) {
+			if (bytePos == byteLimit && (off > start || !readMoreBytes())) {
+				break;
+			}
+			int b = bytes[bytePos];
+			if (b >= 0) {// ASCII run
+				int max = Math.min(end - off, byteLimit - bytePos);
+				int i = 0;
+				while (i < max && (b = bytes[bytePos + i]) >= 0) {
+					buf[off + i] = (char) b;
+					i++;
+				}
+				off += i;
+				bytePos += i;
+				continue;
+			}
+
+			int length = Utf8.sequenceLength(b);
+			if (byteLimit - bytePos < length) {
+				if (off > start) {
+					break;// return what is decoded, rest of the sequence comes later
+				}
+				if (!readMoreBytes()) {// truncated at end of input
+					bytePos = byteLimit;
+					buf[off++] = Utf8.REPLACEMENT_CHAR;
+				}
+				continue;
+			}
+			int cp = Utf8.decode(bytes, bytePos, length);
+			if (cp == Utf8.MALFORMED) {
+				buf[off++] = Utf8.REPLACEMENT_CHAR;
+				bytePos++;
+			} else if (cp < Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+				buf[off++] = (char) cp;
+				bytePos += length;
+			} else {
+				buf[off++] = Character.highSurrogate(cp);
+				if (off < end) {
+					buf[off++] = Character.lowSurrogate(cp);
+				} else {
+					pendingLowSurrogate = Character.lowSurrogate(cp);
+				}
+				bytePos += length;
+			}
+		}
+		return off == start ? -1 : off - start;
+	}
+
+	/**
+	 * readMoreBytes: keep undecoded bytes and append more input behind them
+	 * 
+	 * @return false if end of input
+	 */
+	private boolean readMoreBytes() throws IOException {
+		if (bytePos > 0) {
+			System.arraycopy(bytes, bytePos, bytes, 0, byteLimit - bytePos);
+			byteLimit -= bytePos;
+			bytePos = 0;
+		}
+		int read;
+		do {
+			read = readBytes(bytes, byteLimit, bytes.length - byteLimit);
+		} while (read == 0);
+		if (read < 0)
+			return false;
+		byteLimit += read;
+		bytesRead += read;
+		if (!started) {
+			started = true;
+			while (byteLimit < 3) {// byte order mark needs 3 bytes to be detected
+				read = readBytes(bytes, byteLimit, bytes.length - byteLimit);
+				if (read < 0)
+					break;
+				byteLimit += read;
+				bytesRead += read;
+			}
+			if (Utf8.isBom(bytes, 0, byteLimit)) {
+				bytePos = 3;
+				return bytePos < byteLimit || readMoreBytes();
+			}
+		}
+		return true;
+	}
+}
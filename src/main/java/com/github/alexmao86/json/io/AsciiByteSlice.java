@@ -0,0 +1,44 @@
+package com.github.alexmao86.json.io;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * ClassName: AsciiByteSlice is a reusable view of ASCII bytes as chars, so
+ * tokens of byte sources can be inspected without copies<br/>
+ * 
+ * @author
+ */
+final class AsciiByteSlice implements CharSequence {
+	private byte[] bytes;
+	private int offset;
+	private int length;
+
+	final AsciiByteSlice reset(byte[] bytes, int offset, int length) {
+		this.bytes = bytes;
+		this.offset = offset;
+		this.length = length;
+		return this;
+	}
+
+	@Override
+	public int length() {
+		return length;
+	}
+
+	@Override
+	public char charAt(int index) {
+		if (index < 0 || index >= length)
+			throw new IndexOutOfBoundsException(String.valueOf(index));
+		return (char) bytes[offset + index];
+	}
+
+	@Override
+	public CharSequence subSequence(int start, int end) {
+		return new String(bytes, offset + start, end - start, StandardCharsets.ISO_8859_1);
+	}
+
+	@Override
+	public String toString() {
+		return new String(bytes, offset, length, StandardCharsets.ISO_8859_1);
+	}
+}
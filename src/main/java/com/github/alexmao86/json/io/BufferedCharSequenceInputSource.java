@@ -0,0 +1,240 @@
+package com.github.alexmao86.json.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * ClassName: BufferedCharSequenceInputSource reads its chars through a fixed
+ * window, so memory stays bounded whatever the input size. One char before
+ * cursor is always kept in the window for {@link #previousChar()} and
+ * {@link #tryPreviousChar()}, and chars from mark are kept for slices, the
+ * window only grows when one token is larger than it.<br/>
+ * 
+ * @author
+ */
+public abstract class BufferedCharSequenceInputSource extends AbstractCharSequenceInputSource implements Closeable {
+	public static final int DEFAULT_WINDOW = 8192;
+	private static final int MIN_WINDOW = 16;
+
+	private char[] buffer;
+	/**
+	 * index of cursor in buffer
+	 */
+	private int pos = 0;
+	/**
+	 * count of valid chars in buffer
+	 */
+	private int limit = 0;
+	private boolean eof = false;
+	/**
+	 * index of mark in buffer, -1 if not marked
+	 */
+	private int mark = -1;
+	private final CharArraySlice slice = new CharArraySlice();
+	/**
+	 * count of chars before cursor
+	 */
+	private long address = 0;
+
+	protected BufferedCharSequenceInputSource(int window) {
+		super();
+		if (window < MIN_WINDOW) {
+			throw new IllegalArgumentException("window must be at least " + MIN_WINDOW + ": " + window);
+		}
+		this.buffer = new char[window];
+	}
+
+	/**
+	 * fill: read more chars of underlying input into given buffer
+	 * 
+	 * @return count of chars read, -1 if end of input
+	 */
+	protected abstract int fill(char[] buf, int off, int len) throws IOException;
+
+	@Override
+	public final long getCursor() {
+		return address;
+	}
+
+	/**
+	 * require: make sure n chars from cursor are in window
+	 * 
+	 * @return false if input ends before
+	 */
+	private boolean require(int n) throws IOException {
+		if (limit - pos >= n)
+			return true;
+		if (eof)
+			return false;
+		// drop consumed chars, except the one kept for lookbehind and marked ones
+		int from = pos > 0 ? pos - 1 : 0;
+		if (mark >= 0 && mark < from)
+			from = mark;
+		if (from > 0) {
+			System.arraycopy(buffer, from, buffer, 0, limit - from);
+			pos -= from;
+			limit -= from;
+			if (mark >= 0)
+				mark -= from;
+		}
+		while (limit - pos < n) {
+			if (limit == buffer.length) {
+				buffer = Arrays.copyOf(buffer, buffer.length * 2);
+			}
+			int read = fill(buffer, limit, buffer.length - limit);
+			if (read < 0) {
+				eof = true;
+				return false;
+			}
+			limit += read;
+		}
+		return true;
+	}
+
+	@Override
+	public void skipWhitespace() throws IOException {
+		mark = -1;
+		while (pos < limit || require(1)) {
+			if (buffer[pos] > ' ') {
+				break;
+			}
+			pos++;
+			address++;
+		}
+	}
+
+	@Override
+	public char getChar() throws IOException {
+		if (pos < limit || require(1))
+			return buffer[pos];
+		throw new IOException("EOF buffered source");
+	}
+
+	@Override
+	public void move() throws IOException {
+		if (pos >= limit && !require(1))
+			throw new IOException("EOF buffered source");
+		mark = -1;
+		pos++;
+		address++;
+	}
+
+	@Override
+	public void move(int n) throws IOException {
+		for (int i = 0; i < n; i++) {
+			move();
+		}
+	}
+
+	@Override
+	public char previousChar() throws IOException {
+		if (pos == 0)
+			throw new IOException("SOF buffered source");
+		return buffer[pos - 1];
+	}
+
+	@Override
+	public char tryPreviousChar() {
+		if (pos == 0)
+			return NULL_CHAR;
+		return buffer[pos - 1];
+	}
+
+	@Override
+	public char getCharAndMove() throws IOException {
+		if (pos >= limit && !require(1))
+			throw new IOException("EOF buffered source");
+		mark = -1;
+		address++;
+		return buffer[pos++];
+	}
+
+	@Override
+	public boolean available() throws IOException {
+		return pos < limit || require(1);
+	}
+
+	@Override
+	public String remaining() {
+		mark = -1;
+		try {
+			require(buffer.length - 1);
+		} catch (IOException e) {
+			// show what is already in window
+		}
+		return new String(buffer, pos, limit - pos);
+	}
+
+	@Override
+	public char tryNextChar() throws IOException {
+		if (!require(2))
+			return NULL_CHAR;
+		return buffer[pos + 1];
+	}
+
+	@Override
+	public void mark() {
+		mark = pos;
+	}
+
+	@Override
+	public int scanQuoted(char quote) throws IOException {
+		int ret = QUOTE_PLAIN;
+		boolean escaping = false;// last char of window was a backslash
+		while (pos < limit || require(1)) {
+			char[] buf = buffer;
+			int i = pos;
+			int end = limit;
+			if (escaping) {
+				i++;
+				escaping = false;
+			}
+			while (i < end) {
+				char chr = buf[i];
+				if (chr == quote) {
+					address += i - pos;
+					pos = i;
+					return ret;
+				}
+				if (chr == '\\') {
+					ret = QUOTE_ESCAPED;
+					if (++i == end) {
+						escaping = true;
+						break;
+					}
+				}
+				i++;
+			}
+			address += i - pos;
+			pos = i;
+		}
+		return QUOTE_UNCLOSED;
+	}
+
+	@Override
+	public void scanLiteral() throws IOException {
+		while (pos < limit || require(1)) {
+			char[] buf = buffer;
+			int i = pos;
+			int end = limit;
+			while (i < end && !isLiteralEnd(buf[i])) {
+				i++;
+			}
+			address += i - pos;
+			pos = i;
+			if (i < end)
+				return;
+		}
+	}
+
+	@Override
+	public CharSequence slice() {
+		return slice.reset(buffer, mark, pos - mark);
+	}
+
+	@Override
+	public CharSequence sliceText() {
+		return new String(buffer, mark, pos - mark);
+	}
+}
@@ -0,0 +1,97 @@
+package com.github.alexmao86.json.io;
+
+import java.io.IOException;
+
+/**
+ * ClassName: BufferedCharSequenceOutputSink collects written chars in a char
+ * buffer, subclasses decide what to do when the buffer is full.<br/>
+ * 
+ * @author
+ */
+public abstract class BufferedCharSequenceOutputSink implements CharSequenceOutputSink {
+	protected char[] buffer;
+	/**
+	 * count of chars in buffer
+	 */
+	protected int count = 0;
+
+	protected BufferedCharSequenceOutputSink(int capacity) {
+		super();
+		this.buffer = new char[capacity];
+	}
+
+	/**
+	 * overflow: make room for at least required more chars, by draining or
+	 * growing the buffer
+	 */
+	protected abstract void overflow(int required) throws IOException;
+
+	@Override
+	public void write(char chr) throws IOException {
+		if (count == buffer.length)
+			overflow(1);
+		buffer[count++] = chr;
+	}
+
+	@Override
+	public void write(String str) throws IOException {
+		write(str, 0, str.length());
+	}
+
+	@Override
+	public void write(String str, int offset, int length) throws IOException {
+		while (length > 0) {
+			if (count == buffer.length)
+				overflow(length);
+			int n = Math.min(length, buffer.length - count);
+			str.getChars(offset, offset + n, buffer, count);
+			count += n;
+			offset += n;
+			length -= n;
+		}
+	}
+
+	@Override
+	public void write(char[] chars, int offset, int length) throws IOException {
+		while (length > 0) {
+			if (count == buffer.length)
+				overflow(length);
+			int n = Math.min(length, buffer.length - count);
+			System.arraycopy(chars, offset, buffer, count, n);
+			count += n;
+			offset += n;
+			length -= n;
+		}
+	}
+
+	@Override
+	public void writeLong(long value) throws IOException {
+		if (value == Long.MIN_VALUE) {// has no positive counterpart
+			write("-9223372036854775808");
+			return;
+		}
+		if (buffer.length - count < 20)
+			overflow(20);
+		if (value < 0) {
+			buffer[count++] = '-';
+			value = -value;
+		}
+		int end = count + digitCount(value);
+		for (int i = end - 1; i >= count; i--) {
+			buffer[i] = (char) ('0' + value % 10);
+			value /= 10;
+		}
+		count = end;
+	}
+
+	/**
+	 * digitCount: count of decimal digits of a positive value
+	 */
+	static int digitCount(long value) {
+		int digits = 1;
+		for (long bound = 10; digits < 19 && value >= bound; bound *= 10) {
+			digits++;
+		}
+		return digits;
+	}
+}
@@ -0,0 +1,50 @@
+package com.github.alexmao86.json.io;
+
+import java.util.Arrays;
+
+/**
+ * ClassName: CharArrayOutputSink keeps the whole output in a growing char
+ * array, {@link #toString()} makes the only copy. It can be reset and reused.<br/>
+ * 
+ * @author
+ */
+public final class CharArrayOutputSink extends BufferedCharSequenceOutputSink {
+	public static final int DEFAULT_CAPACITY = 256;
+
+	public CharArrayOutputSink() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	public CharArrayOutputSink(int capacity) {
+		super(Math.max(capacity, 32));
+	}
+
+	@Override
+	protected void overflow(int required) {
+		buffer = Arrays.copyOf(buffer, Math.max(buffer.length << 1, count + required));
+	}
+
+	@Override
+	public void flush() {
+	}
+
+	/**
+	 * reset: drop written chars, buffer is kept for reuse
+	 */
+	public void reset() {
+		count = 0;
+	}
+
+	public int length() {
+		return count;
+	}
+
+	public int capacity() {
+		return buffer.length;
+	}
+
+	@Override
+	public String toString() {
+		return new String(buffer, 0, count);
+	}
+}
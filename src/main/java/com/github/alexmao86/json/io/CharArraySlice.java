@@ -0,0 +1,42 @@
+package com.github.alexmao86.json.io;
+
+/**
+ * ClassName: CharArraySlice is a reusable view of part of a char buffer, so
+ * tokens can be inspected without copies<br/>
+ * 
+ * @author
+ */
+final class CharArraySlice implements CharSequence {
+	private char[] buffer;
+	private int offset;
+	private int length;
+
+	final CharArraySlice reset(char[] buffer, int offset, int length) {
+		this.buffer = buffer;
+		this.offset = offset;
+		this.length = length;
+		return this;
+	}
+
+	@Override
+	public int length() {
+		return length;
+	}
+
+	@Override
+	public char charAt(int index) {
+		if (index < 0 || index >= length)
+			throw new IndexOutOfBoundsException(String.valueOf(index));
+		return buffer[offset + index];
+	}
+
+	@Override
+	public CharSequence subSequence(int start, int end) {
+		return new String(buffer, offset + start, end - start);
+	}
+
+	@Override
+	public String toString() {
+		return new String(buffer, offset, length);
+	}
+}
@@ -9,6 +9,12 @@ import java.io.IOException;
  */
 public interface CharSequenceInputSource {
 	char NULL_CHAR = (char) 0;
+	/*
+	 * results of scanQuoted
+	 */
+	int QUOTE_UNCLOSED = -1;
+	int QUOTE_PLAIN = 0;
+	int QUOTE_ESCAPED = 1;
 
 	/**
 	 * 
@@ -55,12 +61,13 @@ public interface CharSequenceInputSource {
 	char getCharAndMove() throws IOException;
 
 	/**
-	 * available: check source is available
+	 * available: check source is available, buffered sources may read more input
 	 */
-	boolean available();
+	boolean available() throws IOException;
 
 	/**
-	 * remaining: return remaining string of this input source
+	 * remaining: return remaining string of this input source, buffered sources
+	 * return what is left in their window
 	 * 
 	 * @return
 	 */
@@ -69,11 +76,57 @@ public interface CharSequenceInputSource {
 	/**
 	 * tryNextChar: try to get next char if has char, return it; otherwise return 0
 	 */
-	char tryNextChar();
+	char tryNextChar() throws IOException;
+
+	/**
+	 * getCursor: count of chars read before current position, a long as
+	 * sources of files may be larger than 2<sup>31</sup> chars
+	 */
+	long getCursor();
+
+	/**
+	 * consumed: input consumed so far, bytes of UTF-8 sources and chars of
+	 * others. Sources decoding ahead count what they decoded, which is the whole
+	 * input once a document is read to its end.
+	 */
+	default long consumed() {
+		return getCursor();
+	}
+
+	/**
+	 * mark: start a slice at current position, see {@link #slice()}. Buffered
+	 * sources may drop the mark once cursor moves on by {@link #move()} or
+	 * {@link #skipWhitespace()}
+	 */
+	void mark();
+
+	/**
+	 * scanQuoted: move cursor over the body of a quoted text to its closing quote,
+	 * cursor must be right after the opening quote and stops on the closing one.
+	 * A backslash escapes the char after it, whatever it is.
+	 * 
+	 * @return {@link #QUOTE_PLAIN} if body has no backslash,
+	 *         {@link #QUOTE_ESCAPED} if it has, {@link #QUOTE_UNCLOSED} if source
+	 *         ends before the closing quote
+	 */
+	int scanQuoted(char quote) throws IOException;
+
+	/**
+	 * scanLiteral: move cursor over a non strict text, stops on whitespace, syntax
+	 * char or end of source
+	 */
+	void scanLiteral() throws IOException;
+
+	/**
+	 * slice: chars from mark to cursor as a view into the source, the view is only
+	 * valid until next {@link #mark()}
+	 */
+	CharSequence slice();
 
 	/**
-	 * getPointer: get current position reading
+	 * sliceText: chars from mark to cursor which stay valid after source moves on,
+	 * copied once or decoded lazily
 	 */
-	int getCursor();
+	CharSequence sliceText();
 
 }
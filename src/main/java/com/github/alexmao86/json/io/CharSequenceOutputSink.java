@@ -0,0 +1,50 @@
+package com.github.alexmao86.json.io;
+
+import java.io.Flushable;
+import java.io.IOException;
+
+/**
+ * ClassName: CharSequenceOutputSink is where serializers write json text to, so
+ * nested values are appended in one pass instead of being returned as strings
+ * and copied by every parent.<br/>
+ * 
+ * @author
+ */
+public interface CharSequenceOutputSink extends Flushable {
+
+	/**
+	 * write: append one char
+	 */
+	void write(char chr) throws IOException;
+
+	/**
+	 * write: append a whole string
+	 */
+	void write(String str) throws IOException;
+
+	/**
+	 * write: append part of a string
+	 */
+	void write(String str, int offset, int length) throws IOException;
+
+	/**
+	 * write: append part of a char array
+	 */
+	void write(char[] chars, int offset, int length) throws IOException;
+
+	/**
+	 * writeLong: append decimal digits of given value, without a string in
+	 * between
+	 */
+	default void writeLong(long value) throws IOException {
+		write(Long.toString(value));
+	}
+
+	/**
+	 * writeToken: append a fixed token given as chars and as its UTF-8 bytes, so
+	 * the token is encoded once, not on every write. Byte sinks copy the bytes.
+	 */
+	default void writeToken(char[] chars, byte[] utf8) throws IOException {
+		write(chars, 0, chars.length);
+	}
+}
@@ -0,0 +1,73 @@
+package com.github.alexmao86.json.io;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * ClassName: MappedFileInputSource decodes a UTF-8 file through memory
+ * mappings of {@link FileChannel#map}, so bytes come from the page cache and
+ * are decoded lazily through the bounded window instead of being read into
+ * heap first. A mapping can not exceed 2 GB, bigger files are remapped
+ * mapping by mapping as parsing goes.<br/>
+ * 
+ * @author
+ */
+public final class MappedFileInputSource extends AbstractUtf8InputSource {
+	public static final long DEFAULT_MAPPING_SIZE = 1L << 30;
+
+	private final FileChannel channel;
+	private final long size;
+	private final long mappingSize;
+	/**
+	 * file offset of current mapping
+	 */
+	private long mappingOffset = 0;
+	private MappedByteBuffer mapping;
+
+	public MappedFileInputSource(final Path path) throws IOException {
+		this(path, DEFAULT_WINDOW, DEFAULT_MAPPING_SIZE);
+	}
+
+	/**
+	 * @param path
+	 *            UTF-8 file
+	 * @param window
+	 *            size of decoding window
+	 * @param mappingSize
+	 *            bytes mapped at once, at most {@link Integer#MAX_VALUE}
+	 */
+	public MappedFileInputSource(final Path path, int window, long mappingSize) throws IOException {
+		super(window);
+		if (mappingSize <= 0 || mappingSize > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("mapping size out of range: " + mappingSize);
+		}
+		this.channel = FileChannel.open(path, StandardOpenOption.READ);
+		this.size = channel.size();
+		this.mappingSize = mappingSize;
+	}
+
+	@Override
+	protected int readBytes(byte[] buf, int off, int len) throws IOException {
+		if (mapping == null || !mapping.hasRemaining()) {
+			long next = mapping == null ? 0 : mappingOffset + mapping.capacity();
+			if (next >= size) {
+				return -1;
+			}
+			mappingOffset = next;
+			mapping = channel.map(MapMode.READ_ONLY, next, Math.min(mappingSize, size - next));
+		}
+		int count = Math.min(len, mapping.remaining());
+		mapping.get(buf, off, count);
+		return count;
+	}
+
+	@Override
+	public void close() throws IOException {
+		mapping = null;
+		channel.close();
+	}
+}
@@ -0,0 +1,33 @@
+package com.github.alexmao86.json.io;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * ClassName: ReaderInputSource reads chars from a {@link Reader} through a
+ * bounded window, parsing starts as soon as the first chars arrive.<br/>
+ * 
+ * @author
+ */
+public final class ReaderInputSource extends BufferedCharSequenceInputSource {
+	private final Reader reader;
+
+	public ReaderInputSource(final Reader reader) {
+		this(reader, DEFAULT_WINDOW);
+	}
+
+	public ReaderInputSource(final Reader reader, int window) {
+		super(window);
+		this.reader = reader;
+	}
+
+	@Override
+	protected int fill(char[] buf, int off, int len) throws IOException {
+		return reader.read(buf, off, len);
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+}
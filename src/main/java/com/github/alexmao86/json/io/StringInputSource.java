@@ -9,17 +9,26 @@ import java.io.IOException;
  */
 public final class StringInputSource extends AbstractCharSequenceInputSource {
 	private final String src;
+	private final StringSlice slice;
+	private int address = 0;
+	private int mark = 0;
 
 	public StringInputSource(final String src) {
 		super();
 		this.src = src;
+		this.slice = new StringSlice(src);
+	}
+
+	@Override
+	public long getCursor() {
+		return address;
 	}
 
 	@Override
 	public void skipWhitespace() throws IOException {
 		while (address < src.length()) {
 			char chr = src.charAt(address);
-			if (chr > 32 && chr < 127) {
+			if (chr > ' ') {
 				break;
 			}
 			address++;
@@ -86,4 +95,47 @@ public final class StringInputSource extends AbstractCharSequenceInputSource {
 			return NULL_CHAR;
 		return src.charAt(address + 1);
 	}
+
+	@Override
+	public void mark() {
+		mark = address;
+	}
+
+	@Override
+	public int scanQuoted(char quote) {
+		final int length = src.length();
+		int ret = QUOTE_PLAIN;
+		for (int i = address; i < length; i++) {
+			char chr = src.charAt(i);
+			if (chr == quote) {
+				address = i;
+				return ret;
+			}
+			if (chr == '\\') {
+				ret = QUOTE_ESCAPED;
+				i++;
+			}
+		}
+		address = length;
+		return QUOTE_UNCLOSED;
+	}
+
+	@Override
+	public void scanLiteral() {
+		int end = address;
+		while (end < src.length() && !isLiteralEnd(src.charAt(end))) {
+			end++;
+		}
+		address = end;
+	}
+
+	@Override
+	public CharSequence slice() {
+		return slice.reset(mark, address - mark);
+	}
+
+	@Override
+	public CharSequence sliceText() {
+		return src.substring(mark, address);
+	}
 }
@@ -0,0 +1,46 @@
+package com.github.alexmao86.json.io;
+
+/**
+ * ClassName: StringSlice is a reusable view of part of a string, so tokens can
+ * be inspected without substring copies<br/>
+ * 
+ * @author
+ */
+final class StringSlice implements CharSequence {
+	private final String src;
+	private int offset;
+	private int length;
+
+	StringSlice(String src) {
+		super();
+		this.src = src;
+	}
+
+	final StringSlice reset(int offset, int length) {
+		this.offset = offset;
+		this.length = length;
+		return this;
+	}
+
+	@Override
+	public int length() {
+		return length;
+	}
+
+	@Override
+	public char charAt(int index) {
+		if (index < 0 || index >= length)
+			throw new IndexOutOfBoundsException(String.valueOf(index));
+		return src.charAt(offset + index);
+	}
+
+	@Override
+	public CharSequence subSequence(int start, int end) {
+		return src.substring(offset + start, offset + end);
+	}
+
+	@Override
+	public String toString() {
+		return src.substring(offset, offset + length);
+	}
+}
@@ -0,0 +1,80 @@
+package com.github.alexmao86.json.io;
+
+/**
+ * ClassName: Utf8 holds the UTF-8 decoding rules shared by byte oriented input
+ * sources<br/>
+ * 
+ * @author
+ */
+final class Utf8 {
+	static final char REPLACEMENT_CHAR = '\uFFFD';
+	static final int MALFORMED = -1;
+
+	private Utf8() {
+	}
+
+	/**
+	 * sequenceLength: count of bytes of the sequence started by given lead byte,
+	 * 1 for ASCII and for malformed lead bytes
+	 */
+	static int sequenceLength(int lead) {
+		lead &= 0xFF;
+		if (lead < 0xC2)
+			return 1;
+		if (lead < 0xE0)
+			return 2;
+		if (lead < 0xF0)
+			return 3;
+		if (lead < 0xF5)
+			return 4;
+		return 1;
+	}
+
+	/**
+	 * decode: decode one multi bytes sequence of given length
+	 * 
+	 * @return code point, {@link #MALFORMED} if bytes are not valid UTF-8
+	 */
+	static int decode(byte[] bytes, int index, int length) {
+		int b0 = bytes[index] & 0xFF;
+		switch (length) {
+		case 2: {
+			int b1 = bytes[index + 1];
+			if ((b1 & 0xC0) != 0x80)
+				return MALFORMED;
+			return ((b0 & 0x1F) << 6) | (b1 & 0x3F);
+		}
+		case 3: {
+			int b1 = bytes[index + 1];
+			int b2 = bytes[index + 2];
+			if ((b1 & 0xC0) != 0x80 || (b2 & 0xC0) != 0x80)
+				return MALFORMED;
+			int cp = ((b0 & 0x0F) << 12) | ((b1 & 0x3F) << 6) | (b2 & 0x3F);
+			if (cp < 0x800 || (cp >= Character.MIN_SURROGATE && cp <= Character.MAX_SURROGATE))
+				return MALFORMED;
+			return cp;
+		}
+		case 4: {
+			int b1 = bytes[index + 1];
+			int b2 = bytes[index + 2];
+			int b3 = bytes[index + 3];
+			if ((b1 & 0xC0) != 0x80 || (b2 & 0xC0) != 0x80 || (b3 & 0xC0) != 0x80)
+				return MALFORMED;
+			int cp = ((b0 & 0x07) << 18) | ((b1 & 0x3F) << 12) | ((b2 & 0x3F) << 6) | (b3 & 0x3F);
+			if (cp < 0x10000 || cp > Character.MAX_CODE_POINT)
+				return MALFORMED;
+			return cp;
+		}
+		default:
+			return b0 < 0x80 ? b0 : MALFORMED;
+		}
+	}
+
+	/**
+	 * isBom: check if UTF-8 byte order mark starts at given index
+	 */
+	static boolean isBom(byte[] bytes, int index, int limit) {
+		return limit - index >= 3 && (bytes[index] & 0xFF) == 0xEF && (bytes[index + 1] & 0xFF) == 0xBB
+				&& (bytes[index + 2] & 0xFF) == 0xBF;
+	}
+}
@@ -0,0 +1,242 @@
+package com.github.alexmao86.json.io;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * ClassName: Utf8ByteArrayInputSource reads json directly from UTF-8 bytes.
+ * Whitespace and syntax chars are scanned on bytes, multi bytes sequences are
+ * decoded only when a char is asked for, and slices are handed out as
+ * {@link Utf8Text} which decodes when it is materialized. Cursor is the byte
+ * offset from start of the slice.<br/>
+ * 
+ * @author
+ */
+public final class Utf8ByteArrayInputSource extends AbstractCharSequenceInputSource {
+	private final byte[] bytes;
+	private final int start;
+	private final int end;
+	/**
+	 * cursor is on the low surrogate of the 4 bytes sequence at address
+	 */
+	private boolean lowSurrogate = false;
+	private int address;
+	private int mark;
+	private final AsciiByteSlice slice = new AsciiByteSlice();
+
+	public Utf8ByteArrayInputSource(final byte[] bytes) {
+		this(bytes, 0, bytes.length);
+	}
+
+	public Utf8ByteArrayInputSource(final byte[] bytes, int offset, int length) {
+		super();
+		if (offset < 0 || length < 0 || offset + length > bytes.length) {
+			throw new IndexOutOfBoundsException("offset " + offset + ", length " + length);
+		}
+		this.bytes = bytes;
+		this.start = offset;
+		this.end = offset + length;
+		this.address = Utf8.isBom(bytes, offset, end) ? offset + 3 : offset;
+		this.mark = address;
+	}
+
+	@Override
+	public long getCursor() {
+		return address - start;
+	}
+
+	/**
+	 * sequenceLength: byte length of the char at given index, malformed bytes
+	 * are taken one by one
+	 */
+	private int sequenceLength(int index) {
+		int length = Utf8.sequenceLength(bytes[index]);
+		if (length == 1 || index + length > end || Utf8.decode(bytes, index, length) == Utf8.MALFORMED)
+			return 1;
+		return length;
+	}
+
+	/**
+	 * charAt: decode char of sequence at given index
+	 */
+	private char charAt(int index, boolean low) {
+		int b = bytes[index];
+		if (b >= 0)
+			return (char) b;
+		int length = sequenceLength(index);
+		if (length == 1)
+			return Utf8.REPLACEMENT_CHAR;
+		int cp = Utf8.decode(bytes, index, length);
+		if (cp < Character.MIN_SUPPLEMENTARY_CODE_POINT)
+			return (char) cp;
+		return low ? Character.lowSurrogate(cp) : Character.highSurrogate(cp);
+	}
+
+	@Override
+	public void skipWhitespace() throws IOException {
+		if (lowSurrogate)
+			return;
+		while (address < end) {
+			int b = bytes[address];
+			if (b < 0 || b > ' ') {
+				break;
+			}
+			address++;
+		}
+	}
+
+	@Override
+	public char getChar() throws IOException {
+		if (address >= end)
+			throw new IOException("EOF byte source");
+		int b = bytes[address];
+		if (b >= 0)
+			return (char) b;
+		return charAt(address, lowSurrogate);
+	}
+
+	@Override
+	public void move() throws IOException {
+		if (address >= end)
+			throw new IOException("EOF byte source");
+		if (bytes[address] >= 0) {
+			address++;
+			return;
+		}
+		int length = sequenceLength(address);
+		if (length == 4 && !lowSurrogate) {
+			lowSurrogate = true;// stay on this sequence for its low surrogate
+			return;
+		}
+		lowSurrogate = false;
+		address += length;
+	}
+
+	@Override
+	public void move(int n) throws IOException {
+		for (int i = 0; i < n; i++) {
+			move();
+		}
+	}
+
+	@Override
+	public char previousChar() throws IOException {
+		if (!lowSurrogate && address == start)
+			throw new IOException("SOF byte source");
+		return tryPreviousChar();
+	}
+
+	@Override
+	public char tryPreviousChar() {
+		if (lowSurrogate)
+			return charAt(address, false);
+		if (address == start)
+			return NULL_CHAR;
+		int b = bytes[address - 1];
+		if (b >= 0)
+			return (char) b;
+		// walk back to lead byte of previous sequence
+		int index = address - 1;
+		while (index > start && index > address - 4 && (bytes[index] & 0xC0) == 0x80) {
+			index--;
+		}
+		if (index + sequenceLength(index) != address)
+			return Utf8.REPLACEMENT_CHAR;
+		return charAt(index, true);
+	}
+
+	@Override
+	public char getCharAndMove() throws IOException {
+		char chr = getChar();
+		move();
+		return chr;
+	}
+
+	@Override
+	public boolean available() {
+		return address < end;
+	}
+
+	@Override
+	public String remaining() {
+		return new String(bytes, address, end - address, StandardCharsets.UTF_8);
+	}
+
+	@Override
+	public char tryNextChar() throws IOException {
+		if (address >= end)
+			return NULL_CHAR;
+		int savedAddress = address;
+		boolean savedLowSurrogate = lowSurrogate;
+		move();
+		char chr = address < end ? getChar() : NULL_CHAR;
+		address = savedAddress;
+		lowSurrogate = savedLowSurrogate;
+		return chr;
+	}
+
+	@Override
+	public void mark() {
+		mark = address;
+	}
+
+	/**
+	 * scanQuoted: quote and backslash are ASCII and never appear inside multi
+	 * bytes sequences, so quoted text is scanned without decoding
+	 */
+	@Override
+	public int scanQuoted(char quote) {
+		lowSurrogate = false;
+		int ret = QUOTE_PLAIN;
+		for (int i = address; i < end; i++) {
+			int b = bytes[i];
+			if (b == quote) {
+				address = i;
+				return ret;
+			}
+			if (b == '\\') {
+				ret = QUOTE_ESCAPED;
+				i++;// escaped char is ASCII, or lead byte of a sequence
+			}
+		}
+		address = end;
+		return QUOTE_UNCLOSED;
+	}
+
+	@Override
+	public void scanLiteral() {
+		lowSurrogate = false;
+		int i = address;
+		while (i < end) {
+			int b = bytes[i];
+			if (b >= 0 && isLiteralEnd(b))
+				break;
+			i++;
+		}
+		address = i;
+	}
+
+	/**
+	 * slice: ASCII slices, like literals, numbers and most names, are viewed in
+	 * place by a reused view, others are decoded as {@link #sliceText()}
+	 */
+	@Override
+	public CharSequence slice() {
+		if (isAscii())
+			return slice.reset(bytes, mark, address - mark);
+		return sliceText();
+	}
+
+	@Override
+	public CharSequence sliceText() {
+		return new Utf8Text(bytes, mark, address - mark, isAscii());
+	}
+
+	private boolean isAscii() {
+		for (int i = mark; i < address; i++) {
+			if (bytes[i] < 0)
+				return false;
+		}
+		return true;
+	}
+}
@@ -0,0 +1,34 @@
+package com.github.alexmao86.json.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * ClassName: Utf8InputStreamSource decodes UTF-8 bytes of an
+ * {@link InputStream} through a bounded window, parsing starts as soon as the
+ * first bytes arrive.<br/>
+ * 
+ * @author
+ */
+public final class Utf8InputStreamSource extends AbstractUtf8InputSource {
+	private final InputStream in;
+
+	public Utf8InputStreamSource(final InputStream in) {
+		this(in, DEFAULT_WINDOW);
+	}
+
+	public Utf8InputStreamSource(final InputStream in, int window) {
+		super(window);
+		this.in = in;
+	}
+
+	@Override
+	protected int readBytes(byte[] buf, int off, int len) throws IOException {
+		return in.read(buf, off, len);
+	}
+
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+}
@@ -0,0 +1,227 @@
+package com.github.alexmao86.json.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * ClassName: Utf8OutputSink encodes written chars to UTF-8 straight into a byte
+ * buffer, so json text for a byte consumer is never held as a string. ASCII
+ * runs are stored byte per char without encoder calls. Without a stream the
+ * buffer grows and holds the whole output, see {@link #toByteArray()}; with a
+ * stream it is drained when full. A sink can be reset and reused.<br/>
+ * Unpaired surrogates are written as '?' like {@link String#getBytes} does.
+ * 
+ * @author
+ */
+public final class Utf8OutputSink implements CharSequenceOutputSink {
+	public static final int DEFAULT_CAPACITY = 8192;
+
+	private byte[] buffer;
+	private int count = 0;
+	private OutputStream stream;
+	/**
+	 * high surrogate written last, waiting for its low surrogate
+	 */
+	private char highSurrogate = 0;
+
+	public Utf8OutputSink() {
+		this(null, DEFAULT_CAPACITY);
+	}
+
+	public Utf8OutputSink(OutputStream stream) {
+		this(stream, DEFAULT_CAPACITY);
+	}
+
+	public Utf8OutputSink(OutputStream stream, int capacity) {
+		super();
+		this.stream = stream;
+		this.buffer = new byte[Math.max(capacity, 32)];
+	}
+
+	/**
+	 * reset: drop written bytes and write to given stream from now on, null to
+	 * collect bytes in the buffer
+	 */
+	public void reset(OutputStream stream) {
+		this.stream = stream;
+		count = 0;
+		highSurrogate = 0;
+	}
+
+	private final void require(int length) throws IOException {
+		if (buffer.length - count < length)
+			overflow(length);
+	}
+
+	private final void overflow(int length) throws IOException {
+		if (stream != null) {
+			stream.write(buffer, 0, count);
+			count = 0;
+			if (length <= buffer.length)
+				return;
+		}
+		buffer = Arrays.copyOf(buffer, Math.max(buffer.length << 1, count + length));
+	}
+
+	/**
+	 * unpaired: write a high surrogate which is not followed by its low one
+	 */
+	private final void unpaired() throws IOException {
+		if (highSurrogate != 0) {
+			highSurrogate = 0;
+			require(1);
+			buffer[count++] = '?';
+		}
+	}
+
+	@Override
+	public void write(char chr) throws IOException {
+		if (highSurrogate != 0) {
+			if (Character.isLowSurrogate(chr)) {
+				int codePoint = Character.toCodePoint(highSurrogate, chr);
+				highSurrogate = 0;
+				require(4);
+				buffer[count++] = (byte) (0xF0 | (codePoint >> 18));
+				buffer[count++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+				buffer[count++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+				buffer[count++] = (byte) (0x80 | (codePoint & 0x3F));
+				return;
+			}
+			unpaired();
+		}
+		if (chr < 0x80) {
+			require(1);
+			buffer[count++] = (byte) chr;
+		} else if (chr < 0x800) {
+			require(2);
+			buffer[count++] = (byte) (0xC0 | (chr >> 6));
+			buffer[count++] = (byte) (0x80 | (chr & 0x3F));
+		} else if (Character.isHighSurrogate(chr)) {
+			highSurrogate = chr;
+		} else if (Character.isLowSurrogate(chr)) {
+			require(1);
+			buffer[count++] = '?';
+		} else {
+			require(3);
+			buffer[count++] = (byte) (0xE0 | (chr >> 12));
+			buffer[count++] = (byte) (0x80 | ((chr >> 6) & 0x3F));
+			buffer[count++] = (byte) (0x80 | (chr & 0x3F));
+		}
+	}
+
+	@Override
+	public void write(String str) throws IOException {
+		write(str, 0, str.length());
+	}
+
+	@Override
+	public void write(String str, int offset, int length) throws IOException {
+		final int end = offset + length;
+		while (offset < end) {
+			if (highSurrogate == 0) {
+				// ascii run, as far as the buffer has room
+				int limit = Math.min(end, offset + buffer.length - count);
+				char chr;
+				while (offset < limit && (chr = str.charAt(offset)) < 0x80) {
+					buffer[count++] = (byte) chr;
+					offset++;
+				}
+				if (offset == end)
+					return;
+			}
+			write(str.charAt(offset++));
+		}
+	}
+
+	@Override
+	public void write(char[] chars, int offset, int length) throws IOException {
+		final int end = offset + length;
+		while (offset < end) {
+			if (highSurrogate == 0) {
+				int limit = Math.min(end, offset + buffer.length - count);
+				char chr;
+				while (offset < limit && (chr = chars[offset]) < 0x80) {
+					buffer[count++] = (byte) chr;
+					offset++;
+				}
+				if (offset == end)
+					return;
+			}
+			write(chars[offset++]);
+		}
+	}
+
+	@Override
+	public void writeLong(long value) throws IOException {
+		unpaired();
+		if (value == Long.MIN_VALUE) {
+			write("-9223372036854775808");
+			return;
+		}
+		require(20);
+		if (value < 0) {
+			buffer[count++] = '-';
+			value = -value;
+		}
+		int end = count + BufferedCharSequenceOutputSink.digitCount(value);
+		for (int i = end - 1; i >= count; i--) {
+			buffer[i] = (byte) ('0' + value % 10);
+			value /= 10;
+		}
+		count = end;
+	}
+
+	@Override
+	public void writeToken(char[] chars, byte[] utf8) throws IOException {
+		unpaired();
+		require(utf8.length);
+		System.arraycopy(utf8, 0, buffer, count, utf8.length);
+		count += utf8.length;
+	}
+
+	/**
+	 * flush: drain buffer to the stream and flush it, nothing to do without a
+	 * stream
+	 */
+	@Override
+	public void flush() throws IOException {
+		if (stream != null) {
+			unpaired();
+			stream.write(buffer, 0, count);
+			count = 0;
+			stream.flush();
+		}
+	}
+
+	/**
+	 * size: count of bytes in buffer
+	 */
+	public int size() {
+		return count;
+	}
+
+	public int capacity() {
+		return buffer.length;
+	}
+
+	/**
+	 * toByteArray: copy of written bytes, a dangling high surrogate is written as
+	 * '?'
+	 */
+	public byte[] toByteArray() {
+		if (highSurrogate == 0)
+			return Arrays.copyOf(buffer, count);
+		byte[] bytes = Arrays.copyOf(buffer, count + 1);
+		bytes[count] = '?';
+		return bytes;
+	}
+
+	/**
+	 * writeTo: copy written bytes to given stream, without a copy of the buffer
+	 */
+	public void writeTo(OutputStream out) throws IOException {
+		unpaired();
+		out.write(buffer, 0, count);
+	}
+}
@@ -0,0 +1,63 @@
+package com.github.alexmao86.json.io;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * ClassName: Utf8Text is a slice of UTF-8 bytes which is decoded only when it
+ * is materialized by {@link #toString()}. Trees are shared values, so the
+ * decoded string is published through a volatile field and the source bytes
+ * are kept, threads racing to decode it get equal strings.<br/>
+ * 
+ * @author
+ */
+public final class Utf8Text implements CharSequence {
+	private final byte[] bytes;
+	private final int offset;
+	private final int length;
+	private final boolean ascii;
+	private volatile String decoded;
+
+	/**
+	 * @param ascii
+	 *            true if all bytes are ASCII, then chars and bytes are one to one
+	 */
+	public Utf8Text(byte[] bytes, int offset, int length, boolean ascii) {
+		super();
+		this.bytes = bytes;
+		this.offset = offset;
+		this.length = length;
+		this.ascii = ascii;
+	}
+
+	@Override
+	public int length() {
+		if (ascii)
+			return length;
+		return toString().length();
+	}
+
+	@Override
+	public char charAt(int index) {
+		if (ascii) {
+			if (index < 0 || index >= length)
+				throw new IndexOutOfBoundsException(String.valueOf(index));
+			return (char) bytes[offset + index];
+		}
+		return toString().charAt(index);
+	}
+
+	@Override
+	public CharSequence subSequence(int start, int end) {
+		return toString().subSequence(start, end);
+	}
+
+	@Override
+	public String toString() {
+		String text = decoded;
+		if (text == null) {
+			text = new String(bytes, offset, length, ascii ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8);
+			decoded = text;
+		}
+		return text;
+	}
+}
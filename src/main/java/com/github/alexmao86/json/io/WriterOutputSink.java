@@ -0,0 +1,41 @@
+package com.github.alexmao86.json.io;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * ClassName: WriterOutputSink writes to a {@link Writer} through a fixed
+ * buffer, so memory stays bounded whatever the output size. The writer is not
+ * closed.<br/>
+ * 
+ * @author
+ */
+public final class WriterOutputSink extends BufferedCharSequenceOutputSink {
+	public static final int DEFAULT_BUFFER = 8192;
+
+	private final Writer writer;
+
+	public WriterOutputSink(Writer writer) {
+		this(writer, DEFAULT_BUFFER);
+	}
+
+	public WriterOutputSink(Writer writer, int bufferSize) {
+		super(Math.max(bufferSize, 32));
+		this.writer = writer;
+	}
+
+	@Override
+	protected void overflow(int required) throws IOException {
+		writer.write(buffer, 0, count);
+		count = 0;
+	}
+
+	@Override
+	public void flush() throws IOException {
+		if (count > 0) {
+			writer.write(buffer, 0, count);
+			count = 0;
+		}
+		writer.flush();
+	}
+}
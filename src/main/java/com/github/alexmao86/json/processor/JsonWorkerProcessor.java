@@ -0,0 +1,483 @@
+package com.github.alexmao86.json.processor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * ClassName: JsonWorkerProcessor generates at compile time a
+ * {@link com.github.alexmao86.json.GeneratedJsonWorker} for each class
+ * annotated with {@link com.github.alexmao86.json.annotation.JsonSerializable},
+ * and lists them as services of {@link com.github.alexmao86.json.JsonWorker}.
+ * Once registered by
+ * {@link com.github.alexmao86.json.JsonConfig.Builder#registerJsonWorkers(ClassLoader)}
+ * or {@link com.github.alexmao86.json.JsonSystem#globalJsonWorkers(ClassLoader)},
+ * those beans are never reflected.<br/>
+ * Fields follow the runtime rules: static, transient and
+ * {@link com.github.alexmao86.json.annotation.JsonIgnore} fields are left out,
+ * value of the field annotation renames the member, and its serializer or
+ * deserializer is used for the member. Properties are accessed by public getter
+ * and setter, or by the field if it is not private. A class is left to runtime
+ * reflection with a note if it names its own serializer or deserializer, is
+ * generic, abstract or private, has no visible no argument constructor, or has
+ * a property the worker can not access.<br/>
+ * The processor is not discovered by javac, opt in by -processor
+ * com.github.alexmao86.json.processor.JsonWorkerProcessor, or the
+ * annotationProcessors of maven compiler plugin.
+ *
+ * @author
+ */
+@SupportedAnnotationTypes(JsonWorkerProcessor.ANNOTATION)
+public final class JsonWorkerProcessor extends AbstractProcessor {
+	static final String ANNOTATION = "com.github.alexmao86.json.annotation.JsonSerializable";
+	private static final String IGNORE = "com.github.alexmao86.json.annotation.JsonIgnore";
+	private static final String SERVICE = "META-INF/services/com.github.alexmao86.json.JsonWorker";
+
+	/**
+	 * workers generated by every round, listed when processing is over
+	 */
+	private final List<String> workers = new ArrayList<String>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		if (roundEnv.processingOver()) {
+			writeServices();
+			return false;
+		}
+		for (TypeElement annotation : annotations) {
+			for (TypeElement type : ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(annotation))) {
+				if (type.getKind() == ElementKind.CLASS)
+					generate(type);
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Property is one member of a bean, with java expressions to access it
+	 */
+	private static final class Property {
+		private String member;
+		private TypeMirror type;
+		// expression reading property of bean, like getName() or name
+		private String read;
+		// setter method name, or null if field is assigned
+		private String setter;
+		private String field;
+		private boolean writable;
+		private TypeMirror serializer;
+		private TypeMirror deserializer;
+	}
+
+	private final void note(String message, Element element) {
+		processingEnv.getMessager().printMessage(Kind.NOTE, message + ", it is left to reflection", element);
+	}
+
+	private final void generate(TypeElement type) {
+		AnnotationMirror annotation = annotation(type, ANNOTATION);
+		if (classValue(annotation, "serializer") != null || classValue(annotation, "deserializer") != null) {
+			note("class names its own serializer or deserializer", type);
+			return;
+		}
+		if (type.getModifiers().contains(Modifier.ABSTRACT) || !type.getTypeParameters().isEmpty()) {
+			note("class is abstract or generic", type);
+			return;
+		}
+		for (Element e = type; e.getKind() != ElementKind.PACKAGE; e = e.getEnclosingElement()) {
+			TypeElement enclosing = (TypeElement) e;
+			if (enclosing.getModifiers().contains(Modifier.PRIVATE) || (enclosing.getNestingKind() == NestingKind.MEMBER
+					&& !enclosing.getModifiers().contains(Modifier.STATIC))
+					|| enclosing.getNestingKind() == NestingKind.LOCAL
+					|| enclosing.getNestingKind() == NestingKind.ANONYMOUS) {
+				note("class is not visible in its package", type);
+				return;
+			}
+		}
+		boolean constructor = false;
+		for (ExecutableElement c : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+			if (c.getParameters().isEmpty() && !c.getModifiers().contains(Modifier.PRIVATE))
+				constructor = true;
+		}
+		if (!constructor) {
+			note("class has no visible no argument constructor", type);
+			return;
+		}
+
+		List<Property> properties = new ArrayList<Property>();
+		Map<String, VariableElement> members = new HashMap<String, VariableElement>();
+		boolean collision = false;
+		for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+			Set<Modifier> modifiers = field.getModifiers();
+			if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.TRANSIENT)
+					|| annotation(field, IGNORE) != null)
+				continue;
+			Property property = property(type, field);
+			if (property == null) {
+				note("field " + field.getSimpleName() + " has no public getter and setter", type);
+				return;
+			}
+			VariableElement other = members.put(property.member, field);
+			if (other != null) {
+				processingEnv.getMessager().printMessage(Kind.ERROR, "member name \"" + property.member
+						+ "\" of field " + field.getSimpleName() + " is used by field " + other.getSimpleName(), field);
+				collision = true;
+			}
+			properties.add(property);
+		}
+		if (collision)
+			return;
+
+		PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+		String packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+		String workerName = type.getQualifiedName().toString().substring(packageName.isEmpty() ? 0
+				: packageName.length() + 1).replace('.', '_') + "JsonWorker";
+		String qualifiedName = packageName.isEmpty() ? workerName : packageName + "." + workerName;
+		try {
+			Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, type).openWriter();
+			try {
+				writer.write(source(packageName, workerName, type.getQualifiedName().toString(), properties));
+			} finally {
+				writer.close();
+			}
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Kind.ERROR, "can not write " + qualifiedName + ": " + e, type);
+			return;
+		}
+		workers.add(qualifiedName);
+	}
+
+	/**
+	 * property: access of a field, by public getter and setter declared in the
+	 * bean, or by the field if it is not private
+	 *
+	 * @return null if it can not be read, or written while it is not final
+	 */
+	private final Property property(TypeElement type, VariableElement field) {
+		Types types = processingEnv.getTypeUtils();
+		String name = field.getSimpleName().toString();
+		String capitalized = name.substring(0, 1).toUpperCase() + name.substring(1);
+		TypeMirror fieldType = field.asType();
+		boolean fieldAccessible = !field.getModifiers().contains(Modifier.PRIVATE);
+
+		Property property = new Property();
+		property.member = name;
+		property.type = fieldType;
+		property.field = name;
+		AnnotationMirror annotation = annotation(field, ANNOTATION);
+		if (annotation != null) {
+			for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : annotation
+					.getElementValues().entrySet()) {
+				if (entry.getKey().getSimpleName().contentEquals("value")
+						&& !entry.getValue().getValue().toString().isEmpty())
+					property.member = entry.getValue().getValue().toString();
+			}
+			property.serializer = classValue(annotation, "serializer");
+			property.deserializer = classValue(annotation, "deserializer");
+		}
+
+		boolean bool = fieldType.getKind() == TypeKind.BOOLEAN
+				|| types.isSameType(fieldType, types.boxedClass(types.getPrimitiveType(TypeKind.BOOLEAN)).asType());
+		for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+			Set<Modifier> modifiers = method.getModifiers();
+			if (!modifiers.contains(Modifier.PUBLIC) || modifiers.contains(Modifier.STATIC))
+				continue;
+			String methodName = method.getSimpleName().toString();
+			if (method.getParameters().isEmpty() && types.isSameType(method.getReturnType(), fieldType)
+					&& (methodName.equals("get" + capitalized) || (bool && methodName.equals("is" + capitalized)))) {
+				if (property.read == null || methodName.startsWith("get"))
+					property.read = methodName + "()";
+			} else if (methodName.equals("set" + capitalized) && method.getParameters().size() == 1
+					&& method.getReturnType().getKind() == TypeKind.VOID
+					&& types.isSameType(method.getParameters().get(0).asType(), fieldType)) {
+				property.setter = methodName;
+			}
+		}
+		if (property.read == null && fieldAccessible)
+			property.read = name;
+		property.writable = property.setter != null
+				|| (fieldAccessible && !field.getModifiers().contains(Modifier.FINAL));
+		if (property.read == null || (!property.writable && !field.getModifiers().contains(Modifier.FINAL)))
+			return null;
+		return property;
+	}
+
+	private static AnnotationMirror annotation(Element element, String annotationType) {
+		for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+			TypeElement annotation = (TypeElement) mirror.getAnnotationType().asElement();
+			if (annotation.getQualifiedName().contentEquals(annotationType))
+				return mirror;
+		}
+		return null;
+	}
+
+	/**
+	 * classValue: a class set on the annotation
+	 *
+	 * @return null if it is not set or Void
+	 */
+	private static TypeMirror classValue(AnnotationMirror annotation, String name) {
+		if (annotation == null)
+			return null;
+		for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : annotation.getElementValues()
+				.entrySet()) {
+			if (!entry.getKey().getSimpleName().contentEquals(name))
+				continue;
+			TypeMirror value = (TypeMirror) entry.getValue().getValue();
+			if (value.toString().equals("java.lang.Void"))
+				return null;
+			return value;
+		}
+		return null;
+	}
+
+	/**
+	 * literal: java string literal of a value
+	 */
+	private static String literal(String value) {
+		StringBuilder sb = new StringBuilder(value.length() + 2);
+		sb.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '"' || c == '\\') {
+				sb.append('\\').append(c);
+			} else if (c < 0x20 || c > 0x7E) {
+				sb.append(String.format("\\u%04x", (int) c));
+			} else {
+				sb.append(c);
+			}
+		}
+		return sb.append('"').toString();
+	}
+
+	private final String classLiteral(TypeMirror type) {
+		return processingEnv.getTypeUtils().erasure(type).toString() + ".class";
+	}
+
+	/**
+	 * actualTypes: element classes of a collection or map property, as trailing
+	 * arguments of readObject
+	 */
+	private final String actualTypes(TypeMirror type) {
+		StringBuilder sb = new StringBuilder();
+		if (type.getKind() == TypeKind.DECLARED) {
+			for (TypeMirror argument : ((DeclaredType) type).getTypeArguments()) {
+				if (argument.getKind() != TypeKind.DECLARED)
+					return "";
+				sb.append(", ").append(classLiteral(argument));
+			}
+		}
+		return sb.toString();
+	}
+
+	private final String source(String packageName, String workerName, String beanName, List<Property> properties) {
+		StringBuilder sb = new StringBuilder(2048);
+		if (!packageName.isEmpty())
+			sb.append("package ").append(packageName).append(";\n\n");
+		sb.append("import java.io.IOException;\n\n");
+		sb.append("import com.github.alexmao86.json.GeneratedJsonWorker;\n");
+		sb.append("import com.github.alexmao86.json.JsonElement;\n");
+		sb.append("import com.github.alexmao86.json.JsonParseException;\n");
+		sb.append("import com.github.alexmao86.json.JsonSystem;\n");
+		sb.append("import com.github.alexmao86.json.JsonTokenReader;\n");
+		sb.append("import com.github.alexmao86.json.io.CharSequenceOutputSink;\n\n");
+		sb.append("/**\n * Generated by JsonWorkerProcessor for {@link ").append(beanName)
+				.append("}, do not edit.\n */\n");
+		sb.append("@SuppressWarnings({ \"rawtypes\", \"unchecked\" })\n");
+		sb.append("public final class ").append(workerName).append(" extends GeneratedJsonWorker<").append(beanName)
+				.append("> {\n");
+		for (int i = 0; i < properties.size(); i++) {
+			sb.append("\tprivate static final String MEMBER_").append(i).append(" = member(")
+					.append(literal(properties.get(i).member)).append(");\n");
+		}
+		sb.append("\n\tpublic ").append(workerName).append("() {\n\t\tsuper(").append(beanName).append(".class");
+		for (Property property : properties) {
+			sb.append(", ").append(literal(property.member));
+		}
+		sb.append(");\n\t}\n\n");
+
+		sb.append("\t@Override\n\tprotected ").append(beanName).append(" newInstance() {\n\t\treturn new ")
+				.append(beanName).append("();\n\t}\n\n");
+
+		sb.append("\t@Override\n\tprotected void writeMembers(").append(beanName)
+				.append(" bean, JsonSystem context, CharSequenceOutputSink out) throws IOException {\n");
+		sb.append("\t\tboolean first = true;\n");
+		for (int i = 0; i < properties.size(); i++) {
+			Property property = properties.get(i);
+			String value = "bean." + property.read;
+			String member = "MEMBER_" + i;
+			sb.append("\t\tfirst = ");
+			TypeKind kind = property.type.getKind();
+			if (property.serializer != null) {
+				sb.append("writeObject(first, ").append(member).append(", ").append(classLiteral(property.serializer))
+						.append(", ").append(value);
+			} else if (kind == TypeKind.BOOLEAN) {
+				sb.append("writeBoolean(first, ").append(member).append(", ").append(value);
+			} else if (kind == TypeKind.BYTE || kind == TypeKind.SHORT || kind == TypeKind.CHAR
+					|| kind == TypeKind.INT) {
+				sb.append("writeInt(first, ").append(member).append(", ").append(classLiteral(property.type))
+						.append(", ").append(value);
+			} else if (kind == TypeKind.LONG) {
+				sb.append("writeLong(first, ").append(member).append(", ").append(value);
+			} else if (kind == TypeKind.FLOAT) {
+				sb.append("writeFloat(first, ").append(member).append(", ").append(value);
+			} else if (kind == TypeKind.DOUBLE) {
+				sb.append("writeDouble(first, ").append(member).append(", ").append(value);
+			} else {
+				sb.append("writeObject(first, ").append(member).append(", ").append(classLiteral(property.type))
+						.append(", ").append(value);
+			}
+			sb.append(", context, out);\n");
+		}
+		sb.append("\t}\n\n");
+
+		sb.append("\t@Override\n\tprotected void readMember(").append(beanName)
+				.append(" bean, String name, JsonElement json, JsonSystem context) throws JsonParseException {\n");
+		sb.append("\t\tswitch (name) {\n");
+		for (Property property : properties) {
+			if (!property.writable)
+				continue;
+			sb.append("\t\tcase ").append(literal(property.member)).append(": {\n");
+			readCase(sb, property, "json");
+		}
+		sb.append("\t\tdefault:\n\t\t\tbreak;\n\t\t}\n\t}\n\n");
+
+		sb.append("\t@Override\n\tprotected void readMember(").append(beanName)
+				.append(" bean, int index, JsonTokenReader reader, JsonSystem context)")
+				.append(" throws IOException, JsonParseException {\n");
+		sb.append("\t\tswitch (index) {\n");
+		for (int i = 0; i < properties.size(); i++) {
+			Property property = properties.get(i);
+			if (!property.writable)
+				continue;
+			sb.append("\t\tcase ").append(i).append(": {\n");
+			readCase(sb, property, "reader");
+		}
+		sb.append("\t\tdefault:\n\t\t\treader.skipValue();\n\t\t\tbreak;\n\t\t}\n\t}\n}\n");
+		return sb.toString();
+	}
+
+	/**
+	 * readCase: statements of one case of readMember, setting the property from
+	 * the value in given source, json or reader
+	 */
+	private final void readCase(StringBuilder sb, Property property, String source) {
+		TypeKind kind = property.type.getKind();
+		String typeName = property.type.toString();
+		String value;
+		if (property.deserializer != null || !property.type.getKind().isPrimitive()) {
+			String deserializer = property.deserializer != null ? classLiteral(property.deserializer)
+					: classLiteral(property.type);
+			value = "readObject(" + deserializer + ", " + classLiteral(property.type) + ", " + source + ", context"
+					+ actualTypes(property.type) + ")";
+		} else if (kind == TypeKind.BOOLEAN) {
+			value = "readBoolean(" + source + ", context)";
+		} else if (kind == TypeKind.INT) {
+			value = "readInt(int.class, " + source + ", context)";
+		} else if (kind == TypeKind.BYTE || kind == TypeKind.SHORT || kind == TypeKind.CHAR) {
+			value = "(" + typeName + ") readInt(" + typeName + ".class, " + source + ", context)";
+		} else if (kind == TypeKind.LONG) {
+			value = "readLong(" + source + ", context)";
+		} else if (kind == TypeKind.FLOAT) {
+			value = "readFloat(" + source + ", context)";
+		} else {
+			value = "readDouble(" + source + ", context)";
+		}
+		if (value.startsWith("readObject")) {
+			// deserialized null is not set
+			String cast = kind.isPrimitive()
+					? "(" + processingEnv.getTypeUtils().boxedClass((PrimitiveType) property.type).getQualifiedName()
+							+ ") "
+					: "(" + typeName + ") ";
+			sb.append("\t\t\tObject value = ").append(value).append(";\n");
+			sb.append("\t\t\tif (value != null)\n\t\t\t\t").append(assign(property, cast + "value")).append(";\n");
+		} else {
+			sb.append("\t\t\t").append(assign(property, value)).append(";\n");
+		}
+		sb.append("\t\t\tbreak;\n\t\t}\n");
+	}
+
+	private static String assign(Property property, String value) {
+		if (property.setter != null)
+			return "bean." + property.setter + "(" + value + ")";
+		return "bean." + property.field + " = " + value;
+	}
+
+	/**
+	 * writeServices: list generated workers for ServiceLoader, with the ones
+	 * listed by former compilations to the same output, so an incremental
+	 * compile keeps workers of classes it did not process. Listed workers whose
+	 * class is gone are dropped.
+	 */
+	private final void writeServices() {
+		if (workers.isEmpty())
+			return;
+		Set<String> listed = new LinkedHashSet<String>();
+		try {
+			FileObject existing = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", SERVICE);
+			BufferedReader reader = new BufferedReader(existing.openReader(true));
+			try {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					line = line.trim();
+					if (!line.isEmpty() && !line.startsWith("#")
+							&& processingEnv.getElementUtils().getTypeElement(line) != null)
+						listed.add(line);
+				}
+			} finally {
+				reader.close();
+			}
+		} catch (IOException e) {
+			// not listed before
+		}
+		listed.addAll(workers);
+		try {
+			FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE);
+			Writer writer = file.openWriter();
+			try {
+				for (String worker : listed) {
+					writer.write(worker);
+					writer.write('\n');
+				}
+			} finally {
+				writer.close();
+			}
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Kind.ERROR, "can not write " + SERVICE + ": " + e);
+		}
+	}
+}
@@ -0,0 +1,253 @@
+package com.github.alexmao86.json;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * ClassName: CorpusGenerator writes synthetic json documents to measure how
+ * reading and writing scale. A document is an array of objects written until
+ * it reaches the requested size, so documents of gigabytes are streamed and
+ * never held in memory. The same seed and settings always give the same
+ * document.<br/>
+ * Settings are: size in chars, max nesting depth, count of distinct member
+ * names, share of strings among scalars (the rest are numbers), share of chars
+ * in strings which must be escaped, and share of non ASCII chars in strings,
+ * supplementary ones included.<br/>
+ *
+ * @author
+ */
+public final class CorpusGenerator {
+	private static final char[] ESCAPED = { '"', '\\', '/', '\n', '\r', '\t', '\b', '\f', '\u0001', '\u001f' };
+	private static final String[] UNICODE = { "\u00e9", "\u00df", "\u0436", "\u03a9", "\u4e2d", "\u6587",
+			"\uac00", "\u20ac", "\ud83d\ude00", "\ud834\udd1e" };
+	private static final String LETTERS = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789 ";
+
+	private long seed = 1;
+	private long size = 64 * 1024;
+	private int depth = 4;
+	private int keys = 32;
+	private double stringRatio = 0.5;
+	private double escapeDensity = 0;
+	private double unicodeRatio = 0;
+
+	public final CorpusGenerator seed(long seed) {
+		this.seed = seed;
+		return this;
+	}
+
+	/**
+	 * size: chars of the document, it ends with the first element over it
+	 */
+	public final CorpusGenerator size(long size) {
+		if (size < 2)
+			throw new IllegalArgumentException("size must be at least 2: " + size);
+		this.size = size;
+		return this;
+	}
+
+	/**
+	 * depth: max nesting of arrays and objects, the top array included
+	 */
+	public final CorpusGenerator depth(int depth) {
+		if (depth < 2)
+			throw new IllegalArgumentException("depth must be at least 2: " + depth);
+		this.depth = depth;
+		return this;
+	}
+
+	/**
+	 * keys: count of distinct member names in the document
+	 */
+	public final CorpusGenerator keys(int keys) {
+		if (keys < 1)
+			throw new IllegalArgumentException("keys must be positive: " + keys);
+		this.keys = keys;
+		return this;
+	}
+
+	public final CorpusGenerator stringRatio(double stringRatio) {
+		this.stringRatio = ratio(stringRatio);
+		return this;
+	}
+
+	public final CorpusGenerator escapeDensity(double escapeDensity) {
+		this.escapeDensity = ratio(escapeDensity);
+		return this;
+	}
+
+	public final CorpusGenerator unicodeRatio(double unicodeRatio) {
+		this.unicodeRatio = ratio(unicodeRatio);
+		return this;
+	}
+
+	private static double ratio(double value) {
+		if (value < 0 || value > 1)
+			throw new IllegalArgumentException("ratio must be in [0, 1]: " + value);
+		return value;
+	}
+
+	/**
+	 * generate: the document as a string, for documents which fit in memory
+	 */
+	public final String generate() {
+		StringWriter out = new StringWriter((int) Math.min(size + 1024, 1 << 26));
+		try {
+			write(out);
+		} catch (IOException e) {// not thrown by string writer
+			throw new UncheckedIOException(e);
+		}
+		return out.toString();
+	}
+
+	/**
+	 * write: write the document as UTF-8 file
+	 */
+	public final void write(Path path) throws IOException {
+		try (Writer out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+			write(out);
+		}
+	}
+
+	/**
+	 * write: stream the document to the writer, the writer is not closed
+	 */
+	public final void write(Writer writer) throws IOException {
+		Output out = new Output(writer);
+		Random random = new Random(seed);
+		out.write('[');
+		boolean first = true;
+		while (first || out.count < size - 1) {
+			if (!first)
+				out.write(',');
+			writeObject(out, random, 2);
+			first = false;
+		}
+		out.write(']');
+		out.flush();
+	}
+
+	/**
+	 * Output counts the chars written
+	 */
+	private static final class Output {
+		private final Writer writer;
+		private long count = 0;
+
+		private Output(Writer writer) {
+			this.writer = writer;
+		}
+
+		private void write(char c) throws IOException {
+			writer.write(c);
+			count++;
+		}
+
+		private void write(String s) throws IOException {
+			writer.write(s);
+			count += s.length();
+		}
+
+		private void flush() throws IOException {
+			writer.flush();
+		}
+	}
+
+	private final void writeValue(Output out, Random random, int level) throws IOException {
+		if (level < depth && random.nextInt(4) == 0) {
+			if (random.nextBoolean())
+				writeObject(out, random, level + 1);
+			else
+				writeArray(out, random, level + 1);
+		} else if (random.nextDouble() < stringRatio) {
+			writeString(out, random);
+		} else if (random.nextBoolean()) {
+			out.write(Long.toString(random.nextInt()));
+		} else {
+			out.write(Double.toString(random.nextInt(2000000) / 1000.0 - 1000));
+		}
+	}
+
+	private final void writeObject(Output out, Random random, int level) throws IOException {
+		int members = 1 + random.nextInt(Math.min(8, keys));
+		int start = random.nextInt(keys);
+		out.write('{');
+		for (int i = 0; i < members; i++) {
+			if (i > 0)
+				out.write(',');
+			// consecutive names are distinct in one object
+			out.write('"');
+			out.write(key((start + i) % keys));
+			out.write("\":");
+			writeValue(out, random, level);
+		}
+		out.write('}');
+	}
+
+	private final void writeArray(Output out, Random random, int level) throws IOException {
+		int elements = random.nextInt(6);
+		out.write('[');
+		for (int i = 0; i < elements; i++) {
+			if (i > 0)
+				out.write(',');
+			writeValue(out, random, level);
+		}
+		out.write(']');
+	}
+
+	private static String key(int index) {
+		return "key" + Integer.toString(index, 36);
+	}
+
+	private final void writeString(Output out, Random random) throws IOException {
+		int length = 1 + random.nextInt(24);
+		out.write('"');
+		for (int i = 0; i < length; i++) {
+			double dice = random.nextDouble();
+			if (dice < escapeDensity) {
+				writeEscaped(out, ESCAPED[random.nextInt(ESCAPED.length)]);
+			} else if (dice < escapeDensity + unicodeRatio) {
+				out.write(UNICODE[random.nextInt(UNICODE.length)]);
+			} else {
+				out.write(LETTERS.charAt(random.nextInt(LETTERS.length())));
+			}
+		}
+		out.write('"');
+	}
+
+	private static void writeEscaped(Output out, char c) throws IOException {
+		switch (c) {
+		case '"':
+			out.write("\\\"");
+			break;
+		case '\\':
+			out.write("\\\\");
+			break;
+		case '/':
+			out.write("\\/");
+			break;
+		case '\n':
+			out.write("\\n");
+			break;
+		case '\r':
+			out.write("\\r");
+			break;
+		case '\t':
+			out.write("\\t");
+			break;
+		case '\b':
+			out.write("\\b");
+			break;
+		case '\f':
+			out.write("\\f");
+			break;
+		default:
+			out.write(String.format("\\u%04x", (int) c));
+		}
+	}
+}
@@ -0,0 +1,32 @@
+package com.github.alexmao86.json;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import junit.framework.TestCase;
+
+public class CorpusGeneratorTest extends TestCase {
+	public void testReproducible() {
+		CorpusGenerator generator = new CorpusGenerator().seed(42).size(16 * 1024);
+		String document = generator.generate();
+		assertEquals(document, generator.generate());
+		assertEquals(document, new CorpusGenerator().seed(42).size(16 * 1024).generate());
+		assertFalse(document.equals(new CorpusGenerator().seed(43).size(16 * 1024).generate()));
+		assertTrue(document.length() >= 16 * 1024);
+		assertTrue(document.length() < 20 * 1024);
+	}
+
+	public void testReadAndWrite() throws IOException, JsonParseException {
+		JsonReader reader = new JsonReader();
+		JsonWriter writer = new JsonWriter();
+		for (int depth = 2; depth <= 32; depth *= 4) {
+			String document = new CorpusGenerator().seed(depth).size(32 * 1024).depth(depth).keys(depth * 10)
+					.stringRatio(0.7).escapeDensity(0.1).unicodeRatio(0.2).generate();
+			reader.setMaxDepth(depth);
+			JsonElement tree = reader.parse(document);
+			String written = writer.stringify(tree);
+			assertEquals(written, writer.stringify(reader.parse(written)));
+			assertEquals(written, writer.stringify(reader.parse(document.getBytes(StandardCharsets.UTF_8))));
+		}
+	}
+}
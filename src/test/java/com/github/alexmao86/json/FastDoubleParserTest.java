@@ -0,0 +1,82 @@
+package com.github.alexmao86.json;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class FastDoubleParserTest {
+	private static final int ROUNDS = 50000;
+
+	private static void check(String text) {
+		assertEquals(text, Double.doubleToRawLongBits(Double.parseDouble(text)),
+				Double.doubleToRawLongBits(NumberLiteral.parseDouble(text)));
+		assertEquals(text, Float.floatToRawIntBits(Float.parseFloat(text)),
+				Float.floatToRawIntBits(NumberLiteral.parseFloat(text)));
+	}
+
+	@Test
+	public void testEdgeCases() {
+		String[] texts = { "0", "-0.0", "0e500", "1", "-1.5", "0.1", "3.1415926", "1e22", "1e23", "9007199254740993",
+				"4.9e-324", "2.4703282292062327e-324", "2.4703282292062328e-324", "2.2250738585072011e-308",
+				"2.2250738585072014e-308", "1.7976931348623157e308", "1.7976931348623158e308", "1.7976931348623159e308",
+				"1e309", "1e-400", "1.4e-45", "7.006492321624085e-46", "3.4028235e38", "3.4028236e38",
+				"123456789012345678901234567890", "0.000000000000000000000000000001234567890123456789012345",
+				"18446744073709551615", "18446744073709551616e-10", "1.00000000000000011102230246251565404236316680908203125",
+				"1.00000000000000011102230246251565404236316680908203124",
+				"1.00000000000000011102230246251565404236316680908203126" };
+		for (String text : texts) {
+			check(text);
+		}
+	}
+
+	@Test
+	public void testRandomDoubles() {
+		Random random = new Random(20260101L);
+		for (int i = 0; i < ROUNDS; i++) {
+			double d = Double.longBitsToDouble(random.nextLong());
+			if (Double.isNaN(d) || Double.isInfinite(d))
+				continue;
+			check(Double.toString(d));
+			check(String.format("%.17e", d));
+			float f = Float.intBitsToFloat(random.nextInt());
+			if (!Float.isNaN(f) && !Float.isInfinite(f))
+				check(Float.toString(f));
+		}
+	}
+
+	@Test
+	public void testRandomDigits() {
+		Random random = new Random(7L);
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < ROUNDS; i++) {
+			builder.setLength(0);
+			int length = 1 + random.nextInt(25);
+			for (int k = 0; k < length; k++) {
+				builder.append((char) ('0' + random.nextInt(10)));
+			}
+			if (random.nextBoolean())
+				builder.insert(random.nextInt(length), '.');
+			builder.append('e').append(random.nextInt(700) - 350);
+			check(builder.toString());
+		}
+	}
+
+	@Test
+	public void testHalfway() {
+		Random random = new Random(42L);
+		for (int i = 0; i < ROUNDS / 10; i++) {
+			double d = Math.abs(Double.longBitsToDouble(random.nextLong()));
+			if (Double.isNaN(d) || Double.isInfinite(d) || d == Double.MAX_VALUE)
+				continue;
+			BigDecimal low = new BigDecimal(d);
+			BigDecimal high = new BigDecimal(Math.nextUp(d));
+			BigDecimal middle = low.add(high).divide(BigDecimal.valueOf(2));
+			check(middle.toString());
+			check(middle.add(BigDecimal.ONE.movePointLeft(middle.scale() + 1)).toString());
+			check(middle.subtract(BigDecimal.ONE.movePointLeft(middle.scale() + 1)).toString());
+		}
+	}
+}
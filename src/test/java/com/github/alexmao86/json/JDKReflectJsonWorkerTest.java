@@ -0,0 +1,287 @@
+package com.github.alexmao86.json;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import com.github.alexmao86.json.annotation.JsonSerializable;
+
+import junit.framework.TestCase;
+
+public class JDKReflectJsonWorkerTest extends TestCase {
+	public static class PrimitiveBean {
+		private boolean b = true;
+		private byte by = -3;
+		private char c = '"';
+		private short s = 300;
+		private int i = -70000;
+		private long l = Long.MIN_VALUE;
+		private float f = 1.5f;
+		private double d = -2.25;
+		private String name;
+
+		public String getName() {
+			return name;
+		}
+
+		// setter wins over field, and is called once
+		public void setName(String name) {
+			this.name = this.name == null ? name.toUpperCase() : this.name + name;
+		}
+	}
+
+	public static class RejectingBean {
+		private String name;
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(String name) {
+			throw new IllegalStateException("rejected " + name);
+		}
+	}
+
+	@JsonSerializable(deserializer = NameReader.class)
+	public static class AnnotatedBean {
+		private String name;
+	}
+
+	/**
+	 * key of the deserializer of {@link AnnotatedBean}
+	 */
+	public static class NameReader {
+	}
+
+	private TestBean p;
+	JsonReader reader = new JsonReader();
+	JsonWriter writer = new JsonWriter();
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		initClass();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		super.tearDown();
+	}
+
+	@Test
+	public void test() throws IOException, JsonParseException {
+		// object
+		String jsonStringObject = writer.stringify(p);
+		TestBean testBean = reader.parse(jsonStringObject, TestBean.class);
+		System.out.print("\n" + jsonStringObject);
+
+	}
+
+	public void testContextSerializers() {
+		JsonWriter custom = new JsonWriter();
+		custom.registerJsonSerializer(new JsonSerializer<Integer>() {
+			public Class<Integer> supportedType() {
+				return Integer.class;
+			}
+
+			@Override
+			public String serialize(Integer object, JsonSystem context) {
+				return "\"#" + object + "\"";
+			}
+		});
+		// field definitions are shared, serializers come from each context
+		assertTrue(writer.stringify(p).contains("\"in\":1,"));
+		assertTrue(custom.stringify(p).contains("\"in\":\"#1\","));
+		assertTrue(writer.stringify(p).contains("\"in\":1,"));
+	}
+
+	public void testConcurrent() throws Exception {
+		final String expected = writer.stringify(p);
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<String>> results = new ArrayList<>();
+			for (int i = 0; i < 64; i++) {
+				results.add(pool.submit(() -> new JsonWriter().stringify(p)));
+			}
+			for (Future<String> result : results) {
+				assertEquals(expected, result.get());
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	public void testPrimitiveAccessors() throws IOException, JsonParseException {
+		PrimitiveBean bean = new PrimitiveBean();
+		bean.name = "n";
+		String json = writer.stringify(bean);
+		assertEquals("{\"b\":true,\"by\":-3,\"c\":\"\\\"\",\"s\":300,\"i\":-70000,\"l\":-9223372036854775808,"
+				+ "\"f\":1.5,\"d\":-2.25,\"name\":\"n\"}", json);
+		PrimitiveBean read = reader.parse(json.replace("true", "false").replace("300", "301"), PrimitiveBean.class);
+		assertFalse(read.b);
+		assertEquals(-3, read.by);
+		assertEquals('"', read.c);
+		assertEquals(301, read.s);
+		assertEquals(-70000, read.i);
+		assertEquals(Long.MIN_VALUE, read.l);
+		assertEquals(1.5f, read.f);
+		assertEquals(-2.25, read.d);
+		assertEquals("N", read.name);
+	}
+
+	public void testPrimitiveNarrowing() throws IOException, JsonParseException {
+		PrimitiveBean read = reader.parse("{\"i\":1e3,\"l\":-2.0E1,\"f\":3.84060367658222E-36}", PrimitiveBean.class);
+		assertEquals(1000, read.i);
+		assertEquals(-20, read.l);
+		assertEquals(Float.parseFloat("3.84060367658222E-36"), read.f);
+		String[] outOfRange = { "{\"i\":3000000000}", "{\"s\":70000}", "{\"by\":300}", "{\"i\":1.5}",
+				"{\"l\":1e19}", "{\"by\":2e2}" };
+		for (String json : outOfRange) {
+			try {
+				reader.parse(json, PrimitiveBean.class);
+				fail(json + " is out of range");
+			} catch (NumberFormatException e) {
+			}
+		}
+	}
+
+	public void testSetterFailure() throws IOException {
+		try {
+			reader.parse("{\"name\":\"n\"}", RejectingBean.class);
+			fail("setter failure is reported");
+		} catch (JsonParseException e) {
+			assertEquals("rejected n", e.getCause().getCause().getMessage());
+		}
+		try {
+			new JDKReflectJsonWorker().deserialize(reader.parse("{\"name\":\"n\"}"), (Class) RejectingBean.class,
+					reader);
+			fail("setter failure is reported");
+		} catch (JsonParseException e) {
+			assertEquals("rejected n", e.getCause().getCause().getMessage());
+		}
+	}
+
+	public void testGeneratedCodec() throws IOException, JsonParseException {
+		JsonWriter generatedWriter = new JsonWriter();
+		generatedWriter.setGeneratedCodecs(true);
+		JsonReader generatedReader = new JsonReader();
+		generatedReader.setGeneratedCodecs(true);
+		assertEquals(writer.stringify(p), generatedWriter.stringify(p));
+
+		PrimitiveBean bean = new PrimitiveBean();
+		bean.name = "n";
+		String json = generatedWriter.stringify(bean);
+		assertEquals(writer.stringify(bean), json);
+		PrimitiveBean read = generatedReader.parse(json.replace("300", "301"), PrimitiveBean.class);
+		assertEquals(301, read.s);
+		assertEquals(Long.MIN_VALUE, read.l);
+		assertEquals("N", read.name);
+
+		TestBean testBean = generatedReader.parse(json = generatedWriter.stringify(p), TestBean.class);
+		assertEquals(json, writer.stringify(testBean));
+		assertEquals('a', testBean.getCh());
+		assertEquals("1", testBean.getCol().iterator().next());
+
+		JsonWriter registered = new JsonWriter();
+		registered.registerGeneratedCodec(TestBean.class);
+		assertTrue(registered.queryJsonSerializer(TestBean.class) instanceof BeanCodec);
+		assertEquals(writer.stringify(p), registered.stringify(p));
+		try {
+			registered.registerGeneratedCodec(new Object() {
+			}.getClass());
+			fail();
+		} catch (IllegalArgumentException e) {
+			// anonymous class
+		}
+	}
+
+	public void testGeneratedCodecStream() throws IOException, JsonParseException {
+		JsonReader registered = new JsonReader();
+		registered.registerGeneratedCodec(PrimitiveBean.class);
+		JsonReader generated = new JsonReader();
+		generated.setGeneratedCodecs(true);
+		for (JsonReader codecReader : new JsonReader[] { registered, generated }) {
+			// members are set as they come, a tree would keep the last one only
+			PrimitiveBean read = codecReader.parse(
+					"{\"x\":{\"y\":[1]},\"name\":\"a\",\"s\":-2.0E1,\"d\":null,\"name\":\"b\","
+							+ "\"f\":3.84060367658222E-36}",
+					PrimitiveBean.class);
+			assertEquals("Ab", read.name);
+			assertEquals(-20, read.s);
+			assertEquals(-2.25, read.d);
+			assertEquals(Float.parseFloat("3.84060367658222E-36"), read.f);
+			try {
+				codecReader.parse("{\"by\":300}", PrimitiveBean.class);
+				fail("300 is out of byte range");
+			} catch (NumberFormatException e) {
+			}
+		}
+		assertNull(registered.parse("null", PrimitiveBean.class));
+	}
+
+	public void testAnnotatedDeserializerStream() throws IOException, JsonParseException {
+		JsonReader annotated = new JsonReader();
+		annotated.registerJsonDeserializer(new JsonStreamDeserializer<Object>() {
+			@SuppressWarnings("unchecked")
+			@Override
+			public Class<Object> supportedType() {
+				return (Class) NameReader.class;
+			}
+
+			@Override
+			public Object deserialize(JsonElement json, Class<Object> targetClass, JsonSystem context,
+					Class... actualTypes) {
+				throw new AssertionError("bean is read from the tokens");
+			}
+
+			@Override
+			public Object deserialize(JsonTokenReader reader, Class<Object> targetClass, JsonSystem context,
+					Class... actualTypes) throws IOException, JsonParseException {
+				AnnotatedBean bean = new AnnotatedBean();
+				reader.beginObject();
+				reader.nextName();
+				bean.name = reader.nextString();
+				reader.endObject();
+				return bean;
+			}
+		});
+		assertEquals("n", annotated.parse("{\"name\":\"n\"}", AnnotatedBean.class).name);
+		// no deserializer is registered for the named class, the bean is reflected
+		assertEquals("n", reader.parse("{\"name\":\"n\"}", AnnotatedBean.class).name);
+		assertEquals("n", ((AnnotatedBean) new JDKReflectJsonWorker().deserialize(reader.parse("{\"name\":\"n\"}"),
+				(Class) AnnotatedBean.class, reader)).name);
+	}
+
+	public void initClass() {
+		Map<String, String> map = new HashMap();
+		map.put("1", "1");
+		List<String> list = new ArrayList();
+		list.add("1");
+		p = new TestBean();
+		p.setBol(true);
+		p.setBy((byte) 1);
+		p.setCh('a');
+		p.setSho((short) 1);
+		p.setIn(1);
+		p.setLon(1);
+		p.setFlo(1);
+		p.setDou(1);
+		/*
+		 * p.setStrArray(new String[] {"1"}); p.setByArray(new byte[] {1});
+		 * p.setBolArray(new boolean[] {true}); p.setCharArray(new char[] {'a'});
+		 * p.setDoubleArray(new double[] {1.0}); p.setFloatArray(new float[] {1});
+		 * p.setIntArray(new int[] {1}); p.setLongArray(new long[] {1});
+		 * p.setShortArray(new short[] {1});
+		 */
+		p.setMap(map);
+		p.setCol(list);
+	}
+}
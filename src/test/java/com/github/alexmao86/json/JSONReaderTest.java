@@ -10,10 +10,16 @@ import com.github.alexmao86.json.JsonElement;
 import com.github.alexmao86.json.JsonNull;
 import com.github.alexmao86.json.JsonParseException;
 import com.github.alexmao86.json.JsonReader;
+import com.github.alexmao86.json.io.StringInputSource;
 
 import junit.framework.TestCase;
 
 public class JSONReaderTest extends TestCase {
+	public static class Team {
+		private UserBean leader;
+		private int size;
+	}
+
 	JsonReader jsonReader;
 
 	@Override
@@ -52,6 +58,77 @@ public class JSONReaderTest extends TestCase {
 		assertEquals(5.0f, result.getAsFloatAt(4));
 	}
 
+	public void testParseTypedLiterals() throws IOException, JsonParseException {
+		JsonElement result = parse(
+				"[12, -9223372036854775808, 92233720368547758070, 0.25, 1e3, 3.14159265358979323846, true, null, 12a]");
+		assertTrue(result.getAsJSONElementAt(0) instanceof JsonLong);
+		assertEquals(12, result.getAsIntAt(0));
+		assertEquals(Long.MIN_VALUE, result.getAsLongAt(1));
+		assertEquals(new java.math.BigInteger("92233720368547758070"), result.getAsBigIntegerAt(2));
+		assertTrue(result.getAsJSONElementAt(3) instanceof JsonDouble);
+		assertEquals(0.25d, result.getAsDoubleAt(3));
+		assertEquals(1000L, result.getAsLongAt(4));
+		assertEquals(new java.math.BigDecimal("3.14159265358979323846"), result.getAsBigDecimalAt(5));
+		assertSame(JsonUncertain.TRUE, result.getAsJSONElementAt(6));
+		assertSame(JsonNull.INSTANCE, result.getAsJSONElementAt(7));
+		assertEquals("12a", result.getAsStringAt(8));
+	}
+
+	public void testNarrowingOutOfRange() throws IOException, JsonParseException {
+		JsonElement result = parse("{\"a\":3000000000,\"b\":300,\"c\":70000,\"d\":1.5,\"e\":1e2,\"f\":1.50}");
+		assertEquals(3000000000L, result.getAsLong("a"));
+		assertNarrowingFails(result.getAsJSONElement("a"));
+		assertEquals(300, result.getAsInt("b"));
+		assertEquals(300, result.getAsShort("b"));
+		try {
+			result.getAsByte("b");
+			fail("300 is out of byte range");
+		} catch (NumberFormatException e) {
+		}
+		assertEquals(70000, result.getAsInt("c"));
+		try {
+			result.getAsShort("c");
+			fail("70000 is out of short range");
+		} catch (NumberFormatException e) {
+		}
+		assertNarrowingFails(result.getAsJSONElement("d"));
+		assertEquals(100, result.getAsInt("e"));
+		// decimals are written as they are read
+		assertEquals("{\"a\":3000000000,\"b\":300,\"c\":70000,\"d\":1.5,\"e\":1e2,\"f\":1.50}",
+				result.toString());
+	}
+
+	public void testDecimalLeaves() throws IOException, JsonParseException {
+		JsonElement result = parse("[-0,1.5,1.50,0.1e1,-0.0,12345.678]");
+		assertEquals(Double.doubleToRawLongBits(-0.0), Double.doubleToRawLongBits(result.getAsDoubleAt(0)));
+		assertEquals(0, result.getAsLongAt(0));
+		assertEquals(1.5, result.getAsDoubleAt(1));
+		assertEquals("[-0,1.5,1.50,0.1e1,-0.0,12345.678]", result.toString());
+		assertEquals("12345.678", result.getAsStringAt(5));
+		// leaves are primitives of the tree API
+		JsonElement leaf = result.getAsJSONElementAt(2);
+		assertTrue(leaf.isJSONUncertain());
+		assertEquals("1.50", leaf.getAsJSONUncertain().getAsString());
+		assertEquals(1.5, leaf.getAsJSONUncertain().getAsDouble());
+		assertEquals(1.5, leaf.getAsDoubleAt(0));
+		assertEquals(0L, new JsonTokenReader(new StringInputSource("-0")).nextLong());
+	}
+
+	public void testFloatRoundedOnce() throws IOException, JsonParseException {
+		// rounded to double first, then to float, this one is off by one ulp
+		String literal = "3.84060367658222E-36";
+		assertTrue(Float.parseFloat(literal) != (float) Double.parseDouble(literal));
+		assertEquals(Float.parseFloat(literal), parse("[" + literal + "]").getAsFloatAt(0));
+	}
+
+	private static void assertNarrowingFails(JsonElement element) {
+		try {
+			element.getAsInt();
+			fail(element + " is not an int");
+		} catch (NumberFormatException e) {
+		}
+	}
+
 	public void testParseString() throws IOException, JsonParseException {
 		String json = loadTestTestFile("string");
 		JsonElement result = parse(json);
@@ -157,6 +234,29 @@ public class JSONReaderTest extends TestCase {
 		assertEquals("SNORUS", result.getAsJSONObjectAt(1).getAsString("company"));
 	}
 
+	@SuppressWarnings("unchecked")
+	public void testParseBean() throws IOException, JsonParseException {
+		String json = "{\"skip\":{\"a\":[1,{\"b\":null}],\"c\":\"x\"},\"leader\":{\"name\":\"n\\\"q\",\"age\":41.0,"
+				+ "\"salary\":\"2.5\",\"address\":null,\"extra\":[true]},\"size\":3}";
+		// bound from tokens, same as bound from the tree
+		Team team = jsonReader.parse(json, Team.class);
+		Team fromTree = (Team) jsonReader.queryJsonDeserializer(Team.class).deserialize(jsonReader.parse(json),
+				Team.class, jsonReader);
+		assertEquals(3, team.size);
+		assertEquals(new UserBean("n\"q", null, 41, 2.5f), team.leader);
+		assertEquals(fromTree.leader, team.leader);
+		assertEquals(fromTree.size, team.size);
+		// escaped and unquoted names
+		assertEquals(4, jsonReader.parse("{\"si\\u007ae\":4}", Team.class).size);
+		assertEquals(5, jsonReader.parse("{size:5}", Team.class).size);
+		try {
+			jsonReader.parse("{\"size\":3} 1", Team.class);
+			fail();
+		} catch (JsonParseException e) {
+			// nothing left behind
+		}
+	}
+
 	private JsonElement parse(String json) throws IOException, JsonParseException {
 		JsonElement ret = jsonReader.parse(json);
 		System.out.println(ret);
@@ -0,0 +1,86 @@
+package com.github.alexmao86.json;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import junit.framework.TestCase;
+
+public class JsonConfigTest extends TestCase {
+	private static final JsonSerializer<Integer> HASHED = new JsonSerializer<Integer>() {
+		public Class<Integer> supportedType() {
+			return Integer.class;
+		}
+
+		@Override
+		public String serialize(Integer object, JsonSystem context) {
+			return "\"#" + object + "\"";
+		}
+	};
+
+	public void testSnapshot() throws Exception {
+		JsonCounters counters = new JsonCounters();
+		JsonConfig config = JsonSystem.builder().registerJsonSerializer(HASHED).maxDepth(2).jsonMetrics(counters)
+				.build();
+		UserBean bean = new UserBean("name", "address", 30, 1.5f);
+		JsonWriter writer = new JsonWriter(config);
+		assertTrue(writer.stringify(bean).contains("\"age\":\"#30\""));
+		assertSame(config, writer.getConfig());
+
+		// setters of a context replace its rules, the snapshot stays
+		JsonReader reader = new JsonReader(config);
+		reader.setMaxDepth(3);
+		assertEquals(3, reader.getMaxDepth());
+		assertEquals(2, config.getMaxDepth());
+		assertEquals(2, new JsonReader(config).getMaxDepth());
+		assertNotSame(config, reader.getConfig());
+		reader.parse("[[[1]]]");
+		try {
+			new JsonReader(config).parse("[[[1]]]");
+			fail("max depth of the snapshot is 2");
+		} catch (JsonParseException e) {
+		}
+
+		JsonConfig derived = config.toBuilder().maxDepth(5).generatedCodecs(true).build();
+		assertEquals(5, derived.getMaxDepth());
+		assertTrue(derived.isGeneratedCodecs());
+		assertFalse(config.isGeneratedCodecs());
+		assertSame(counters, derived.getJsonMetrics());
+		assertTrue(new JsonWriter(derived).stringify(bean).contains("\"age\":\"#30\""));
+		assertTrue(new JsonWriter().stringify(bean).contains("\"age\":30"));
+	}
+
+	public void testSharedAcrossThreads() throws Exception {
+		final JsonCounters counters = new JsonCounters();
+		final JsonReader reader = new JsonReader(JsonSystem.builder().jsonMetrics(counters).build());
+		final JsonWriter writer = new JsonWriter(reader.getConfig());
+		final String json = writer.stringify(new UserBean("name", "address", 30, 1.5f));
+		ExecutorService pool = Executors.newFixedThreadPool(16);
+		try {
+			List<Future<String>> results = new ArrayList<Future<String>>();
+			for (int i = 0; i < 64; i++) {
+				results.add(pool.submit(new Callable<String>() {
+					@Override
+					public String call() throws Exception {
+						String last = null;
+						for (int k = 0; k < 100; k++) {
+							last = writer.stringify(reader.parse(json, UserBean.class));
+						}
+						return last;
+					}
+				}));
+			}
+			for (Future<String> result : results) {
+				assertEquals(json, result.get());
+			}
+		} finally {
+			pool.shutdown();
+		}
+		assertEquals(64 * 100, counters.getDocuments());
+		assertEquals(64 * 100, counters.getBindTimers().get(UserBean.class).getCount());
+		assertEquals(64 * 100 + 1, counters.getSerializeTimers().get(UserBean.class).getCount());
+	}
+}
@@ -0,0 +1,82 @@
+package com.github.alexmao86.json;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import junit.framework.TestCase;
+
+public class JsonCountersTest extends TestCase {
+	public static class Point {
+		private int x;
+		private int y;
+	}
+
+	public void testParse() throws IOException, JsonParseException {
+		JsonReader reader = new JsonReader();
+		JsonCounters counters = new JsonCounters();
+		reader.setJsonMetrics(counters);
+		String json = "{\"a\":[1,2,{\"b\":true}],\"c\":\"x\"}";
+		reader.parse(json);
+		reader.parse(json.getBytes("UTF-8"));
+		assertEquals(2, counters.getDocuments());
+		assertEquals(json.length() * 2, counters.getLength());
+		assertEquals(2 * 7, counters.getValues());
+		assertEquals(3, counters.getMaxDepth());
+		assertTrue(counters.getParseNanos() > 0);
+		assertTrue(counters.getBindTimers().isEmpty());
+
+		reader.setJsonMetrics(null);
+		assertSame(JsonMetrics.NONE, reader.getJsonMetrics());
+		reader.parse(json);
+		assertEquals(2, counters.getDocuments());
+	}
+
+	public void testLengthOfUtf8Sources() throws IOException, JsonParseException {
+		JsonReader reader = new JsonReader();
+		JsonCounters counters = new JsonCounters();
+		reader.setJsonMetrics(counters);
+		String json = "{\"name\":\"h\u00e9llo \u4e2d\u6587\"}";
+		byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+		assertTrue(bytes.length > json.length());
+		reader.parse(json);
+		assertEquals(json.length(), counters.getLength());
+		reader.parse(bytes);
+		assertEquals(json.length() + bytes.length, counters.getLength());
+		reader.parse(new ByteArrayInputStream(bytes));
+		assertEquals(json.length() + 2 * bytes.length, counters.getLength());
+		Path file = Files.createTempFile("counters", ".json");
+		try {
+			Files.write(file, bytes);
+			reader.parse(file);
+		} finally {
+			Files.delete(file);
+		}
+		assertEquals(json.length() + 3 * bytes.length, counters.getLength());
+	}
+
+	public void testBindAndSerialize() throws IOException, JsonParseException {
+		JsonCounters counters = new JsonCounters();
+		JsonReader reader = new JsonReader();
+		reader.setJsonMetrics(counters);
+		JsonWriter writer = new JsonWriter();
+		writer.setJsonMetrics(counters);
+
+		Point point = reader.parse("{\"x\":1,\"y\":2,\"z\":[3]}", Point.class);
+		assertEquals(2, point.y);
+		assertEquals(1, counters.getReflectMisses());
+		assertEquals(0, counters.getReflectHits());
+		assertEquals(5, counters.getValues());
+		assertEquals(1, counters.getBindTimers().get(Point.class).getCount());
+
+		assertEquals("{\"x\":1,\"y\":2}", writer.stringify(point));
+		writer.stringifyUtf8(point);
+		assertEquals(1, counters.getReflectMisses());
+		assertEquals(2, counters.getReflectHits());
+		JsonCounters.Timer timer = counters.getSerializeTimers().get(Point.class);
+		assertEquals(2, timer.getCount());
+		assertTrue(timer.getNanos() > 0);
+	}
+}
@@ -0,0 +1,154 @@
+package com.github.alexmao86.json;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
+import com.github.alexmao86.json.io.CharSequenceInputSource;
+import com.github.alexmao86.json.io.ReaderInputSource;
+import com.github.alexmao86.json.io.StringInputSource;
+import com.github.alexmao86.json.io.Utf8ByteArrayInputSource;
+
+import junit.framework.TestCase;
+
+public class JsonTokenReaderTest extends TestCase {
+
+	public void testReadObject() throws IOException, JsonParseException {
+		JsonTokenReader reader = new JsonTokenReader(
+				"{\"name\":\"Alex\", age:31, 'married':true, \"wife\":null, \"salary\":-12.5}");
+		assertEquals(JsonToken.BEGIN_OBJECT, reader.nextToken());
+		reader.beginObject();
+		assertEquals(1, reader.getDepth());
+		assertEquals("name", reader.nextName());
+		assertEquals(JsonToken.STRING, reader.nextToken());
+		assertEquals("Alex", reader.nextString());
+		assertEquals("age", reader.nextName());
+		assertEquals(JsonToken.NUMBER, reader.nextToken());
+		assertEquals(31, reader.nextLong());
+		assertEquals("married", reader.nextName());
+		assertEquals(JsonToken.BOOLEAN, reader.nextToken());
+		assertEquals(true, reader.nextBoolean());
+		assertEquals("wife", reader.nextName());
+		assertEquals(JsonToken.NULL, reader.nextToken());
+		reader.nextNull();
+		assertEquals("salary", reader.nextName());
+		assertEquals(-12.5d, reader.nextDouble());
+		assertEquals(false, reader.hasNext());
+		reader.endObject();
+		assertEquals(JsonToken.END_DOCUMENT, reader.nextToken());
+	}
+
+	public void testSkipValue() throws IOException, JsonParseException {
+		JsonTokenReader reader = new JsonTokenReader(
+				"[{\"a\":[1,2,{\"b\":\"x\"}],\"c\":3}, \"skip me\", 4, [], {}]");
+		reader.beginArray();
+		reader.beginObject();
+		assertEquals("a", reader.nextName());
+		reader.skipValue();
+		assertEquals("c", reader.nextName());
+		assertEquals(3, reader.nextInt());
+		reader.endObject();
+		reader.skipValue();
+		assertEquals(4, reader.nextInt());
+		reader.skipValue();
+		reader.skipValue();
+		reader.endArray();
+		assertEquals(JsonToken.END_DOCUMENT, reader.nextToken());
+	}
+
+	public void testSkipNameAndValue() throws IOException, JsonParseException {
+		JsonTokenReader reader = new JsonTokenReader("{\"a\":{\"x\":1},\"b\":2}");
+		reader.beginObject();
+		reader.skipValue();
+		assertEquals("b", reader.nextName());
+		assertEquals(2, reader.nextInt());
+		reader.endObject();
+	}
+
+	public void testEmptyDocument() throws IOException, JsonParseException {
+		assertEquals(JsonToken.END_DOCUMENT, new JsonTokenReader("  ").nextToken());
+	}
+
+	public void testUnclosedBracket() throws IOException {
+		JsonTokenReader reader = new JsonTokenReader("[1, {\"a\":2");
+		try {
+			reader.skipValue();
+			fail("unclosed object must fail");
+		} catch (JsonParseException e) {
+			assertTrue(e.getMessage().endsWith("location 4"));
+		}
+	}
+
+	public void testTrailingContent() throws IOException {
+		try {
+			new JsonReader().parse("{} 12");
+			fail("trailing content must fail");
+		} catch (JsonParseException e) {
+			assertEquals("12", e.getMessage());
+		}
+	}
+
+	public void testMaxDepth() throws IOException, JsonParseException {
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < 100; i++) {
+			builder.append('[');
+		}
+		for (int i = 0; i < 100; i++) {
+			builder.append(']');
+		}
+		JsonReader reader = new JsonReader();
+		assertEquals(1, reader.parse(builder.toString()).getSize());
+		reader.setMaxDepth(99);
+		try {
+			reader.parse(builder.toString());
+			fail("too deep nesting must fail");
+		} catch (JsonParseException e) {
+			assertTrue(e.getMessage().endsWith("location 99"));
+		}
+	}
+
+	public void testNumbers() throws IOException, JsonParseException {
+		JsonTokenReader reader = new JsonTokenReader("[-9223372036854775808, 2147483647, \"12\", 1.5, 9223372036854775808, true]");
+		reader.beginArray();
+		assertEquals(Long.MIN_VALUE, reader.nextLong());
+		assertEquals(Integer.MAX_VALUE, reader.nextInt());
+		assertEquals(12, reader.nextInt());
+		assertEquals(1.5, reader.nextDouble());
+		try {
+			reader.nextLong();
+			fail("overflow must fail");
+		} catch (NumberFormatException e) {
+			// value is consumed anyway
+		}
+		assertTrue(reader.nextBoolean());
+		reader.endArray();
+	}
+
+	public void testUnescape() throws IOException, JsonParseException {
+		String json = "[\"a\\\\\", \"tab\\there\\n\", \"\\u00e9t\\u00C9\\/\\\"\", 'it\\'s', \"plain text\"]";
+		CharSequenceInputSource[] sources = { new StringInputSource(json),
+				new ReaderInputSource(new StringReader(json), 16),
+				new Utf8ByteArrayInputSource(json.getBytes(StandardCharsets.UTF_8)) };
+		for (CharSequenceInputSource source : sources) {
+			JsonTokenReader reader = new JsonTokenReader(source);
+			reader.beginArray();
+			assertEquals("a\\", reader.nextString());
+			assertEquals("tab\there\n", reader.nextString());
+			assertEquals("\u00e9t\u00c9/\"", reader.nextString());
+			assertEquals("it's", reader.nextString());
+			assertEquals("plain text", reader.nextString());
+			reader.endArray();
+		}
+		String written = new JsonWriter().stringify("q\"\\/\n\u2028");
+		assertEquals("q\"\\/\n\u2028", new JsonTokenReader(written).nextString());
+	}
+
+	public void testBadEscape() throws IOException {
+		try {
+			new JsonTokenReader("\"\\u12\"").nextString();
+			fail("bad unicode escape must fail");
+		} catch (JsonParseException e) {
+			assertTrue(e.getMessage().contains("bad unicode escape"));
+		}
+	}
+}
@@ -2,13 +2,32 @@ package com.github.alexmao86.json;
 
 import static org.junit.Assert.*;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.junit.Test;
 
+import com.github.alexmao86.json.annotation.JsonSerializable;
+
 public class JsonWriterTest {
 
+	public static class NamedBean {
+		@JsonSerializable("na\"me")
+		private String name = "x";
+		@JsonSerializable("\u00e2ge")
+		private int age = 3;
+		private String empty = null;
+		private long id = -5;
+	}
+
 	@Test
 	public void test() {
 		Object str = null;
@@ -19,4 +38,84 @@ public class JsonWriterTest {
 		System.out.print(new JsonWriter().stringify(col));
 	}
 
+	@Test
+	public void testNested() {
+		Map<String, Object> map = new LinkedHashMap<String, Object>();
+		map.put("name", "a\"b");
+		map.put("list", Arrays.asList(1, "x", null));
+		map.put("ints", new int[] { 1, 2 });
+		map.put("chars", new char[] { 'q', '"' });
+		assertEquals("{\"name\":\"a\\\"b\",\"list\":[1,\"x\",null],\"ints\":[1,2],\"chars\":[\"q\",\"\\\"\"]}",
+				new JsonWriter().stringify(map));
+	}
+
+	public static class Blank {
+	}
+
+	@Test
+	public void testNullSerializerResult() {
+		JsonWriter writer = new JsonWriter();
+		writer.registerJsonSerializer(new JsonSerializer<Blank>() {
+			public Class<Blank> supportedType() {
+				return Blank.class;
+			}
+
+			@Override
+			public String serialize(Blank object, JsonSystem context) {
+				return null;
+			}
+		});
+		Map<String, Object> map = new LinkedHashMap<String, Object>();
+		map.put("a", new Blank());
+		map.put("list", Arrays.asList(1, new Blank(), 2));
+		assertEquals("{\"a\":null,\"list\":[1,null,2]}", writer.stringify(map));
+	}
+
+	@Test
+	public void testWriterAndStream() throws IOException {
+		List<Object> list = new ArrayList<Object>();
+		StringBuilder expected = new StringBuilder("[");
+		for (int i = 0; i < 5000; i++) {// longer than sink buffer
+			list.add("\u00e9l\u00e8ve" + i);
+			expected.append(i == 0 ? "" : ",").append("\"\u00e9l\u00e8ve").append(i).append('"');
+		}
+		expected.append(']');
+		JsonWriter writer = new JsonWriter();
+		assertEquals(expected.toString(), writer.stringify(list));
+
+		StringWriter chars = new StringWriter();
+		writer.stringify(list, chars);
+		assertEquals(expected.toString(), chars.toString());
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		writer.stringify(list, bytes);
+		assertEquals(expected.toString(), new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+		assertArrayEquals(bytes.toByteArray(), writer.stringifyUtf8(list));
+	}
+
+	@Test
+	public void testTreeRoundTrip() throws IOException, JsonParseException {
+		String json = "{\"a\":[1,2.5,null,true,\"s\"],\"b\":{\"c\":\"d\"}}";
+		JsonObject object = new JsonReader().parse(json).getAsJsonObject();
+		assertEquals(json, object.toString());
+		assertEquals(json, new JsonWriter().stringify(object));
+	}
+
+	@Test
+	public void testMemberNames() {
+		String expected = "{\"na\\\"me\":\"x\",\"\u00e2ge\":3,\"id\":-5}";
+		JsonWriter writer = new JsonWriter();
+		assertEquals(expected, writer.stringify(new NamedBean()));
+		assertArrayEquals(expected.getBytes(StandardCharsets.UTF_8), writer.stringifyUtf8(new NamedBean()));
+	}
+
+	@Test
+	public void testEscape() {
+		String clean = "plain text \u00e9 \u4e2d";
+		assertSame(clean, JsonSystem.escape(clean));
+		assertEquals("a\\\"b\\\\c\\/d\\b\\f\\n\\r\\t\\u0001\\u001F\\u007F\\u0085\\u2028e",
+				JsonSystem.escape("a\"b\\c/d\b\f\n\r\t\u0001\u001f\u007f\u0085\u2028e"));
+		assertEquals("\"\\n\u00e9x\\u20FF\"", new JsonWriter().stringify("\n\u00e9x\u20ff"));
+	}
+
 }
@@ -17,4 +17,20 @@ public class LazilyParsedNumberTest {
 		System.out.print(lazi.doubleValue());
 	}
 
+	@Test
+	public void testShapes() {
+		assertEquals(Long.MIN_VALUE, new LazilyParsedNumber("-9223372036854775808").longValue());
+		assertEquals(1.5d, new LazilyParsedNumber("1.5").doubleValue(), 0);
+		assertEquals(1, new LazilyParsedNumber("1.5").intValue());
+		assertEquals(1000L, new LazilyParsedNumber("1e3").longValue());
+		LazilyParsedNumber big = new LazilyParsedNumber("18446744073709551617");
+		assertEquals(1L, big.longValue());
+		assertEquals(1.8446744073709552E19, big.doubleValue(), 0);
+	}
+
+	@Test(expected = NumberFormatException.class)
+	public void testInvalid() {
+		new LazilyParsedNumber("1.2.3").longValue();
+	}
+
 }
@@ -0,0 +1,65 @@
+package com.github.alexmao86.json;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+public class MemberIndexTest extends TestCase {
+	public void testIndexOf() {
+		List<String> names = new ArrayList<String>();
+		// same String.hashCode
+		names.add("Aa");
+		names.add("BB");
+		for (int i = 0; i < 300; i++) {
+			names.add("member" + i);
+		}
+		names.add("");
+		names.add("âge");
+		MemberIndex index = MemberIndex.of(names);
+		for (int i = 0; i < names.size(); i++) {
+			assertEquals(i, index.indexOf(names.get(i)));
+			assertEquals(i, index.indexOf(new StringBuilder(names.get(i))));
+		}
+		assertEquals(-1, index.indexOf("member300"));
+		assertEquals(-1, index.indexOf("Ab"));
+		assertEquals(-1, index.indexOf("member"));
+	}
+
+	public void testTableSize() {
+		for (int count : new int[] { 1, 10, 50, 200, 500, 1000 }) {
+			List<String> names = new ArrayList<String>();
+			for (int i = 0; i < count; i++) {
+				names.add("member" + i);
+			}
+			MemberIndex index = MemberIndex.of(names);
+			assertTrue(count + " names take " + index.tableSize() + " slots", index.tableSize() <= 3 * count);
+			for (int i = 0; i < count; i++) {
+				assertEquals(i, index.indexOf(names.get(i)));
+			}
+		}
+	}
+
+	public void testProbed() {
+		List<String> names = new ArrayList<String>();
+		for (int i = 0; i < 300; i++) {
+			names.add("member" + i);
+		}
+		names.add("member0");
+		// no displacement but the first one, names are probed
+		MemberIndex index = MemberIndex.of(names, 1);
+		assertEquals(1024, index.tableSize());
+		for (int i = 0; i < 300; i++) {
+			assertEquals(i, index.indexOf(names.get(i)));
+			assertEquals(-1, index.indexOf("member" + (i + 300)));
+		}
+	}
+
+	public void testRepeatedAndEmpty() {
+		MemberIndex index = MemberIndex.of(Arrays.asList("a", "b", "a"));
+		assertEquals(0, index.indexOf("a"));
+		assertEquals(1, index.indexOf("b"));
+		assertEquals(-1, MemberIndex.of(new ArrayList<String>()).indexOf("a"));
+	}
+}
@@ -0,0 +1,65 @@
+package com.github.alexmao86.json.io;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.alexmao86.json.JSONReaderTest;
+import com.github.alexmao86.json.JsonElement;
+import com.github.alexmao86.json.JsonNull;
+import com.github.alexmao86.json.JsonParseException;
+import com.github.alexmao86.json.JsonReader;
+
+public class MappedFileInputSourceTest {
+	private Path file;
+
+	@Before
+	public void setUp() throws IOException {
+		file = Files.createTempFile("mapped", ".json");
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(file);
+	}
+
+	@Test
+	public void testParseFile() throws IOException, JsonParseException {
+		String json = JSONReaderTest.loadTestTestFile("complex");
+		Files.write(file, json.getBytes(StandardCharsets.UTF_8));
+		JsonReader reader = new JsonReader();
+		JsonElement result = reader.parse(file);
+		assertEquals(reader.parse(json).toString(), result.toString());
+		assertEquals("SNORUS", result.getAsJSONObjectAt(1).getAsString("company"));
+	}
+
+	@Test
+	public void testRemapAcrossMultiBytesChars() throws IOException {
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < 200; i++) {
+			builder.append("中文😀a");
+		}
+		String text = builder.toString();
+		Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+		// 7 bytes mappings split every sequence somewhere
+		try (MappedFileInputSource source = new MappedFileInputSource(file, 16, 7)) {
+			StringBuilder read = new StringBuilder();
+			while (source.available()) {
+				read.append(source.getCharAndMove());
+			}
+			assertEquals(text, read.toString());
+		}
+	}
+
+	@Test
+	public void testEmptyFile() throws IOException, JsonParseException {
+		assertEquals(JsonNull.INSTANCE, new JsonReader().parse(file));
+	}
+}
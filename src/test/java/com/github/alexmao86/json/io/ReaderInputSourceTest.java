@@ -0,0 +1,99 @@
+package com.github.alexmao86.json.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import com.github.alexmao86.json.JSONReaderTest;
+import com.github.alexmao86.json.JsonElement;
+import com.github.alexmao86.json.JsonParseException;
+import com.github.alexmao86.json.JsonReader;
+
+public class ReaderInputSourceTest {
+
+	@Test
+	public void testParseComplex() throws IOException, JsonParseException {
+		String json = JSONReaderTest.loadTestTestFile("complex");
+		JsonReader reader = new JsonReader();
+		String expected = reader.parse(json).toString();
+
+		JsonElement fromReader = reader.parse(new ReaderInputSource(new StringReader(json), 16));
+		assertEquals(expected, fromReader.toString());
+		assertEquals("SNORUS", fromReader.getAsJSONObjectAt(1).getAsString("company"));
+
+		JsonElement fromStream = reader.parse(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+		assertEquals(expected, fromStream.toString());
+	}
+
+	@Test
+	public void testWindowBoundary() throws IOException {
+		CharSequenceInputSource source = new ReaderInputSource(new StringReader("  0123456789abcdefghijklmnop"), 16);
+		source.skipWhitespace();
+		assertEquals('0', source.getChar());
+		assertEquals(' ', source.previousChar());
+		source.move(20);
+		assertEquals('k', source.getCharAndMove());
+		assertEquals('k', source.previousChar());
+		assertEquals(23, source.getCursor());
+	}
+
+	@Test
+	public void testCursorPastIntRange() throws IOException, JsonParseException {
+		final long blanks = (1L << 31) + 5;
+		// whitespace without writing it, the window starts blank
+		Reader reader = new Reader() {
+			private long remaining = blanks + 1;
+
+			@Override
+			public int read(char[] cbuf, int off, int len) {
+				if (remaining == 0)
+					return -1;
+				int count = (int) Math.min(len, remaining);
+				remaining -= count;
+				if (remaining == 0)
+					cbuf[off + count - 1] = '}';
+				return count;
+			}
+
+			@Override
+			public void close() {
+			}
+		};
+		try {
+			new JsonReader().parse(new ReaderInputSource(reader, 1 << 16));
+			fail("'}' is unexpected");
+		} catch (JsonParseException e) {
+			assertEquals("unexpected '}', location " + blanks, e.getMessage());
+		}
+	}
+
+	@Test
+	public void testSliceLongerThanWindow() throws IOException {
+		CharSequenceInputSource source = new ReaderInputSource(new StringReader("\"0123456789a\\\"cdefghijklmnop\" 12"), 16);
+		source.move();
+		source.mark();
+		assertEquals(CharSequenceInputSource.QUOTE_ESCAPED, source.scanQuoted('"'));
+		assertEquals("0123456789a\\\"cdefghijklmnop", source.slice().toString());
+		assertEquals("0123456789a\\\"cdefghijklmnop", source.sliceText().toString());
+		source.move();
+		source.skipWhitespace();
+		source.mark();
+		source.scanLiteral();
+		assertEquals("12", source.slice().toString());
+		assertEquals(false, source.available());
+	}
+
+	@Test(expected = IOException.class)
+	public void testEndOfSource() throws IOException {
+		CharSequenceInputSource source = new ReaderInputSource(new StringReader("a"));
+		source.move();
+		source.getChar();
+	}
+}
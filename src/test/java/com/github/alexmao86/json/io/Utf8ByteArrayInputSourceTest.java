@@ -0,0 +1,96 @@
+package com.github.alexmao86.json.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import com.github.alexmao86.json.JSONReaderTest;
+import com.github.alexmao86.json.JsonElement;
+import com.github.alexmao86.json.JsonReader;
+
+public class Utf8ByteArrayInputSourceTest {
+	private static final String TEXT = "{\"name\":\"héllo 中文 😀\", \"ascii\":\"plain\"}";
+
+	private static String drain(CharSequenceInputSource source) throws IOException {
+		StringBuilder builder = new StringBuilder();
+		while (source.available()) {
+			builder.append(source.getCharAndMove());
+		}
+		return builder.toString();
+	}
+
+	@Test
+	public void testDecodeChars() throws IOException {
+		assertEquals(TEXT, drain(new Utf8ByteArrayInputSource(TEXT.getBytes(StandardCharsets.UTF_8))));
+		byte[] bytes = { 'a', (byte) 0xC3, 'b' };
+		assertEquals("a�b", drain(new Utf8ByteArrayInputSource(bytes)));
+	}
+
+	@Test
+	public void testSurrogatePair() throws IOException {
+		CharSequenceInputSource source = new Utf8ByteArrayInputSource("a😀b".getBytes(StandardCharsets.UTF_8));
+		source.move();
+		assertEquals('\uD83D', source.getChar());
+		assertEquals('\uDE00', source.tryNextChar());
+		assertEquals(1, source.getCursor());
+		source.move();
+		assertEquals('\uDE00', source.getChar());
+		assertEquals('\uD83D', source.previousChar());
+		source.move();
+		assertEquals('b', source.getChar());
+		assertEquals('\uDE00', source.previousChar());
+		assertEquals(5, source.getCursor());
+	}
+
+	@Test
+	public void testQuotedText() throws IOException {
+		byte[] bytes = "\"a\\\"中\" 'x".getBytes(StandardCharsets.UTF_8);
+		Utf8ByteArrayInputSource source = new Utf8ByteArrayInputSource(bytes);
+		source.move();
+		source.mark();
+		assertEquals(CharSequenceInputSource.QUOTE_ESCAPED, source.scanQuoted('"'));
+		CharSequence text = source.sliceText();
+		source.move();
+		assertEquals("a\\\"中", text.toString());
+		source.skipWhitespace();
+		source.move();
+		assertEquals(CharSequenceInputSource.QUOTE_UNCLOSED, source.scanQuoted('\''));
+
+		// ascii slices are viewed by one reused view, others are decoded
+		source = new Utf8ByteArrayInputSource("123 true 中".getBytes(StandardCharsets.UTF_8));
+		source.mark();
+		source.scanLiteral();
+		CharSequence number = source.slice();
+		assertEquals("123", number.toString());
+		source.skipWhitespace();
+		source.mark();
+		source.scanLiteral();
+		assertSame(number, source.slice());
+		assertEquals("true", number.toString());
+		source.skipWhitespace();
+		source.mark();
+		source.scanLiteral();
+		assertEquals("中", source.slice().toString());
+
+		Utf8Text ascii = new Utf8Text("xabcx".getBytes(StandardCharsets.US_ASCII), 1, 3, true);
+		assertEquals(3, ascii.length());
+		assertEquals('b', ascii.charAt(1));
+		assertEquals("abc", ascii.toString());
+	}
+
+	@Test
+	public void testParseBytes() throws Exception {
+		String src = JSONReaderTest.loadTestTestFile("complex");
+		JsonReader reader = new JsonReader();
+		JsonElement expected = reader.parse(src);
+		JsonElement actual = reader.parse(src.getBytes(StandardCharsets.UTF_8));
+		assertEquals(expected.toString(), actual.toString());
+
+		JsonElement e = reader.parse(TEXT.getBytes(StandardCharsets.UTF_8));
+		assertEquals("héllo 中文 😀", e.getAsJsonObject().getAsString("name"));
+	}
+}
@@ -0,0 +1,79 @@
+package com.github.alexmao86.json.io;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+public class Utf8InputStreamSourceTest {
+	private static final String TEXT = "{\"name\":\"héllo 中文 😀\", \"ascii\":\"plain text long enough to cross windows\"}";
+
+	/**
+	 * stream handing out one byte per read, so every sequence is split
+	 */
+	private static InputStream trickle(final byte[] bytes) {
+		return new InputStream() {
+			int i = 0;
+
+			@Override
+			public int read() throws IOException {
+				return i < bytes.length ? bytes[i++] & 0xFF : -1;
+			}
+
+			@Override
+			public int read(byte[] b, int off, int len) throws IOException {
+				if (i >= bytes.length)
+					return -1;
+				b[off] = bytes[i++];
+				return 1;
+			}
+		};
+	}
+
+	private static String drain(CharSequenceInputSource source) throws IOException {
+		StringBuilder builder = new StringBuilder();
+		while (source.available()) {
+			builder.append(source.getCharAndMove());
+		}
+		return builder.toString();
+	}
+
+	@Test
+	public void testDecodeSmallWindow() throws IOException {
+		byte[] bytes = TEXT.getBytes(StandardCharsets.UTF_8);
+		assertEquals(TEXT, drain(new Utf8InputStreamSource(new ByteArrayInputStream(bytes), 16)));
+		assertEquals(TEXT, drain(new Utf8InputStreamSource(trickle(bytes), 16)));
+	}
+
+	@Test
+	public void testSkipByteOrderMark() throws IOException {
+		byte[] text = "[1]".getBytes(StandardCharsets.UTF_8);
+		byte[] bytes = new byte[text.length + 3];
+		bytes[0] = (byte) 0xEF;
+		bytes[1] = (byte) 0xBB;
+		bytes[2] = (byte) 0xBF;
+		System.arraycopy(text, 0, bytes, 3, text.length);
+		assertEquals("[1]", drain(new Utf8InputStreamSource(trickle(bytes))));
+	}
+
+	@Test
+	public void testMalformedBytes() throws IOException {
+		byte[] bytes = { 'a', (byte) 0xC3, 'b', (byte) 0xE4, (byte) 0xB8 };
+		assertEquals("a\uFFFDb\uFFFD", drain(new Utf8InputStreamSource(new ByteArrayInputStream(bytes))));
+	}
+
+	@Test
+	public void testLookbehindAcrossWindow() throws IOException {
+		byte[] bytes = "0123456789abcdefghij".getBytes(StandardCharsets.UTF_8);
+		CharSequenceInputSource source = new Utf8InputStreamSource(trickle(bytes), 16);
+		source.move(16);
+		assertEquals('g', source.getChar());
+		assertEquals('f', source.previousChar());
+		assertEquals('h', source.tryNextChar());
+		assertEquals(16, source.getCursor());
+	}
+}
@@ -0,0 +1,65 @@
+package com.github.alexmao86.json.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+public class Utf8OutputSinkTest {
+	private static final String TEXT = "{\"name\":\"héllo 中文 😀\", \"ascii\":\"plain\"}";
+
+	@Test
+	public void testEncode() throws IOException {
+		Utf8OutputSink sink = new Utf8OutputSink();
+		sink.write(TEXT);
+		sink.write(TEXT.toCharArray(), 0, TEXT.length());
+		for (int i = 0; i < TEXT.length(); i++) {// surrogate pair split over writes
+			sink.write(TEXT.charAt(i));
+		}
+		assertArrayEquals((TEXT + TEXT + TEXT).getBytes(StandardCharsets.UTF_8), sink.toByteArray());
+
+		sink.reset(null);
+		sink.write("a\uD83Db\uDE00");
+		sink.write('\uD83D');
+		assertArrayEquals("a?b??".getBytes(StandardCharsets.UTF_8), sink.toByteArray());
+	}
+
+	@Test
+	public void testLongAndToken() throws IOException {
+		Utf8OutputSink sink = new Utf8OutputSink();
+		long[] values = { 0, 7, -7, 10, 999, -1000, Integer.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE };
+		StringBuilder expected = new StringBuilder();
+		for (long value : values) {
+			sink.writeLong(value);
+			sink.writeToken("中,".toCharArray(), "中,".getBytes(StandardCharsets.UTF_8));
+			expected.append(value).append("中,");
+		}
+		assertEquals(expected.toString(), new String(sink.toByteArray(), StandardCharsets.UTF_8));
+
+		CharArrayOutputSink chars = new CharArrayOutputSink();
+		for (long value : values) {
+			chars.writeLong(value);
+			chars.writeToken("中,".toCharArray(), "中,".getBytes(StandardCharsets.UTF_8));
+		}
+		assertEquals(expected.toString(), chars.toString());
+	}
+
+	@Test
+	public void testDrainToStream() throws IOException {
+		ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		Utf8OutputSink sink = new Utf8OutputSink(stream, 32);
+		StringBuilder expected = new StringBuilder();
+		for (int i = 0; i < 200; i++) {
+			sink.write(TEXT);
+			sink.writeLong(i);
+			expected.append(TEXT).append(i);
+		}
+		sink.flush();
+		assertEquals(32, sink.capacity());
+		assertEquals(expected.toString(), new String(stream.toByteArray(), StandardCharsets.UTF_8));
+	}
+}
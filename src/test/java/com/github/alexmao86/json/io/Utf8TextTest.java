@@ -0,0 +1,66 @@
+package com.github.alexmao86.json.io;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+public class Utf8TextTest {
+	private static final String ASCII = "plain ascii text";
+	private static final String TEXT = "héllo 中文 😀";
+
+	@Test
+	public void testDecode() {
+		byte[] bytes = ("[" + TEXT + "]").getBytes(StandardCharsets.UTF_8);
+		Utf8Text text = new Utf8Text(bytes, 1, bytes.length - 2, false);
+		assertEquals(TEXT.length(), text.length());
+		assertEquals('中', text.charAt(6));
+		assertEquals(TEXT, text.toString());
+		assertEquals("中文", text.subSequence(6, 8));
+	}
+
+	@Test
+	public void testConcurrent() throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			for (int round = 0; round < 200; round++) {
+				final Utf8Text ascii = new Utf8Text(ASCII.getBytes(StandardCharsets.US_ASCII), 0, ASCII.length(),
+						true);
+				final Utf8Text text = new Utf8Text(TEXT.getBytes(StandardCharsets.UTF_8), 0,
+						TEXT.getBytes(StandardCharsets.UTF_8).length, false);
+				final CountDownLatch start = new CountDownLatch(1);
+				List<Future<String>> results = new ArrayList<Future<String>>();
+				for (int i = 0; i < 8; i++) {
+					results.add(pool.submit(new Callable<String>() {
+						@Override
+						public String call() throws Exception {
+							start.await();
+							StringBuilder read = new StringBuilder();
+							for (int j = 0; j < ascii.length(); j++) {
+								read.append(ascii.charAt(j));
+								if (j == ASCII.length() / 2)
+									ascii.toString();
+							}
+							read.append(text.charAt(0)).append(text.length()).append(text);
+							return read.toString();
+						}
+					}));
+				}
+				start.countDown();
+				for (Future<String> result : results) {
+					assertEquals(ASCII + TEXT.charAt(0) + TEXT.length() + TEXT, result.get());
+				}
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+}
@@ -0,0 +1,165 @@
+package com.github.alexmao86.json.processor;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import com.github.alexmao86.json.GeneratedJsonWorker;
+import com.github.alexmao86.json.JsonConfig;
+import com.github.alexmao86.json.JsonParseException;
+import com.github.alexmao86.json.JsonReader;
+import com.github.alexmao86.json.JsonStreamDeserializer;
+import com.github.alexmao86.json.JsonSystem;
+import com.github.alexmao86.json.JsonWriter;
+import com.github.alexmao86.json.annotation.JsonIgnore;
+import com.github.alexmao86.json.annotation.JsonSerializable;
+
+import junit.framework.TestCase;
+
+public class JsonWorkerProcessorTest extends TestCase {
+	@JsonSerializable
+	public static class Bean {
+		public static int count;
+		private int id;
+		@JsonSerializable("na\"me")
+		String name;
+		@JsonIgnore
+		private String secret;
+		private Collection<String> tags;
+		boolean active;
+		private char grade;
+
+		public int getId() {
+			return id;
+		}
+
+		public void setId(int id) {
+			this.id = id;
+		}
+
+		public Collection<String> getTags() {
+			return tags;
+		}
+
+		public void setTags(Collection<String> tags) {
+			this.tags = tags;
+		}
+
+		public char getGrade() {
+			return grade;
+		}
+
+		public void setGrade(char grade) {
+			this.grade = grade;
+		}
+	}
+
+	public void testGeneratedWorker() throws IOException, JsonParseException, ClassNotFoundException {
+		// generated while test sources were compiled, registered by service loader
+		Class<?> worker = Class.forName(getClass().getName() + "_BeanJsonWorker");
+		assertTrue(GeneratedJsonWorker.class.isAssignableFrom(worker));
+		assertTrue(JsonStreamDeserializer.class.isAssignableFrom(worker));
+		assertFalse(new JsonWriter().supportedSerializerForClass(Bean.class));
+		JsonConfig config = JsonSystem.builder().registerJsonWorkers(getClass().getClassLoader()).build();
+		JsonWriter writer = new JsonWriter(config);
+		assertTrue(writer.supportedSerializerForClass(Bean.class));
+
+		Bean bean = new Bean();
+		bean.id = 7;
+		bean.name = "x";
+		bean.secret = "s";
+		bean.tags = new ArrayList<String>(Arrays.asList("a", "b"));
+		bean.grade = 'A';
+		String json = writer.stringify(bean);
+		assertEquals("{\"id\":7,\"na\\\"me\":\"x\",\"tags\":[\"a\",\"b\"],\"active\":false,\"grade\":\"A\"}", json);
+
+		Bean read = new JsonReader(config).parse(json.replace("false", "true"), Bean.class);
+		assertEquals(7, read.id);
+		assertEquals("x", read.name);
+		assertNull(read.secret);
+		assertEquals(Arrays.asList("a", "b"), new ArrayList<String>(read.tags));
+		assertTrue(read.active);
+		assertEquals('A', read.grade);
+
+		// unknown members are skipped, null values are not set
+		read = new JsonReader(config).parse(
+				"{\"other\":{\"id\":[1,{\"x\":2}]},\"id\":3,\"na\\\"me\":null,\"tags\":null,\"grade\":\"B\"}",
+				Bean.class);
+		assertEquals(3, read.id);
+		assertNull(read.name);
+		assertNull(read.tags);
+		assertEquals('B', read.grade);
+	}
+
+	/**
+	 * compile: compile one source with the processor into given output
+	 *
+	 * @return diagnostics of javac, null if it succeeded
+	 */
+	static String compile(File out, String className, String source) throws IOException {
+		JavaCompiler javac = ToolProvider.getSystemJavaCompiler();
+		File file = new File(out, className.replace('.', '/') + ".java");
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), source.getBytes(StandardCharsets.UTF_8));
+		StringWriter diagnostics = new StringWriter();
+		StandardJavaFileManager files = javac.getStandardFileManager(null, null, StandardCharsets.UTF_8);
+		try {
+			List<String> options = Arrays.asList("-d", out.getPath(), "-classpath",
+					System.getProperty("java.class.path") + File.pathSeparator + out.getPath(), "-processor",
+					JsonWorkerProcessor.class.getName());
+			boolean ok = javac.getTask(diagnostics, files, null, options, null, files.getJavaFileObjects(file)).call();
+			return ok ? null : diagnostics.toString();
+		} finally {
+			files.close();
+		}
+	}
+
+	public void testReadOnlyMember() throws Exception {
+		File out = Files.createTempDirectory("processor").toFile();
+		assertNull(compile(out, "p.D", "package p; @com.github.alexmao86.json.annotation.JsonSerializable "
+				+ "public class D { public final int r = 1; public long a; public double d; }"));
+		try (URLClassLoader loader = new URLClassLoader(new URL[] { out.toURI().toURL() },
+				getClass().getClassLoader())) {
+			Class<?> type = loader.loadClass("p.D");
+			JsonConfig config = JsonSystem.builder().registerJsonWorkers(loader).build();
+			Object read = new JsonReader(config).parse("{\"r\":[5],\"a\":2,\"d\":-0}", type);
+			assertEquals(1, type.getField("r").getInt(read));
+			assertEquals(2L, type.getField("a").getLong(read));
+			assertEquals(Double.doubleToLongBits(-0.0), Double.doubleToLongBits(type.getField("d").getDouble(read)));
+		}
+	}
+
+	public void testIncrementalServices() throws IOException {
+		File out = Files.createTempDirectory("processor").toFile();
+		assertNull(compile(out, "p.A", "package p; @com.github.alexmao86.json.annotation.JsonSerializable "
+				+ "public class A { public int a; }"));
+		// B alone is compiled later, A stays listed
+		assertNull(compile(out, "p.B", "package p; @com.github.alexmao86.json.annotation.JsonSerializable "
+				+ "public class B { public int b; }"));
+		List<String> listed = Files.readAllLines(
+				new File(out, "META-INF/services/com.github.alexmao86.json.JsonWorker").toPath(),
+				StandardCharsets.UTF_8);
+		assertEquals(Arrays.asList("p.AJsonWorker", "p.BJsonWorker"), listed);
+	}
+
+	public void testMemberNameCollision() throws IOException {
+		File out = Files.createTempDirectory("processor").toFile();
+		String diagnostics = compile(out, "p.C", "package p; import com.github.alexmao86.json.annotation.JsonSerializable; "
+				+ "@JsonSerializable public class C { public int x; @JsonSerializable(\"x\") public int y; }");
+		assertNotNull(diagnostics);
+		assertTrue(diagnostics, diagnostics.contains("member name \"x\" of field y is used by field x"));
+		assertFalse(new File(out, "p/CJsonWorker.java").exists());
+	}
+}